@@ -3,6 +3,7 @@
 
 --[[ Import system ]]--
 system = luajava.bindClass('java.lang.System')
+allegiance = luajava.bindClass('org.ssh.models.enums.Allegiance')
 --[[ function newPoint ]]--
 function newPoint(x, y)
     return luajava.newInstance("javafx.geometry.Point2D", x, y)
@@ -15,7 +16,7 @@ end
 
 -- Create "aliases" for all robots. Robot B0 is robotB[0]
 function robotA(integer)
-   robot = Models:get("robot A" .. tonumber(integer))
+   robot = Models:getRobots():get(allegiance.ALLY, tonumber(integer))
    if robot:isPresent() then
        return robot:get()
    else
@@ -25,7 +26,7 @@ function robotA(integer)
 end
 
 function robotO(integer)
-   robot = Models:get("robot O" .. tonumber(integer))
+   robot = Models:getRobots():get(allegiance.OPPONENT, tonumber(integer))
    if robot:isPresent() then
        return robot:get()
    else
@@ -36,11 +37,13 @@ end
 
 -- Create "alias" for ball
 function getBall()
-  ball = Models:get("ball")
-  if ball:isPresent() then
-      ball = ball:get()
-  end
-  return nil
+   ball = Models:getBalls():get(0)
+   if ball:isPresent() then
+       return ball:get()
+   else
+       print("ball not present")
+       return nil
+   end
 end
 
 --[[ Prints all variables currently initialized]]--
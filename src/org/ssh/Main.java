@@ -11,6 +11,7 @@ import org.ssh.managers.manager.*;
 import org.ssh.models.*;
 import org.ssh.models.enums.Allegiance;
 import org.ssh.models.enums.ManagerEvent;
+import org.ssh.models.enums.OverrunPolicy;
 import org.ssh.models.enums.SendMethod;
 import org.ssh.network.receive.detection.DetectionPipeline;
 import org.ssh.network.receive.detection.consumers.DetectionModelConsumer;
@@ -82,8 +83,8 @@ public class Main extends Application {
         new WrapperPipeline("Wrappahrs");
         // make a pipeline
         new GeometryPipeline("fieldbuilder");
-        // Create new detection pipeline
-        new DetectionPipeline("detection");
+        // Create new detection pipeline which only keeps the latest frame per camera
+        new DetectionPipeline("detection", true);
         // Create a new Referee pipeline
         new RefereePipeline("referee");
 
@@ -117,6 +118,7 @@ public class Main extends Application {
         // start the managers
         Services.start();
         Models.start();
+        Services.loadExecutors();
         Pipelines.start();
         new VerboseCoupler();
         Network.start();
@@ -163,8 +165,9 @@ public class Main extends Application {
 
             if(listener.findAvailableRobotid().isPresent()) {
                 listener.register(listener.findAvailableRobotid().getAsInt(), layout); // i = robotid
-                if (!Services.get("ControllerExample poller").isPresent())
-                    Services.scheduleTask("ControllerExample poller", listener::processControllers, 20000);
+                if (!Services.getFixedRateTask("controller poller").isPresent())
+                    Services.scheduleAtFixedRate("controller poller", listener::processControllers, 20000,
+                            OverrunPolicy.SKIP);
             }
         }, 5000000);
     }
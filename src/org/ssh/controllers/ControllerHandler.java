@@ -5,6 +5,7 @@ import org.ssh.managers.manager.Models;
 import org.ssh.managers.manager.Services;
 import org.ssh.models.AbstractModel;
 import org.ssh.models.Robot;
+import org.ssh.models.enums.Allegiance;
 import org.ssh.models.enums.ButtonFunction;
 import org.ssh.models.enums.ProducerType;
 import org.ssh.services.AbstractProducer;
@@ -162,7 +163,7 @@ public class ControllerHandler extends AbstractProducer {
      */
     private static boolean dribbleToggle(final RadioProtocolCommand.Builder packet, final float buttonValue) {
         if (ControllerHandler.isPressed(buttonValue))
-            Models.<Robot>get("robot A" + packet.getRobotId())
+            Models.getRobots().get(Allegiance.ALLY, packet.getRobotId())
                     .ifPresent(robot -> packet.setDribblerSpin(Math.abs(robot.getDribbleSpeed()) > 0.1f ? 0f : 1f));
         return true;
     }
@@ -196,7 +197,7 @@ public class ControllerHandler extends AbstractProducer {
      */
     private static boolean getOrientation(final float goalAngle, final RadioProtocolCommand.Builder packet) {
         float rotationSpeed = goalAngle;
-        final Optional<Robot> oRobot = Models.<Robot>get("robot A" + packet.getRobotId());
+        final Optional<Robot> oRobot = Models.getRobots().get(Allegiance.ALLY, packet.getRobotId());
         // If the robot isn't present
         //if (!oRobot.isPresent()) {
             // Give a warning (It'll get sent anyway)
@@ -298,7 +299,7 @@ public class ControllerHandler extends AbstractProducer {
         processInput(currentButtonState, packet);
 
         //make sure the dribbler spins when it should
-        Models.<Robot>get("robot A" + packet.getRobotId())
+        Models.getRobots().get(Allegiance.ALLY, packet.getRobotId())
                 .ifPresent(robot -> packet.setDribblerSpin(Math.abs(robot.getDribbleSpeed()) > 0.1f ? robot.getDribbleSpeed() : 0f));
 
         // Save the previous button state to avoid duplication
@@ -1,12 +1,12 @@
 package org.ssh.expressions.languages;
 
 import org.ssh.expressions.RegularLanguage;
+import org.ssh.expressions.Token;
 import org.ssh.pipelines.AbstractPipelinePacket;
+import org.ssh.pipelines.RouteGraph;
+import org.ssh.util.Logger;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
 import java.util.function.Function;
 
 /**
@@ -21,24 +21,43 @@ import java.util.function.Function;
  */
 public class Pepe {
 
+    /**
+     * The concatenation operator.
+     */
+    private static final String CONCATENATOR = ">";
+
+    /**
+     * The parallel operator.
+     */
+    private static final String PARALLEL = "|";
+
     /**
      * The internal representation of the language.
      */
     private RegularLanguage<Function<AbstractPipelinePacket<?>, AbstractPipelinePacket<?>>> regularLanguage;
 
+    /**
+     * The operation that resolves the name of a coupler to its transfer function.
+     */
+    private Function<String, Function<AbstractPipelinePacket<?>, AbstractPipelinePacket<?>>> resolvingOperation;
+
+    // a logger for good measure
+    private static final Logger LOG = Logger.getLogger();
+
     /**
      * Instantiates a new Pepe.
      */
     public Pepe(Function<String, Function<AbstractPipelinePacket<?>, AbstractPipelinePacket<?>>> resolvingOperation) {
+        this.resolvingOperation = resolvingOperation;
 
         // create the language with the following lookup function
         this.regularLanguage = new RegularLanguage<>(resolvingOperation)
                 // add the concatenation operator
-                .addConcatenator(">",
+                .addConcatenator(CONCATENATOR,
                         (leftMember, rightMember) ->
                                 new ArrayList<>(Collections.singletonList(input -> rightMember.apply(leftMember.apply(input)))))
                 // add the parallel operator
-                .addOperator("|", true, 2,
+                .addOperator(PARALLEL, true, 2,
                         (leftMember, rightMember) -> new ArrayList<>(Arrays.asList(leftMember::apply, rightMember::apply)))
                 // build the language
                 .build();
@@ -54,4 +73,45 @@ public class Pepe {
         return this.regularLanguage.evaluate(pattern);
     }
 
-}
\ No newline at end of file
+    /**
+     * Compiles the given pattern into a {@link RouteGraph}. Unlike {@link #evaluate(String)}, which expands
+     * the pattern into every possible route, the graph shares common parts of the routes and only
+     * branches at the parallel operator.
+     *
+     * @param pattern The pattern to be compiled.
+     * @return The compiled route.
+     */
+    public RouteGraph compile(String pattern) {
+        // the postfix representation is stored back to front
+        Iterator<Token<Function<AbstractPipelinePacket<?>, AbstractPipelinePacket<?>>>> tokens =
+                this.regularLanguage.toPostFix(pattern).descendingIterator();
+        Deque<RouteGraph> graphStack = new ArrayDeque<>();
+
+        while (tokens.hasNext()) {
+            Token<Function<AbstractPipelinePacket<?>, AbstractPipelinePacket<?>>> token = tokens.next();
+
+            switch (token.getType()) {
+                case "w":
+                    graphStack.push(RouteGraph.of(this.resolvingOperation.apply(token.getSymbol().trim())));
+                    break;
+                case "o":
+                    if (graphStack.size() < 2) {
+                        Pepe.LOG.warning("Missing arguments to operator %s in route %s.", token.getSymbol(), pattern);
+                        return RouteGraph.empty();
+                    }
+                    RouteGraph rightMember = graphStack.pop();
+                    RouteGraph leftMember = graphStack.pop();
+                    graphStack.push(PARALLEL.equals(token.getSymbol())
+                            ? leftMember.or(rightMember)
+                            : leftMember.then(rightMember));
+                    break;
+                default:
+                    Pepe.LOG.warning("Unexpected token %s in route %s.", token.getSymbol(), pattern);
+                    return RouteGraph.empty();
+            }
+        }
+
+        return graphStack.isEmpty() ? RouteGraph.empty() : graphStack.pop().fuse();
+    }
+
+}
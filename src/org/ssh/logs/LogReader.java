@@ -1,5 +1,6 @@
 package org.ssh.logs;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.protobuf.GeneratedMessage;
 import com.google.protobuf.InvalidProtocolBufferException;
 import org.ssh.managers.manager.Pipelines;
@@ -8,6 +9,7 @@ import org.ssh.pipelines.packets.ProtoPacket;
 import org.ssh.pipelines.packets.RefereePacket;
 import org.ssh.pipelines.packets.WrapperPacket;
 import org.ssh.services.AbstractService;
+import org.ssh.util.Clock;
 import org.ssh.util.Logger;
 import protobuf.RefereeOuterClass;
 import protobuf.Wrapper;
@@ -15,6 +17,7 @@ import protobuf.Wrapper;
 import java.io.*;
 import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -41,6 +44,8 @@ public class LogReader extends AbstractService<ProtoPacket<?>> {
     /** Variables that keep track of the last packet sent. They're used to avoid duplicate package being sent. */
     private Long lastDetection;
     private Long lastReferee;
+    /** Whether the log is being replayed by {@link #replay(long)} */
+    private volatile boolean replaying = false;
 
     private final static int
             MESSAGE_SSL_VISION_2010 = 2,
@@ -89,17 +94,8 @@ public class LogReader extends AbstractService<ProtoPacket<?>> {
             Long detectionTime = detectionMessages.floorKey(time);
             // If this key was used last frame, don't use it
             if(!detectionTime.equals(lastDetection)) {
-                // Retrieve the detection message
-                byte[] decto = detectionMessages.get(detectionTime);
-                // And put it on the pipeline
-                Pipelines.getOfDataType(WrapperPacket.class).forEach(pipe -> {
-                            try {
-                                pipe.addPacket(new WrapperPacket(Wrapper.WrapperPacket.parseFrom(decto))).processPacket();
-                            } catch (InvalidProtocolBufferException exception) {
-                                LogReader.LOG.exception(exception);
-                            }
-                        }
-                );
+                // Retrieve the detection message and put it on the pipeline
+                publishDetection(detectionMessages.get(detectionTime));
                 // Update the last time we updated detection.
                 lastDetection = detectionTime;
             }
@@ -141,22 +137,96 @@ public class LogReader extends AbstractService<ProtoPacket<?>> {
             Long refereeTime = refereeMessages.floorKey(time);
             // Only send if both this message isn't the same as the last one
             if(!refereeTime.equals(lastReferee)) {
-                // Retrieve the referee message
-                byte[] referee = refereeMessages.get(refereeTime);
-                // Put it on the pipeline
-                Pipelines.getOfDataType(RefereePacket.class).forEach(pipe -> {
-                    try {
-                        pipe.addPacket(new RefereePacket(RefereeOuterClass.Referee.parseFrom(referee))).processPacket();
-                    } catch (InvalidProtocolBufferException exception) {
-                        LogReader.LOG.exception(exception);
-                    }
-                });
+                // Retrieve the referee message and put it on the pipeline
+                publishReferee(refereeMessages.get(refereeTime));
                 // Update the last time this frame was used, so frames don't get used twice.
                 lastReferee = refereeTime;
             }
         });
     }
 
+    /**
+     * Replays the log from the given time, sending every message at the moment it was logged as measured by
+     * the {@link Clock}. In scaled time the log is replayed at the speed of the clock, and in virtual time
+     * it is replayed as fast as the pipelines can process it.
+     * @param from time in ms from which the log is replayed
+     * @return a {@link ListenableFuture} which completes when the replay has finished or was stopped
+     */
+    public <L> ListenableFuture<L> replay(long from){
+        replaying = true;
+        return Services.submitTask("logreader-replay", () -> {
+            Iterator<Map.Entry<Long, byte[]>> detections = detectionMessages.tailMap(from, true).entrySet().iterator();
+            Iterator<Map.Entry<Long, byte[]>> referees = refereeMessages.tailMap(from, true).entrySet().iterator();
+            Map.Entry<Long, byte[]> detection = detections.hasNext() ? detections.next() : null;
+            Map.Entry<Long, byte[]> referee = referees.hasNext() ? referees.next() : null;
+            // The moment on the clock which corresponds to the given time in the log
+            long startTime = Clock.nanoTime();
+
+            while(replaying && (detection != null || referee != null)){
+                // Messages are sent in the order in which they were logged
+                boolean isDetection = referee == null || (detection != null && detection.getKey() <= referee.getKey());
+                Map.Entry<Long, byte[]> entry = isDetection ? detection : referee;
+                // Wait for the moment the message was logged, or move the clock there in virtual time
+                Clock.driveTo(startTime + TimeUnit.MILLISECONDS.toNanos(entry.getKey() - from));
+                if(!replaying)
+                    break;
+
+                if(isDetection){
+                    publishDetection(entry.getValue());
+                    lastDetection = entry.getKey();
+                    detection = detections.hasNext() ? detections.next() : null;
+                }
+                else{
+                    publishReferee(entry.getValue());
+                    lastReferee = entry.getKey();
+                    referee = referees.hasNext() ? referees.next() : null;
+                }
+            }
+            replaying = false;
+        });
+    }
+
+    /**
+     * Stops the replay started by {@link #replay(long)} before the next message is sent.
+     */
+    public void stopReplay(){
+        replaying = false;
+    }
+
+    /**
+     * @return whether the log is being replayed by {@link #replay(long)}
+     */
+    public boolean isReplaying(){
+        return replaying;
+    }
+
+    /**
+     * Puts the given detection message on the pipelines carrying {@link WrapperPacket WrapperPackets}
+     * @param message the serialized {@link protobuf.Wrapper.WrapperPacket WrapperPacket}
+     */
+    private void publishDetection(byte[] message){
+        Pipelines.getOfDataType(WrapperPacket.class).forEach(pipe -> {
+            try {
+                pipe.addPacket(new WrapperPacket(Wrapper.WrapperPacket.parseFrom(message))).processPacket();
+            } catch (InvalidProtocolBufferException exception) {
+                LogReader.LOG.exception(exception);
+            }
+        });
+    }
+
+    /**
+     * Puts the given referee message on the pipelines carrying {@link RefereePacket RefereePackets}
+     * @param message the serialized {@link protobuf.RefereeOuterClass.Referee Referee}
+     */
+    private void publishReferee(byte[] message){
+        Pipelines.getOfDataType(RefereePacket.class).forEach(pipe -> {
+            try {
+                pipe.addPacket(new RefereePacket(RefereeOuterClass.Referee.parseFrom(message))).processPacket();
+            } catch (InvalidProtocolBufferException exception) {
+                LogReader.LOG.exception(exception);
+            }
+        });
+    }
 
     /**
      * Prepares the class for logging.
@@ -5,15 +5,19 @@ import org.ssh.managers.manager.Pipelines;
 import org.ssh.managers.manager.Services;
 import org.ssh.models.Settings;
 import org.ssh.models.Team;
+import org.ssh.pipelines.packets.ProtoPacket;
 import org.ssh.pipelines.packets.RefereePacket;
 import org.ssh.pipelines.packets.WrapperPacket;
 import org.ssh.services.AbstractConsumer;
 import org.ssh.services.AbstractService;
+import org.ssh.services.BatchConsumer;
+import org.ssh.util.Clock;
 
 import java.io.*;
-import java.nio.ByteBuffer;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -160,11 +164,43 @@ public class LogWriter extends AbstractService {
                 (opponentTeam.isPresent() ? opponentTeam.get().getTeamName() : "opponent") + ".log";
     }
 
+    /**
+     * Turns the given packets into log entries, each consisting of a timestamp, the message type, the length
+     * of the message and the message itself. The timestamp is the moment the packet was received, so the
+     * packets of a batch keep their own timestamps.
+     * @param packets the packets that need to be written
+     * @param messageType the SSL log message type of the packets
+     * @return the log entries as a single byte array
+     * @throws IOException if the entries could not be written
+     */
+    private static byte[] toLogEntries(List<? extends ProtoPacket<?>> packets, int messageType) throws IOException {
+        // Create a "Byte buffer" for all packets at once
+        ByteArrayOutputStream arrayWriter = new ByteArrayOutputStream();
+        DataOutputStream dataWriter = new DataOutputStream(arrayWriter);
+
+        for (ProtoPacket<?> packet : packets) {
+            // Turn the packet into a byte array
+            byte[] array = packet.read().toByteArray();
+            // Add the timestamp at which the packet was received
+            final long receiveTime = packet.getReceiveTime();
+            dataWriter.writeLong(receiveTime == 0 ? Clock.nanoTime() : receiveTime);
+            // Add the message type
+            dataWriter.writeInt(messageType);
+            // Write the length of the byte array
+            dataWriter.writeInt(array.length);
+            // Write the byte array version of the packet
+            dataWriter.write(array);
+        }
+
+        dataWriter.flush();
+        return arrayWriter.toByteArray();
+    }
+
     /**
      * {@link AbstractConsumer A consumer} that consumes {@link RefereePacket RefereePackets} and writes them to
      * the {@link LogWriter}.
      */
-    private class LogRefereeConsumer extends AbstractConsumer<RefereePacket> {
+    private class LogRefereeConsumer extends AbstractConsumer<RefereePacket> implements BatchConsumer<RefereePacket> {
         /** The {@link LogWriter} that writes the data to a *.log file */
         private LogWriter writer;
 
@@ -185,23 +221,20 @@ public class LogWriter extends AbstractService {
          */
         @Override
         public boolean consume(RefereePacket pipelinePacket) {
-            try {
-                // Create a "Byte buffer"
-                ByteArrayOutputStream arrayWriter = new ByteArrayOutputStream();
-                // Add the timestamp
-                arrayWriter.write(ByteBuffer.allocate(Long.SIZE / Byte.SIZE).putLong(System.nanoTime()).array());
-                // Add the refbox message type
-                arrayWriter.write(ByteBuffer.allocate(Integer.SIZE / Byte.SIZE).putInt(MESSAGE_SSL_REFBOX_2013).array());
-
-                // Read the Refereepacket and change it to a byte array
-                byte[] array = pipelinePacket.read().toByteArray();
-                // Write the length to the log file
-                arrayWriter.write(ByteBuffer.allocate(Integer.SIZE / Byte.SIZE).putInt(array.length).array());
-                // Write the byte value of the RefereePacket
-                arrayWriter.write(array);
+            return consumeBatch(Collections.singletonList(pipelinePacket));
+        }
 
-                // Write the entire packet to the queue
-                writer.addToQueue(arrayWriter.toByteArray());
+        /**
+         * Consumes the {@link RefereePacket packets} and writes them to the log as a single entry in the queue.
+         * @param pipelinePackets
+         *            The PipelinePackets to be consumed.
+         * @return the success value
+         */
+        @Override
+        public boolean consumeBatch(List<RefereePacket> pipelinePackets) {
+            try {
+                // Write all packets to the queue at once
+                writer.addToQueue(toLogEntries(pipelinePackets, MESSAGE_SSL_REFBOX_2013));
             }catch (IOException exception){
                 LOG.exception(exception);
             }
@@ -213,7 +246,7 @@ public class LogWriter extends AbstractService {
      * {@link AbstractConsumer A consumer} that consumes {@link WrapperPacket WrapperPackets} and writes them to
      * the {@link LogWriter}.
      */
-    private class LogWrapperConsumer extends AbstractConsumer<WrapperPacket> {
+    private class LogWrapperConsumer extends AbstractConsumer<WrapperPacket> implements BatchConsumer<WrapperPacket> {
         /** The {@link LogWriter} that writes the data to a *.log file */
         private LogWriter writer;
 
@@ -234,23 +267,20 @@ public class LogWriter extends AbstractService {
          */
         @Override
         public boolean consume(WrapperPacket pipelinePacket) {
-            try {
-                // Create a "Byte Buffer"
-                ByteArrayOutputStream arrayWriter = new ByteArrayOutputStream();
-                // Add the timestamp
-                arrayWriter.write(ByteBuffer.allocate(Long.SIZE / Byte.SIZE).putLong(System.nanoTime()).array());
-                // Add the vision message type
-                arrayWriter.write(ByteBuffer.allocate(Integer.SIZE / Byte.SIZE).putInt(MESSAGE_SSL_VISION_2010).array());
-
-                // Turn the packet into a byte array
-                byte[] array = pipelinePacket.read().toByteArray();
-                // Write the length of the byte array
-                arrayWriter.write(ByteBuffer.allocate(Integer.SIZE / Byte.SIZE).putInt(array.length).array());
-                // Write the byte array version of the packet
-                arrayWriter.write(array);
+            return consumeBatch(Collections.singletonList(pipelinePacket));
+        }
 
-                // Add the packet to the queue
-                writer.addToQueue(arrayWriter.toByteArray());
+        /**
+         * Consumes the {@link WrapperPacket packets} and writes them to the log as a single entry in the queue.
+         * @param pipelinePackets
+         *            The PipelinePackets to be consumed.
+         * @return the success value
+         */
+        @Override
+        public boolean consumeBatch(List<WrapperPacket> pipelinePackets) {
+            try {
+                // Write all packets to the queue at once
+                writer.addToQueue(toLogEntries(pipelinePackets, MESSAGE_SSL_VISION_2010));
             }catch (IOException exception){
                 LOG.exception(exception);
             }
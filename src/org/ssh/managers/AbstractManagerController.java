@@ -1,16 +1,14 @@
 package org.ssh.managers;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimap;
 import org.ssh.expressions.languages.Meme;
 import org.ssh.models.enums.ManagerEvent;
 import org.ssh.util.Logger;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * The Class AbstractManagerController.
@@ -33,30 +31,49 @@ public abstract class AbstractManagerController<M extends AbstractManageable> {
      * manageables by their name in the manageables map.
      */
     protected static Meme memeEngine;
+    /**
+     * The index of the names of the manageables, used to find manageables by a pattern.
+     */
+    protected final NameIndex nameIndex;
+    /**
+     * The index of the types of the manageables, used to find manageables by their type.
+     */
+    protected final TypeIndex<M> typeIndex;
 
     // unique logger
     protected static final Logger LOG = Logger.getLogger();
 
     /**
-     * map containing all subscribers for elements
+     * bus delivering the events to all subscribers for elements
      */
-    protected Multimap<ManagerEvent, Map.Entry<Class<?>, Consumer>> subscribers;
+    protected final ManagerEventBus eventBus;
 
     /**
-     * Start listening for a specific event
+     * Start listening for a specific event. The consumer is called on the thread that triggers the event.
      * @param event       event to listen for
      * @param consumer    consumer to call when event happens
      * @param classes     class(es) that should trigger the event
      * @return true if listener has been added successful
      */
     public boolean addSubscription(ManagerEvent event, Consumer consumer, Class<?>... classes){
-        // stream all classes
-        return Stream.of(classes).map(clazz ->
-                // add it to the map
-                subscribers.put(event,
-                        new AbstractMap.SimpleEntry<>(clazz, consumer)))
-                // check if all went well
-                .reduce(true, (accumulator, success) -> accumulator && success);
+        return eventBus.subscribe(event, consumer, null, 0, classes);
+    }
+
+    /**
+     * Start listening for a specific event, with the consumer being called on the given executor.
+     * Updates of the same object within the coalesce window are delivered once, at the end of the window.
+     * @param event          event to listen for
+     * @param consumer       consumer to call when event happens
+     * @param executor       executor on which the consumer is called
+     * @param coalesceWindow window in us within which {@link ManagerEvent#UPDATE updates} are coalesced, or 0
+     *                       (coalescing requires an executor)
+     * @param classes        class(es) that should trigger the event
+     * @return true if listener has been added successful
+     * @see ManagerEventBus
+     */
+    public boolean addSubscription(ManagerEvent event, Consumer consumer, Executor executor, long coalesceWindow,
+                                   Class<?>... classes){
+        return eventBus.subscribe(event, consumer, executor, coalesceWindow, classes);
     }
 
     /**
@@ -67,18 +84,7 @@ public abstract class AbstractManagerController<M extends AbstractManageable> {
      * @return true if successful
      */
     public boolean removeSubscription(ManagerEvent event, Consumer consumer, Class<?>... classes) {
-        // primitive array to list
-        List<Class<?>> classList = Arrays.asList(classes);
-        // stream all subscribers to this ManagerEvent
-        return subscribers.get(event).stream()
-                // filter the classes that has been provided in #classes
-                .filter(set -> classList.contains(set.getKey()) &&
-                        consumer.equals(set.getValue()))
-                // remove the subscription
-                .map(set ->
-                        subscribers.remove(set.getKey(), set.getValue()))
-                // make sure everything worked
-                .reduce(true, (accumulator, success) -> accumulator && success);
+        return eventBus.unsubscribe(event, consumer, classes);
     }
 
     /**
@@ -91,13 +97,16 @@ public abstract class AbstractManagerController<M extends AbstractManageable> {
         // build the engine if it doesn't exist yet
         if (memeEngine == null)
             memeEngine = new Meme(name -> name);
+        this.nameIndex = new NameIndex(pattern -> memeEngine.evaluate(pattern));
+        this.typeIndex = new TypeIndex<>();
 
-        // create new HashMultiMap
-        subscribers = HashMultimap.create();
+        // create the event bus
+        eventBus = new ManagerEventBus();
     }
 
     /**
-     * Finds all the Manageables whose true name matches the given pattern.
+     * Finds all the Manageables whose true name matches the given pattern. The lookup goes through the
+     * {@link NameIndex}, so it doesn't depend on the number of Manageables.
      *
      * @param pattern The pattern to match on.
      * @param <N>     The type of Manageable requested by the user.
@@ -105,18 +114,13 @@ public abstract class AbstractManagerController<M extends AbstractManageable> {
      */
     @SuppressWarnings("unchecked")
     public <N extends AbstractManageable> List<N> find(String pattern) {
-        // evaluate the pattern
-        List<String> possibilities = memeEngine.evaluate(pattern);
-        // parallelize a search
-        return (List<N>) possibilities.stream().parallel()
-                .map(possibility -> this.manageables.entrySet().stream().parallel()
-                        // filter on a partial match of the string
-                        .filter(entry -> entry.getKey().contains(possibility))
-                        // map the match to the target object
-                        .map(Map.Entry::getValue)
-                        // collect the unique values in a list
-                        .collect(Collectors.toList()))
-                .flatMap(Collection::stream).distinct().collect(Collectors.toList());
+        // look up the names partially matching the pattern
+        return (List<N>) this.nameIndex.find(pattern).stream()
+                // map the names to the target objects
+                .map(this.manageables::get)
+                .filter(Objects::nonNull)
+                // collect the unique values in a list
+                .distinct().collect(Collectors.toList());
     }
 
     /**
@@ -158,7 +162,14 @@ public abstract class AbstractManagerController<M extends AbstractManageable> {
      */
     public boolean put(final String name, final M manageable) {
         if (!this.manageables.containsValue(manageable)) {
-            this.manageables.put(name, manageable);
+            final M previous = this.manageables.put(name, manageable);
+            if (previous != null)
+                this.typeIndex.remove(previous);
+            this.nameIndex.add(name);
+            this.typeIndex.add(manageable);
+            // the replaced Manageable is gone, so whoever follows the Manager has to let go of it
+            if (previous != null && previous != manageable)
+                this.triggerEvent(ManagerEvent.DELETE, previous);
             this.triggerEvent(ManagerEvent.CREATE, manageable);
             return true;
         }
@@ -174,7 +185,13 @@ public abstract class AbstractManagerController<M extends AbstractManageable> {
      */
     @SuppressWarnings("unchecked")
     public <N extends AbstractManageable> N remove(final String name) {
-        return (N) this.manageables.remove(name);
+        final N manageable = (N) this.manageables.remove(name);
+        if (manageable != null) {
+            this.nameIndex.remove(name);
+            this.typeIndex.remove((M) manageable);
+        }
+        this.triggerEvent(ManagerEvent.DELETE, manageable);
+        return manageable;
     }
 
     /**
@@ -193,6 +210,8 @@ public abstract class AbstractManagerController<M extends AbstractManageable> {
         this.manageables.forEach((key, value) -> {
             if (manageable.equals(value)) {
                 this.manageables.remove(key);
+                this.nameIndex.remove(key);
+                this.typeIndex.remove(value);
                 this.triggerEvent(ManagerEvent.DELETE, manageable);
             }
         });
@@ -209,12 +228,8 @@ public abstract class AbstractManagerController<M extends AbstractManageable> {
      */
     @SuppressWarnings("unchecked")
     public <N extends AbstractManageable> List<N> getOfType(final Class<?> type) {
-        // get the list of manageables
-        return (List<N>) this.manageables.values().stream()
-                // filter out the compatible ones by type
-                .filter(manageable -> type.isAssignableFrom(manageable.getClass()))
-                // and stick them in a list
-                .collect(Collectors.toList());
+        // look up the manageables in the type index
+        return new ArrayList<>((List<N>) this.typeIndex.get(type));
     }
 
     /**
@@ -224,19 +239,9 @@ public abstract class AbstractManagerController<M extends AbstractManageable> {
      * @param object    instance that triggered the event
      */
     public void triggerEvent(ManagerEvent event, Object object){
-        if(event == null || object == null || !subscribers.containsKey(event))
+        if(!eventBus.hasSubscribers(event))
             return;
 
-        //loop all subscribers that subscribed to this event
-        subscribers.get(event).forEach(set -> {
-            //check if they subscribed for this class
-            if( set.getKey().isInstance(object))
-                try{
-                    // if so, start the consumer on the object
-                    set.getValue().accept(object);
-                }catch(Exception e){
-                    AbstractManagerController.LOG.exception(e);
-                }
-        });
+        eventBus.publish(event, object);
     }
 }
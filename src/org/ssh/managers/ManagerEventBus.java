@@ -0,0 +1,256 @@
+package org.ssh.managers;
+
+import org.ssh.managers.manager.Services;
+import org.ssh.models.enums.ManagerEvent;
+import org.ssh.util.Logger;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * The Class ManagerEventBus.
+ * <p>
+ * The ManagerEventBus delivers the {@link ManagerEvent}s of a {@link AbstractManagerController} to its subscribers.
+ * Every subscription has its own {@link Executor} on which the events are delivered, in the order in which they were
+ * triggered. A subscription without an Executor receives the events on the thread which triggers them, before
+ * the trigger returns.
+ * <p>
+ * A subscription with an Executor can coalesce {@link ManagerEvent#UPDATE} events: all updates of the same object
+ * within the window are delivered as a single event once the window has passed, so a subscriber with a window of
+ * one frame sees at most one update per object per frame. Other events are never coalesced.
+ *
+ * @author agent
+ */
+public class ManagerEventBus {
+
+    /**
+     * The subscriptions by the event they subscribe to.
+     */
+    private final Map<ManagerEvent, List<Subscription>> subscriptions = new EnumMap<>(ManagerEvent.class);
+
+    // a logger for good measure
+    private static final Logger LOG = Logger.getLogger();
+
+    /**
+     * Instantiates a new ManagerEventBus.
+     */
+    public ManagerEventBus() {
+        Arrays.stream(ManagerEvent.values()).forEach(event -> this.subscriptions.put(event, new CopyOnWriteArrayList<>()));
+    }
+
+    /**
+     * Subscribes a consumer to the supplied event.
+     *
+     * @param event          The event to subscribe to.
+     * @param consumer       The consumer which receives the objects which triggered the event.
+     * @param executor       The executor on which the consumer is called, or null to call it on the triggering thread.
+     * @param coalesceWindow The window (in us) within which updates of the same object are coalesced, or 0 to
+     *                       deliver every update. Coalescing requires an executor.
+     * @param classes        The class(es) of objects for which the consumer receives the event.
+     * @return true, if the subscription was added.
+     */
+    public boolean subscribe(final ManagerEvent event,
+                             final Consumer consumer,
+                             final Executor executor,
+                             final long coalesceWindow,
+                             final Class<?>... classes) {
+        if (event == null || consumer == null || classes.length == 0)
+            return false;
+
+        final long window = event == ManagerEvent.UPDATE ? Math.max(0, coalesceWindow) : 0;
+        if (window > 0 && executor == null) {
+            // coalesced events are delivered by the scheduler, which shouldn't run the consumer itself
+            ManagerEventBus.LOG.warning("A subscription coalescing %s events needs an executor.", event);
+            return false;
+        }
+        Arrays.stream(classes).forEach(type ->
+                this.subscriptions.get(event).add(new Subscription(event, type, consumer, executor, window)));
+        return true;
+    }
+
+    /**
+     * Removes the subscriptions of the consumer to the supplied event for the supplied class(es).
+     *
+     * @param event    The event.
+     * @param consumer The consumer.
+     * @param classes  The class(es) to remove the subscriptions for.
+     * @return true, if any subscription was removed.
+     */
+    public boolean unsubscribe(final ManagerEvent event, final Consumer consumer, final Class<?>... classes) {
+        if (event == null)
+            return false;
+
+        final List<Class<?>> classList = Arrays.asList(classes);
+        return this.subscriptions.get(event).removeIf(subscription ->
+                subscription.consumer.equals(consumer) && classList.contains(subscription.type));
+    }
+
+    /**
+     * Checks whether anyone subscribed to the supplied event.
+     *
+     * @param event The event.
+     * @return true, if the event has subscribers.
+     */
+    public boolean hasSubscribers(final ManagerEvent event) {
+        return event != null && !this.subscriptions.get(event).isEmpty();
+    }
+
+    /**
+     * Delivers the event to every subscriber of the event for the class of the object.
+     *
+     * @param event  The event.
+     * @param object The object which triggered the event.
+     */
+    public void publish(final ManagerEvent event, final Object object) {
+        if (event == null || object == null)
+            return;
+
+        for (final Subscription subscription : this.subscriptions.get(event))
+            if (subscription.type.isInstance(object))
+                subscription.publish(object);
+    }
+
+    /**
+     * The Class Subscription.
+     * <p>
+     * A Subscription couples a consumer to an event for a class of objects, and delivers the events in order
+     * on its executor, or right away if it has none.
+     */
+    private static class Subscription {
+
+        /**
+         * The event.
+         */
+        private final ManagerEvent event;
+
+        /**
+         * The class of objects for which the consumer receives the event.
+         */
+        private final Class<?> type;
+
+        /**
+         * The consumer.
+         */
+        private final Consumer consumer;
+
+        /**
+         * The executor on which the consumer is called, or null if it's called on the triggering thread.
+         */
+        private final Executor executor;
+
+        /**
+         * The window (in us) within which updates of the same object are coalesced.
+         */
+        private final long coalesceWindow;
+
+        /**
+         * The objects of which the event still needs to be delivered, in order.
+         */
+        private final Queue<Object> pending = new ConcurrentLinkedQueue<>();
+
+        /**
+         * The objects of which an update is waiting for the end of the window.
+         */
+        private final Set<Object> coalesced = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+        /**
+         * Whether the pending events are being delivered.
+         */
+        private final AtomicBoolean delivering = new AtomicBoolean(false);
+
+        /**
+         * Instantiates a new Subscription.
+         *
+         * @param event          The event.
+         * @param type           The class of objects for which the consumer receives the event.
+         * @param consumer       The consumer.
+         * @param executor       The executor on which the consumer is called, or null.
+         * @param coalesceWindow The window (in us) within which updates of the same object are coalesced.
+         */
+        private Subscription(final ManagerEvent event,
+                             final Class<?> type,
+                             final Consumer consumer,
+                             final Executor executor,
+                             final long coalesceWindow) {
+            this.event = event;
+            this.type = type;
+            this.consumer = consumer;
+            this.executor = executor;
+            this.coalesceWindow = coalesceWindow;
+        }
+
+        /**
+         * Delivers the event right away if the subscription has no executor, and otherwise queues it for
+         * delivery or waits for the end of the window if the event is coalesced.
+         *
+         * @param object The object which triggered the event.
+         */
+        private void publish(final Object object) {
+            if (this.executor == null) {
+                this.accept(object);
+                return;
+            }
+            if (this.coalesceWindow == 0) {
+                this.enqueue(object);
+                return;
+            }
+
+            // only the first update within the window schedules a delivery
+            if (this.coalesced.add(object))
+                Services.scheduleOnce("event-" + this.event.name().toLowerCase(), () -> {
+                    this.coalesced.remove(object);
+                    this.enqueue(object);
+                }, this.coalesceWindow);
+        }
+
+        /**
+         * Adds the event to the pending events, and starts delivering them if that isn't happening already.
+         *
+         * @param object The object which triggered the event.
+         */
+        private void enqueue(final Object object) {
+            this.pending.add(object);
+            if (this.delivering.compareAndSet(false, true)) {
+                try {
+                    this.executor.execute(this::deliver);
+                } catch (RejectedExecutionException exception) {
+                    this.delivering.set(false);
+                    ManagerEventBus.LOG.exception(exception);
+                }
+            }
+        }
+
+        /**
+         * Delivers the pending events to the consumer.
+         */
+        private void deliver() {
+            do {
+                Object object;
+                while ((object = this.pending.poll()) != null)
+                    this.accept(object);
+                this.delivering.set(false);
+                // an event may have arrived after the queue was drained
+            } while (!this.pending.isEmpty() && this.delivering.compareAndSet(false, true));
+        }
+
+        /**
+         * Calls the consumer with a single event.
+         *
+         * @param object The object which triggered the event.
+         */
+        @SuppressWarnings("unchecked")
+        private void accept(final Object object) {
+            try {
+                this.consumer.accept(object);
+            } catch (Exception exception) {
+                ManagerEventBus.LOG.exception(exception);
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package org.ssh.managers;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * The Class NameIndex.
+ * <p>
+ * A NameIndex keeps the names of the Manageables in a {@link AbstractManagerController} in a trie of all their
+ * suffixes, such that every name containing a given string can be found by walking the string down the trie
+ * instead of comparing it against every name. Every node holds the names which pass through it, so a lookup costs
+ * as many steps as the string is long. The names matching a pattern are cached, and the cache is cleared whenever
+ * a name is added or removed.
+ *
+ * @author agent
+ */
+public class NameIndex {
+
+    /**
+     * The maximum number of patterns of which the result is cached.
+     */
+    private static final int CACHE_SIZE = 128;
+
+    /**
+     * The root of the trie, which holds every name.
+     */
+    private final Node root = new Node();
+
+    /**
+     * The function which expands a pattern into every string it describes.
+     */
+    private final Function<String, List<String>> expander;
+
+    /**
+     * The names matching the most recently used patterns, by pattern.
+     */
+    private final Map<String, List<String>> cache = new LinkedHashMap<String, List<String>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, List<String>> eldest) {
+            return this.size() > NameIndex.CACHE_SIZE;
+        }
+    };
+
+    /**
+     * Instantiates a new NameIndex.
+     *
+     * @param expander The function which expands a pattern into every string it describes.
+     */
+    public NameIndex(final Function<String, List<String>> expander) {
+        this.expander = expander;
+    }
+
+    /**
+     * Adds a name to the index.
+     *
+     * @param name The name to be added.
+     */
+    public synchronized void add(final String name) {
+        this.root.names.add(name);
+        // every suffix of the name gets a path in the trie
+        for (int start = 0; start < name.length(); start++) {
+            Node node = this.root;
+            for (int index = start; index < name.length(); index++) {
+                node = node.children.computeIfAbsent(name.charAt(index), character -> new Node());
+                node.names.add(name);
+            }
+        }
+        this.cache.clear();
+    }
+
+    /**
+     * Removes a name from the index.
+     *
+     * @param name The name to be removed.
+     */
+    public synchronized void remove(final String name) {
+        if (!this.root.names.remove(name))
+            return;
+
+        for (int start = 0; start < name.length(); start++) {
+            Node parent = this.root;
+            for (int index = start; index < name.length(); index++) {
+                final Node node = parent.children.get(name.charAt(index));
+                if (node == null)
+                    break;
+                node.names.remove(name);
+                // drop the branch once no name passes through it anymore
+                if (node.names.isEmpty()) {
+                    parent.children.remove(name.charAt(index));
+                    break;
+                }
+                parent = node;
+            }
+        }
+        this.cache.clear();
+    }
+
+    /**
+     * Finds the names containing any of the strings described by the supplied pattern.
+     *
+     * @param pattern The pattern to match on.
+     * @return The matching names.
+     */
+    public synchronized List<String> find(final String pattern) {
+        return this.cache.computeIfAbsent(pattern, key -> {
+            final Set<String> matches = new LinkedHashSet<>();
+            this.expander.apply(key).forEach(possibility -> matches.addAll(this.containing(possibility)));
+            return Collections.unmodifiableList(new ArrayList<>(matches));
+        });
+    }
+
+    /**
+     * Gets the names containing the supplied string.
+     *
+     * @param substring The string to look for.
+     * @return The names containing the string.
+     */
+    public synchronized Set<String> containing(final String substring) {
+        Node node = this.root;
+        for (int index = 0; index < substring.length() && node != null; index++)
+            node = node.children.get(substring.charAt(index));
+        return node == null ? Collections.emptySet() : Collections.unmodifiableSet(node.names);
+    }
+
+    /**
+     * Removes every name from the index.
+     */
+    public synchronized void clear() {
+        this.root.names.clear();
+        this.root.children.clear();
+        this.cache.clear();
+    }
+
+    /**
+     * A single node in the trie.
+     */
+    private static class Node {
+
+        /**
+         * The nodes following this node, by the character leading to them.
+         */
+        private final Map<Character, Node> children = new HashMap<>();
+
+        /**
+         * The names passing through this node.
+         */
+        private final Set<String> names = new LinkedHashSet<>();
+    }
+}
@@ -0,0 +1,78 @@
+package org.ssh.managers;
+
+import org.ssh.util.TypeRegistry.TypeMetadata;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The Class TypeIndex.
+ * <p>
+ * A TypeIndex keeps the Manageables in a {@link AbstractManagerController} by every class and interface in their
+ * hierarchy, such that the Manageables of a given type can be looked up without checking every Manageable.
+ * The lists are copy-on-write, since Manageables are added and removed far less often than they are looked up.
+ *
+ * @param <M> The generic type of {@link AbstractManageable} in the index.
+ * @author agent
+ */
+public class TypeIndex<M extends AbstractManageable> {
+
+    /**
+     * The hierarchy of every class of Manageable which has been indexed.
+     */
+    private static final ClassValue<Iterable<Class<?>>> HIERARCHY = new ClassValue<Iterable<Class<?>>>() {
+        @Override
+        protected Iterable<Class<?>> computeValue(final Class<?> type) {
+            return TypeMetadata.of(type).getRawTypes();
+        }
+    };
+
+    /**
+     * The Manageables by every class and interface in their hierarchy.
+     */
+    private final Map<Class<?>, CopyOnWriteArrayList<M>> manageablesByType = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a Manageable to the index.
+     *
+     * @param manageable The Manageable to be added.
+     */
+    public void add(final M manageable) {
+        for (final Class<?> type : TypeIndex.HIERARCHY.get(manageable.getClass()))
+            this.manageablesByType.computeIfAbsent(type, key -> new CopyOnWriteArrayList<>()).addIfAbsent(manageable);
+    }
+
+    /**
+     * Removes a Manageable from the index.
+     *
+     * @param manageable The Manageable to be removed.
+     */
+    public void remove(final M manageable) {
+        for (final Class<?> type : TypeIndex.HIERARCHY.get(manageable.getClass())) {
+            final List<M> manageables = this.manageablesByType.get(type);
+            if (manageables != null)
+                manageables.remove(manageable);
+        }
+    }
+
+    /**
+     * Gets the Manageables which are an instance of the supplied type.
+     *
+     * @param type The type of the requested Manageables.
+     * @return The (unmodifiable) list of Manageables.
+     */
+    public List<M> get(final Class<?> type) {
+        final List<M> manageables = this.manageablesByType.get(type);
+        return manageables == null ? Collections.emptyList() : Collections.unmodifiableList(manageables);
+    }
+
+    /**
+     * Removes every Manageable from the index.
+     */
+    public void clear() {
+        this.manageablesByType.clear();
+    }
+}
@@ -3,15 +3,25 @@ package org.ssh.managers.controllers;
 import com.google.common.util.concurrent.*;
 import org.ssh.managers.AbstractManagerController;
 import org.ssh.managers.manager.Services;
+import org.ssh.models.ExecutorSettings;
+import org.ssh.models.ExecutorSettings.ExecutorDefinition;
+import org.ssh.models.enums.ClockMode;
+import org.ssh.models.enums.OverrunPolicy;
 import org.ssh.pipelines.AbstractPipelinePacket;
 import org.ssh.services.AbstractService;
+import org.ssh.util.Clock;
+import org.ssh.util.FixedRateTask;
+import org.ssh.util.Logger;
+import org.ssh.util.TaskMetrics;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.concurrent.Callable;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.*;
 
 /**
  * The Class ServicesController.
@@ -26,17 +36,45 @@ public class ServicesController extends AbstractManagerController<AbstractServic
     /**
      * The scheduler service.
      */
-    private final ListeningScheduledExecutorService scheduler;
+    private ListeningScheduledExecutorService scheduler;
 
     /**
      * The scheduled tasks.
      */
-    private final Map<String, ScheduledFuture<? extends AbstractPipelinePacket<?>>> scheduledTasks;
+    private final Map<String, ScheduledFuture<?>> scheduledTasks;
+
+    /**
+     * The metrics of every named task which was submitted or scheduled.
+     */
+    private final Map<String, TaskMetrics> taskMetrics = new ConcurrentHashMap<>();
 
     /**
      * The completion service.
      */
-    private final ListeningExecutorService taskService;
+    private volatile ListeningExecutorService taskService;
+
+    /**
+     * The configured executors by name.
+     */
+    private volatile Map<String, ListeningExecutorService> executors = new HashMap<>();
+
+    /**
+     * The name of the executor by (part of) the name of a task, longest part first.
+     */
+    private volatile Map<String, String> routes = new LinkedHashMap<>();
+
+    /**
+     * The executor on which each task name ended up, so a task name is only matched against the routes once.
+     */
+    private final Map<String, ListeningExecutorService> resolvedRoutes = new ConcurrentHashMap<>();
+
+    /**
+     * The fixed-rate tasks by name.
+     */
+    private final Map<String, FixedRateTask> fixedRateTasks = new ConcurrentHashMap<>();
+
+    // a logger for good measure
+    private static final Logger LOG = Logger.getLogger();
 
     /**
      * Instantiates a new Services controller.
@@ -44,7 +82,137 @@ public class ServicesController extends AbstractManagerController<AbstractServic
     public ServicesController() {
         this.scheduler = MoreExecutors.listeningDecorator(Executors.newScheduledThreadPool(1));
         this.taskService = MoreExecutors.listeningDecorator(Executors.newCachedThreadPool());
-        this.scheduledTasks = new HashMap<>();
+        this.scheduledTasks = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Replaces the executors by the ones declared in the supplied settings. Tasks that are already running
+     * finish on the executor they were submitted to.
+     *
+     * @param settings The settings declaring the executors.
+     */
+    public void loadExecutors(final ExecutorSettings settings) {
+        final Map<String, ListeningExecutorService> newExecutors = new HashMap<>();
+        if (settings.getExecutors() != null)
+            settings.getExecutors().forEach((name, definition) ->
+                    newExecutors.put(name, ServicesController.createExecutor(name, definition)));
+
+        // sort the routes so the longest matching part of a task name wins
+        final Map<String, String> newRoutes = new LinkedHashMap<>();
+        if (settings.getRoutes() != null)
+            settings.getRoutes().entrySet().stream()
+                    .filter(route -> {
+                        if (newExecutors.containsKey(route.getValue()))
+                            return true;
+                        ServicesController.LOG.warning("Route %s refers to unknown executor %s.",
+                                route.getKey(), route.getValue());
+                        return false;
+                    })
+                    .sorted((first, second) -> second.getKey().length() - first.getKey().length())
+                    .forEach(route -> newRoutes.put(route.getKey(), route.getValue()));
+
+        final Map<String, ListeningExecutorService> oldExecutors = this.executors;
+        final ListeningExecutorService oldTaskService = this.taskService;
+        this.executors = newExecutors;
+        this.routes = newRoutes;
+        if (settings.getDefaultExecutor() != null && newExecutors.containsKey(settings.getDefaultExecutor()))
+            this.taskService = newExecutors.get(settings.getDefaultExecutor());
+        else {
+            if (settings.getDefaultExecutor() != null)
+                ServicesController.LOG.warning("Default executor %s is unknown, using a cached pool.",
+                        settings.getDefaultExecutor());
+            // the previous default is shut down below if it was one of the previous executors
+            if (oldExecutors.containsValue(oldTaskService))
+                this.taskService = MoreExecutors.listeningDecorator(Executors.newCachedThreadPool());
+        }
+        this.resolvedRoutes.clear();
+
+        if (settings.getScheduler() != null) {
+            if (this.scheduledTasks.isEmpty()) {
+                final ListeningScheduledExecutorService oldScheduler = this.scheduler;
+                this.scheduler = MoreExecutors.listeningDecorator(Executors.newScheduledThreadPool(
+                        settings.getScheduler().getThreads(),
+                        ServicesController.createThreadFactory("scheduler", settings.getScheduler().getPriority())));
+                oldScheduler.shutdown();
+            } else
+                ServicesController.LOG.warning("Tasks have already been scheduled, keeping the current scheduler.");
+        }
+
+        // let the old executors finish what they're doing
+        oldExecutors.values().forEach(ExecutorService::shutdown);
+        if (oldTaskService != this.taskService && !oldExecutors.containsValue(oldTaskService))
+            oldTaskService.shutdown();
+
+        ServicesController.LOG.info("Loaded %d executors with %d routes.", newExecutors.size(), newRoutes.size());
+    }
+
+    /**
+     * Creates an executor as declared by the supplied definition.
+     *
+     * @param name       The name of the executor.
+     * @param definition The definition of the executor.
+     * @return The executor.
+     */
+    private static ListeningExecutorService createExecutor(final String name, final ExecutorDefinition definition) {
+        final ThreadFactory threadFactory = ServicesController.createThreadFactory(name, definition.getPriority());
+        switch (definition.getType()) {
+            case FIXED:
+                return MoreExecutors.listeningDecorator(new ThreadPoolExecutor(
+                        definition.getThreads(),
+                        definition.getThreads(),
+                        0L, TimeUnit.MILLISECONDS,
+                        definition.getQueueCapacity() > 0
+                                ? new ArrayBlockingQueue<>(definition.getQueueCapacity())
+                                : new LinkedBlockingQueue<>(),
+                        threadFactory));
+            case DEDICATED:
+                // threads aren't kept around, so every task starts on a thread of its own
+                return MoreExecutors.listeningDecorator(new ThreadPoolExecutor(
+                        0, Integer.MAX_VALUE,
+                        0L, TimeUnit.MILLISECONDS,
+                        new SynchronousQueue<>(),
+                        threadFactory));
+            case VIRTUAL:
+                try {
+                    return MoreExecutors.listeningDecorator((ExecutorService) Executors.class
+                            .getMethod("newVirtualThreadPerTaskExecutor")
+                            .invoke(null));
+                } catch (ReflectiveOperationException exception) {
+                    ServicesController.LOG.info("Virtual threads aren't supported, executor %s uses a cached pool.", name);
+                    return MoreExecutors.listeningDecorator(Executors.newCachedThreadPool(threadFactory));
+                }
+            case CACHED:
+            default:
+                return MoreExecutors.listeningDecorator(Executors.newCachedThreadPool(threadFactory));
+        }
+    }
+
+    /**
+     * Creates a factory for threads named after the executor.
+     *
+     * @param name     The name of the executor.
+     * @param priority The priority of the threads.
+     * @return The factory.
+     */
+    private static ThreadFactory createThreadFactory(final String name, final int priority) {
+        return new ThreadFactoryBuilder()
+                .setNameFormat(name + "-%d")
+                .setPriority(priority)
+                .build();
+    }
+
+    /**
+     * Gets the executor on which a task with the supplied name runs.
+     *
+     * @param taskName The name of the task.
+     * @return The executor.
+     */
+    public ListeningExecutorService getExecutor(final String taskName) {
+        return this.resolvedRoutes.computeIfAbsent(taskName, name -> this.routes.entrySet().stream()
+                .filter(route -> name.contains(route.getKey()))
+                .findFirst()
+                .map(route -> this.executors.get(route.getValue()))
+                .orElse(this.taskService));
     }
 
     /**
@@ -53,28 +221,214 @@ public class ServicesController extends AbstractManagerController<AbstractServic
      *
      * @param taskName The name of the task
      * @param task     The Runnable to be executed periodically.
-     * @param delay    Time between termination of previous execution and start of next execution in ms.
+     * @param delay    Time between termination of previous execution and start of next execution in us,
+     *                 as measured by the {@link Clock} at the moment the task is scheduled. In virtual time
+     *                 the task waits on the Clock instead, see {@link #scheduleOnClock(String, Runnable, long, boolean)}.
      * @return A ScheduledFuture that can be used to cancel the periodic execution.
      */
     @SuppressWarnings("unchecked")
     public <L> ListenableScheduledFuture<L> scheduleTask(final String taskName, final Runnable task, final long delay) {
+        final TaskMetrics metrics = this.getTaskMetrics(taskName);
         // schedule the task
-        final ListenableScheduledFuture<?> scheduledFuture = this.scheduler.scheduleWithFixedDelay((()-> {
-                try {
-                    task.run();
-                }catch(Exception e) {
-                    e.printStackTrace();
-                }}),
+        final ListenableScheduledFuture<?> scheduledFuture;
+        if (Clock.getMode() == ClockMode.VIRTUAL)
+            scheduledFuture = this.scheduleOnClock(taskName, task, TimeUnit.MICROSECONDS.toNanos(delay), true);
+        else
+            scheduledFuture = this.scheduler.scheduleWithFixedDelay((()-> {
+                    final long start = metrics.startedScheduled(System.nanoTime());
+                    boolean failed = false;
+                    try {
+                        task.run();
+                    } catch (Exception exception) {
+                        failed = true;
+                        ServicesController.LOG.exception(exception);
+                    } finally {
+                        metrics.finished(start, failed);
+                    }
+                }),
                     0,
-                    delay,
-                    TimeUnit.MICROSECONDS
+                    Math.max(1, Clock.toRealNanos(TimeUnit.MICROSECONDS.toNanos(delay))),
+                    TimeUnit.NANOSECONDS
         );
         // save the ListenableFuture for future use
-        this.scheduledTasks.put(taskName, (ScheduledFuture<? extends AbstractPipelinePacket<?>>) scheduledFuture);
+        final ScheduledFuture<?> previousFuture = this.scheduledTasks.put(taskName, scheduledFuture);
+        if (previousFuture != null)
+            ServicesController.LOG.warning("A task named %s was already scheduled.", taskName);
 
         return (ListenableScheduledFuture<L>) scheduledFuture;
     }
 
+    /**
+     * Schedules a Runnable to be called once after the given delay.
+     *
+     * @param taskName The name of the task
+     * @param task     The Runnable to be executed.
+     * @param delay    Time until the execution in us, as measured by the {@link Clock}.
+     * @return A ScheduledFuture that can be used to cancel the execution.
+     */
+    @SuppressWarnings("unchecked")
+    public <L> ListenableScheduledFuture<L> scheduleOnce(final String taskName, final Runnable task, final long delay) {
+        if (Clock.getMode() == ClockMode.VIRTUAL)
+            return this.scheduleOnClock(taskName, task, TimeUnit.MICROSECONDS.toNanos(delay), false);
+
+        final TaskMetrics metrics = this.getTaskMetrics(taskName);
+        final long delayNanos = Clock.toRealNanos(TimeUnit.MICROSECONDS.toNanos(delay));
+        final long scheduledTime = System.nanoTime() + delayNanos;
+        return (ListenableScheduledFuture<L>) this.scheduler.schedule((() -> {
+                    final long start = metrics.startedScheduled(scheduledTime);
+                    boolean failed = false;
+                    try {
+                        task.run();
+                    } catch (Exception exception) {
+                        failed = true;
+                        ServicesController.LOG.exception(exception);
+                    } finally {
+                        metrics.finished(start, failed);
+                    }
+                }),
+                delayNanos,
+                TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Schedules a Runnable on a thread which waits on the {@link Clock}, for virtual time in which the
+     * scheduler (which follows the system clock) can't tell when the task is due. The thread is taken from
+     * the executor of the task and is kept until the task is cancelled or, if it doesn't repeat, has run.
+     *
+     * @param taskName   The name of the task.
+     * @param task       The Runnable to be executed.
+     * @param delayNanos Time until the execution, or between the executions, in ns on the Clock.
+     * @param repeat     Whether the task repeats, starting right away with the delay between the end of an
+     *                   execution and the start of the next one.
+     * @return A ScheduledFuture that can be used to cancel the execution.
+     */
+    private <L> ClockScheduledFuture<L> scheduleOnClock(final String taskName,
+                                                        final Runnable task,
+                                                        final long delayNanos,
+                                                        final boolean repeat) {
+        final TaskMetrics metrics = this.getTaskMetrics(taskName);
+        final ClockScheduledFuture<L> scheduledFuture =
+                new ClockScheduledFuture<>(Clock.nanoTime() + (repeat ? 0 : delayNanos));
+        this.getExecutor(taskName).execute(() -> {
+            while (!scheduledFuture.isDone()) {
+                long remaining;
+                while ((remaining = scheduledFuture.deadline - Clock.nanoTime()) > 0 && !scheduledFuture.isDone())
+                    Clock.parkNanos(remaining);
+                if (scheduledFuture.isDone())
+                    return;
+
+                final long start = metrics.startedScheduled(System.nanoTime());
+                boolean failed = false;
+                try {
+                    task.run();
+                } catch (Exception exception) {
+                    failed = true;
+                    ServicesController.LOG.exception(exception);
+                } finally {
+                    metrics.finished(start, failed);
+                }
+
+                if (!repeat)
+                    scheduledFuture.complete();
+                else
+                    scheduledFuture.deadline = Clock.nanoTime() + delayNanos;
+            }
+        });
+        return scheduledFuture;
+    }
+
+    /**
+     * Gets the metrics of the task with the supplied name, creating them if the task hasn't run yet.
+     *
+     * @param taskName The name of the task.
+     * @return The metrics of the task.
+     */
+    public TaskMetrics getTaskMetrics(final String taskName) {
+        return this.taskMetrics.computeIfAbsent(taskName, TaskMetrics::new);
+    }
+
+    /**
+     * Gets the metrics of all named tasks.
+     *
+     * @return The metrics of all tasks.
+     */
+    public Collection<TaskMetrics> getAllTaskMetrics() {
+        return Collections.unmodifiableCollection(this.taskMetrics.values());
+    }
+
+    /**
+     * Gets the names of the tasks scheduled through {@link #scheduleTask(String, Runnable, long)}.
+     *
+     * @return The names of the scheduled tasks.
+     */
+    public Set<String> getScheduledTasks() {
+        return Collections.unmodifiableSet(this.scheduledTasks.keySet());
+    }
+
+    /**
+     * Cancels the task with the supplied name which was scheduled through {@link #scheduleTask(String, Runnable, long)}.
+     *
+     * @param taskName The name of the task.
+     * @return true, if a task was cancelled.
+     */
+    public boolean cancelTask(final String taskName) {
+        final ScheduledFuture<?> scheduledFuture = this.scheduledTasks.remove(taskName);
+        return scheduledFuture != null && scheduledFuture.cancel(false);
+    }
+
+    /**
+     * Runs a task at a fixed rate on a thread of its own, see {@link FixedRateTask}. If a fixed-rate task with
+     * the same name is already running, that task is returned instead.
+     *
+     * @param taskName      The name of the task.
+     * @param task          The Runnable to be executed periodically.
+     * @param interval      Time between the scheduled starts of consecutive executions in us.
+     * @param overrunPolicy What to do when an execution takes longer than the interval.
+     * @return The FixedRateTask.
+     */
+    public FixedRateTask scheduleAtFixedRate(final String taskName,
+                                             final Runnable task,
+                                             final long interval,
+                                             final OverrunPolicy overrunPolicy) {
+        return this.fixedRateTasks.compute(taskName, (name, current) ->
+                current != null && current.isRunning()
+                        ? current
+                        : new FixedRateTask(name, task, interval, overrunPolicy).start());
+    }
+
+    /**
+     * Gets the fixed-rate task with the supplied name.
+     *
+     * @param taskName The name of the task.
+     * @return The FixedRateTask, if one has been scheduled with that name.
+     */
+    public Optional<FixedRateTask> getFixedRateTask(final String taskName) {
+        return Optional.ofNullable(this.fixedRateTasks.get(taskName));
+    }
+
+    /**
+     * Gets all fixed-rate tasks.
+     *
+     * @return The fixed-rate tasks.
+     */
+    public Collection<FixedRateTask> getFixedRateTasks() {
+        return Collections.unmodifiableCollection(this.fixedRateTasks.values());
+    }
+
+    /**
+     * Stops the fixed-rate task with the supplied name.
+     *
+     * @param taskName The name of the task.
+     * @return true, if a task was stopped.
+     */
+    public boolean cancelFixedRateTask(final String taskName) {
+        final FixedRateTask task = this.fixedRateTasks.remove(taskName);
+        if (task == null)
+            return false;
+        task.cancel();
+        return true;
+    }
+
     /**
      * Submits a task to the threadpool which returns a PipelinePacket.
      *
@@ -86,6 +440,66 @@ public class ServicesController extends AbstractManagerController<AbstractServic
         return this.taskService.submit(task);
     }
 
+    /**
+     * Submits a task to the executor its name is routed to.
+     *
+     * @param <P>      The generic type of data generated by the task.
+     * @param taskName The name of the task.
+     * @param task     The task as a Callable.
+     * @return A ListenableFuture representing the result of the task.
+     */
+    public <P extends AbstractPipelinePacket<?>> ListenableFuture<P> submitTask(final String taskName,
+                                                                                final Callable<P> task) {
+        final TaskMetrics metrics = this.getTaskMetrics(taskName);
+        final long submitTime = metrics.submitted();
+        try {
+            return this.getExecutor(taskName).submit(() -> {
+                final long start = metrics.started(submitTime);
+                boolean failed = true;
+                try {
+                    final P result = task.call();
+                    failed = false;
+                    return result;
+                } finally {
+                    metrics.finished(start, failed);
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            metrics.rejected();
+            ServicesController.LOG.warning("Task named %s was rejected by its executor.", taskName);
+            return Futures.immediateFailedFuture(exception);
+        }
+    }
+
+    /**
+     * Submits a task to the executor its name is routed to.
+     *
+     * @param taskName The name of the task.
+     * @param task     The task as a Runnable.
+     * @return A ListenableFuture representing the result of the task.
+     */
+    @SuppressWarnings("unchecked")
+    public <L> ListenableFuture<L> submitTask(final String taskName, final Runnable task) {
+        final TaskMetrics metrics = this.getTaskMetrics(taskName);
+        final long submitTime = metrics.submitted();
+        try {
+            return (ListenableFuture<L>) this.getExecutor(taskName).submit(() -> {
+                final long start = metrics.started(submitTime);
+                boolean failed = true;
+                try {
+                    task.run();
+                    failed = false;
+                } finally {
+                    metrics.finished(start, failed);
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            metrics.rejected();
+            ServicesController.LOG.warning("Task named %s was rejected by its executor.", taskName);
+            return Futures.immediateFailedFuture(exception);
+        }
+    }
+
     /**
      * Submits a task to the threadpool.
      *
@@ -96,4 +510,56 @@ public class ServicesController extends AbstractManagerController<AbstractServic
     public <L> ListenableFuture<L> submitTask(final Runnable task) {
         return (ListenableFuture<L>) this.taskService.submit(task);
     }
-}
\ No newline at end of file
+
+    /**
+     * The Class ClockScheduledFuture.
+     * <p>
+     * A ClockScheduledFuture represents a task scheduled through
+     * {@link #scheduleOnClock(String, Runnable, long, boolean)}. Its delay is measured by the {@link Clock}.
+     *
+     * @param <V> The type of result of the task.
+     */
+    private static class ClockScheduledFuture<V> extends AbstractFuture<V> implements ListenableScheduledFuture<V> {
+
+        /**
+         * The moment on the Clock (in ns) at which the task runs next.
+         */
+        private volatile long deadline;
+
+        /**
+         * Instantiates a new ClockScheduledFuture.
+         *
+         * @param deadline The moment on the Clock (in ns) at which the task runs.
+         */
+        private ClockScheduledFuture(final long deadline) {
+            this.deadline = deadline;
+        }
+
+        /**
+         * Completes the future once the task has run.
+         */
+        private void complete() {
+            this.set(null);
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.concurrent.Delayed#getDelay(java.util.concurrent.TimeUnit)
+         */
+        @Override
+        public long getDelay(final TimeUnit unit) {
+            return unit.convert(this.deadline - Clock.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.Comparable#compareTo(java.lang.Object)
+         */
+        @Override
+        public int compareTo(final Delayed other) {
+            return Long.compare(this.getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
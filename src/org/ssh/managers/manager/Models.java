@@ -3,16 +3,27 @@ package org.ssh.managers.manager;
 import org.ssh.managers.ManagerInterface;
 import org.ssh.managers.controllers.ModelController;
 import org.ssh.models.AbstractModel;
+import org.ssh.models.Ball;
+import org.ssh.models.BallRepository;
+import org.ssh.models.Field;
+import org.ssh.models.Robot;
+import org.ssh.models.RobotRepository;
 import org.ssh.models.Settings;
+import org.ssh.models.WorldColumns;
+import org.ssh.models.WorldState;
 import org.ssh.models.enums.ManagerEvent;
 import org.ssh.ui.lua.console.AvailableInLua;
+import org.ssh.util.Clock;
 import org.ssh.util.Logger;
 import org.ssh.util.Reflect;
+import protobuf.RefereeOuterClass;
 
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -38,6 +49,21 @@ public final class Models implements ManagerInterface<AbstractModel> {
      */
     private static final Object instance = new Object();
 
+    /**
+     * The robots by allegiance and robot id.
+     */
+    private static final RobotRepository robots = new RobotRepository();
+
+    /**
+     * The balls in the order in which they were created.
+     */
+    private static final BallRepository balls = new BallRepository();
+
+    /**
+     * The last published snapshot of the world
+     */
+    private static final AtomicReference<WorldState> worldState = new AtomicReference<>(WorldState.EMPTY);
+
     /**
      * The Constant LOG.
      */
@@ -58,6 +84,14 @@ public final class Models implements ManagerInterface<AbstractModel> {
 
         // create controller
         Models.controller = new ModelController();
+        // keep the repositories in sync with the controller
+        Models.robots.clear();
+        Models.balls.clear();
+        Models.worldState.set(WorldState.EMPTY);
+        Models.addSubscription(ManagerEvent.CREATE, robot -> Models.robots.add((Robot) robot), Robot.class);
+        Models.addSubscription(ManagerEvent.DELETE, robot -> Models.robots.remove((Robot) robot), Robot.class);
+        Models.addSubscription(ManagerEvent.CREATE, ball -> Models.balls.add((Ball) ball), Ball.class);
+        Models.addSubscription(ManagerEvent.DELETE, ball -> Models.balls.remove((Ball) ball), Ball.class);
         // create a settings models (will self-assign in the factory)
         Models.create(Settings.class);
     }
@@ -128,6 +162,56 @@ public final class Models implements ManagerInterface<AbstractModel> {
         return Models.controller.getAll();
     }
 
+    /**
+     * @return the repository containing all {@link Robot Robots} by allegiance and robot id
+     */
+    public static RobotRepository getRobots() {
+        return Models.robots;
+    }
+
+    /**
+     * @return the repository containing all {@link Ball Balls}
+     */
+    public static BallRepository getBalls() {
+        return Models.balls;
+    }
+
+    /**
+     * @return the last published snapshot of the world, which never changes once it has been published
+     */
+    public static WorldState getWorldState() {
+        return Models.worldState.get();
+    }
+
+    /**
+     * Takes a snapshot of the robots, balls and field and publishes it as the new {@link WorldState}.
+     * Should be called once every processed detection frame, after all models have been updated.
+     *
+     * @param columns the positions of the robots and balls after the frame, which are copied into the snapshot
+     * @return the published snapshot
+     */
+    public static WorldState publishWorldState(final WorldColumns columns) {
+        final long timestamp = Clock.currentTimeMillis();
+        final Field field = Models.<Field>get("field").orElse(null);
+        return Models.worldState.updateAndGet(previous ->
+                WorldState.capture(previous, timestamp, Models.robots.getAll(), Models.balls.getAll(), columns, field));
+    }
+
+    /**
+     * Publishes a new {@link WorldState} containing the supplied referee packet.
+     *
+     * @param referee the last received referee packet
+     * @return the published snapshot
+     */
+    public static WorldState publishReferee(final RefereeOuterClass.Referee referee) {
+        final long timestamp = Clock.currentTimeMillis();
+        return Models.worldState.updateAndGet(previous -> previous.withReferee(timestamp, referee));
+    }
+
+    /**
+     * @param type name of the models (i.e. "robot")
+     * @return all models with the given name
+     */
     public static <M extends AbstractModel> List<M> getAll(String type) {
         return (List<M>) Models.getAll().stream()
                 .filter(model -> model.getName().equals(type))
@@ -248,6 +332,22 @@ public final class Models implements ManagerInterface<AbstractModel> {
         return Models.controller.addSubscription(event, consumer, classes);
     }
 
+    /**
+     * Start listening for a specific event, with the consumer being called on the given executor.
+     * Updates of the same object within the coalesce window are delivered once, at the end of the window.
+     * @param event          event to listen for
+     * @param consumer       consumer to call when event happens
+     * @param executor       executor on which the consumer is called
+     * @param coalesceWindow window in us within which {@link ManagerEvent#UPDATE updates} are coalesced, or 0
+     *                       (coalescing requires an executor)
+     * @param classes        class(es) that should trigger the event
+     * @return true if listener has been added successful
+     */
+    public static boolean addSubscription(ManagerEvent event, Consumer consumer, Executor executor,
+                                          long coalesceWindow, Class<?>... classes){
+        return Models.controller.addSubscription(event, consumer, executor, coalesceWindow, classes);
+    }
+
     /**
      * Stop listening for a specific event for a specific (set of) class(es)
      * @param event     event to stop listening for
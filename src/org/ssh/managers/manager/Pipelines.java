@@ -4,18 +4,25 @@ import org.ssh.expressions.languages.Pepe;
 import org.ssh.managers.AbstractManagerController;
 import org.ssh.managers.ManagerInterface;
 import org.ssh.managers.controllers.PipelineController;
+import org.ssh.models.enums.ManagerEvent;
 import org.ssh.pipelines.AbstractPipeline;
 import org.ssh.pipelines.AbstractPipelinePacket;
+import org.ssh.pipelines.DispatchRegistry;
+import org.ssh.pipelines.RouteGraph;
 import org.ssh.services.AbstractConsumer;
 import org.ssh.services.AbstractCoupler;
 import org.ssh.services.AbstractProducer;
 import org.ssh.services.AbstractTranslator;
 import org.ssh.ui.lua.console.AvailableInLua;
 import org.ssh.util.Logger;
+import org.ssh.util.StageMetrics;
 
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -46,6 +53,25 @@ public final class Pipelines implements ManagerInterface<AbstractPipeline<? exte
      * and multi-pipe configurations
      */
     private static Pepe pepeEngine;
+    /**
+     * The registry which keeps track of which Pipelines and Translators handle which type of packet.
+     */
+    private static final DispatchRegistry dispatchRegistry = new DispatchRegistry();
+    /**
+     * Removes the lanes of a deleted Consumer from every Pipeline.
+     */
+    private static final Consumer<Object> consumerRemover =
+            consumer -> Pipelines.getAll().forEach(pipeline -> pipeline.removeLanes((AbstractConsumer<?>) consumer));
+    /**
+     * Adds a created Translator to the dispatch tables.
+     */
+    private static final Consumer<Object> translatorAdder =
+            translator -> Pipelines.registerTranslator((AbstractTranslator<?, ?>) translator);
+    /**
+     * Removes a deleted Translator from the dispatch tables.
+     */
+    private static final Consumer<Object> translatorRemover =
+            translator -> dispatchRegistry.removeTranslator((AbstractTranslator<?, ?>) translator);
 
     // a logger for good measure
     private static final Logger LOG = Logger.getLogger();
@@ -74,8 +100,37 @@ public final class Pipelines implements ManagerInterface<AbstractPipeline<? exte
 
         // instantiate pepe if it doesn't exist yet
         if (pepeEngine == null) {
-            pepeEngine = new Pepe(name -> Services.<AbstractCoupler<AbstractPipelinePacket<?>>>get(name).get().getTransferFunction());
+            // resolve to the coupler itself, so the time spent in the coupler is recorded
+            pepeEngine = new Pepe(name -> Services.<AbstractCoupler<AbstractPipelinePacket<?>>>get(name).get()::apply);
         }
+
+        // keep the dispatch tables up to date with the Pipelines and Translators
+        Pipelines.addSubscription(ManagerEvent.CREATE,
+                pipeline -> dispatchRegistry.addPipeline((AbstractPipeline<?>) pipeline), AbstractPipeline.class);
+        Pipelines.addSubscription(ManagerEvent.DELETE,
+                pipeline -> dispatchRegistry.removePipeline((AbstractPipeline<?>) pipeline), AbstractPipeline.class);
+        // the lanes of consumers live as long as both the consumer and the pipeline
+        Pipelines.addSubscription(ManagerEvent.DELETE,
+                pipeline -> ((AbstractPipeline<?>) pipeline).removeLanes(), AbstractPipeline.class);
+        // Services outlives a restart of Pipelines, so drop the subscriptions of an earlier start first
+        Services.removeSubscription(ManagerEvent.DELETE, Pipelines.consumerRemover, AbstractConsumer.class);
+        Services.removeSubscription(ManagerEvent.CREATE, Pipelines.translatorAdder, AbstractTranslator.class);
+        Services.removeSubscription(ManagerEvent.DELETE, Pipelines.translatorRemover, AbstractTranslator.class);
+        Services.addSubscription(ManagerEvent.DELETE, Pipelines.consumerRemover, AbstractConsumer.class);
+        Services.addSubscription(ManagerEvent.CREATE, Pipelines.translatorAdder, AbstractTranslator.class);
+        Services.addSubscription(ManagerEvent.DELETE, Pipelines.translatorRemover, AbstractTranslator.class);
+        Services.<AbstractTranslator<?, ?>>getOfType(AbstractTranslator.class).forEach(Pipelines::registerTranslator);
+    }
+
+    /**
+     * Adds a Translator to the dispatch tables. A Translator which would create a cycle of Translators is
+     * refused and removed from {@link Services} again, so it never translates a packet.
+     *
+     * @param translator The Translator to be registered.
+     */
+    private static void registerTranslator(final AbstractTranslator<?, ?> translator) {
+        if (!dispatchRegistry.addTranslator(translator))
+            Services.remove(translator);
     }
 
     /**
@@ -214,6 +269,30 @@ public final class Pipelines implements ManagerInterface<AbstractPipeline<? exte
         return collect;
     }
 
+    /**
+     * Gets a list of {@link AbstractPipeline} that carry the supplied Class of {@link AbstractPipelinePacket}.
+     * This lookup is served from the dispatch tables.
+     *
+     * @param <P>         The generic type of Pipeline requested by the user
+     * @param packetClass The Class with which the Pipelines need to be compatible.
+     * @return The list of compatible Pipelines.
+     */
+    @SuppressWarnings("unchecked")
+    public static <P extends AbstractPipeline<AbstractPipelinePacket<?>>> List<P> getOfDataType(final Class<?> packetClass) {
+        return (List<P>) (List<?>) Arrays.asList(Pipelines.dispatchRegistry.getPipelines(packetClass));
+    }
+
+    /**
+     * Gets the {@link AbstractTranslator}s accepting the supplied Class of {@link AbstractPipelinePacket}, together
+     * with the Pipelines which carry their output.
+     *
+     * @param packetClass The Class of packet to be translated.
+     * @return The routes through the compatible Translators.
+     */
+    public static DispatchRegistry.TranslatorRoute[] getTranslatorRoutes(final Class<?> packetClass) {
+        return Pipelines.dispatchRegistry.getTranslatorRoutes(packetClass);
+    }
+
     /**
      * Finds a {@link AbstractPipeline} with the given name in the Pipelines manager.
      *
@@ -316,4 +395,113 @@ public final class Pipelines implements ManagerInterface<AbstractPipeline<? exte
     public static List<Function<AbstractPipelinePacket<?>, AbstractPipelinePacket<?>>> generateRoutes(String pattern) {
         return Pipelines.pepeEngine.evaluate(pattern);
     }
+
+    /**
+     * Compiles a given pattern into a {@link RouteGraph} using PEPE. Chains of couplers are fused into
+     * a single function and packets are only copied onto multiple branches where the pattern branches.
+     *
+     * @param pattern The pattern which to compile.
+     * @return The compiled route.
+     */
+    public static RouteGraph compileRoute(String pattern) {
+        return Pipelines.pepeEngine.compile(pattern);
+    }
+
+    /**
+     * Start listening for a specific event
+     * @param event       event to listen for
+     * @param consumer    consumer to call when event happens
+     * @param classes     class(es) that should trigger the event
+     * @return true if listener has been added successful
+     */
+    public static boolean addSubscription(ManagerEvent event, Consumer consumer, Class<?>... classes){
+        return Pipelines.controller.addSubscription(event, consumer, classes);
+    }
+
+    /**
+     * Start listening for a specific event, with the consumer being called on the given executor.
+     * Updates of the same object within the coalesce window are delivered once, at the end of the window.
+     * @param event          event to listen for
+     * @param consumer       consumer to call when event happens
+     * @param executor       executor on which the consumer is called
+     * @param coalesceWindow window in us within which {@link ManagerEvent#UPDATE updates} are coalesced, or 0
+     *                       (coalescing requires an executor)
+     * @param classes        class(es) that should trigger the event
+     * @return true if listener has been added successful
+     */
+    public static boolean addSubscription(ManagerEvent event, Consumer consumer, Executor executor,
+                                          long coalesceWindow, Class<?>... classes){
+        return Pipelines.controller.addSubscription(event, consumer, executor, coalesceWindow, classes);
+    }
+
+    /**
+     * Stop listening for a specific event for a specific (set of) class(es)
+     * @param event     event to stop listening for
+     * @param consumer  consumer to unsubscribe
+     * @param classes   class to remove listener from
+     * @return true if successful
+     */
+    public static boolean removeSubscription(ManagerEvent event, Consumer consumer, Class<?>... classes){
+        return Pipelines.controller.removeSubscription(event, consumer, classes);
+    }
+
+    /**
+     * Gets the metrics of every stage known to the Pipelines manager: the queue and processing stages
+     * of every Pipeline, and every Coupler, Translator and Consumer.
+     *
+     * @return The metrics of all stages.
+     */
+    public static List<StageMetrics> getMetrics() {
+        final List<StageMetrics> metrics = new ArrayList<>();
+        Pipelines.getAll().forEach(pipeline -> {
+            metrics.add(pipeline.getQueueMetrics());
+            metrics.add(pipeline.getProcessingMetrics());
+            metrics.add(pipeline.getHandOffMetrics());
+            pipeline.getLanes().forEach(lane -> metrics.add(lane.getLagMetrics()));
+        });
+        Stream.of(AbstractCoupler.class, AbstractTranslator.class, AbstractConsumer.class)
+                .flatMap(type -> Services.getOfType(type).stream())
+                .forEach(service -> metrics.add(service.getMetrics()));
+        return metrics;
+    }
+
+    /**
+     * Gets the metrics of the stage with the given name.
+     *
+     * @param name The name of the stage.
+     * @return The metrics of the stage.
+     */
+    public static Optional<StageMetrics> getMetrics(final String name) {
+        return Pipelines.getMetrics().stream().filter(metrics -> metrics.getName().equals(name)).findFirst();
+    }
+
+    /**
+     * Generates a human readable report of the metrics of all stages, including the depth of
+     * the queue and the number of dropped packets of every Pipeline.
+     *
+     * @return The report.
+     */
+    public static String getMetricsReport() {
+        final StringBuilder report = new StringBuilder(String.format("%-40s %10s %11s %12s %10s %10s %10s%n",
+                "stage", "packets", "rate", "mean", "p50", "p99", "max"));
+        Pipelines.getMetrics().forEach(metrics -> report.append(metrics).append(System.lineSeparator()));
+        Pipelines.getAll().forEach(pipeline -> {
+            report.append(String.format("%-40s %10d queued %10d dropped%n",
+                    pipeline.getName(),
+                    pipeline.getQueueSize(),
+                    pipeline.getDroppedPackets()));
+            pipeline.getLanes().forEach(lane -> report.append(String.format("%-40s %10d queued %10d dropped%n",
+                    lane.getLagMetrics().getName(),
+                    lane.getQueueSize(),
+                    lane.getDroppedPackets())));
+        });
+        return report.toString();
+    }
+
+    /**
+     * Clears the metrics of all stages.
+     */
+    public static void resetMetrics() {
+        Pipelines.getMetrics().forEach(StageMetrics::reset);
+    }
 }
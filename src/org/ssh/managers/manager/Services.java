@@ -2,17 +2,27 @@ package org.ssh.managers.manager;
 
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListenableScheduledFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
 import org.ssh.managers.AbstractManagerController;
 import org.ssh.managers.ManagerInterface;
 import org.ssh.managers.controllers.ServicesController;
+import org.ssh.models.ExecutorSettings;
+import org.ssh.models.enums.ManagerEvent;
+import org.ssh.models.enums.OverrunPolicy;
 import org.ssh.pipelines.AbstractPipelinePacket;
 import org.ssh.services.AbstractService;
 import org.ssh.ui.lua.console.AvailableInLua;
+import org.ssh.util.FixedRateTask;
 import org.ssh.util.Logger;
+import org.ssh.util.TaskMetrics;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -68,10 +78,116 @@ public final class Services implements ManagerInterface<AbstractService<? extend
     public static ListenableScheduledFuture scheduleTask(final String taskName,
                                                          final Runnable task,
                                                          final long delay) {
-        Services.LOG.info("Scheduling a task named %s with an interval of %d us", taskName, delay);
+        Services.LOG.fine("Scheduling a task named %s with an interval of %d us", taskName, delay);
         return Services.controller.scheduleTask(taskName, task, delay);
     }
 
+    /**
+     * Schedules a Runnable to be called once after the given delay.
+     *
+     * @param taskName The name of the task
+     * @param task     The Runnable to be executed.
+     * @param delay    Time until the execution in us.
+     * @return A ScheduledFuture that can be used to cancel the execution.
+     * @see org.ssh.managers.controllers.ServicesController#scheduleOnce(String, Runnable, long)
+     */
+    public static ListenableScheduledFuture scheduleOnce(final String taskName,
+                                                         final Runnable task,
+                                                         final long delay) {
+        return Services.controller.scheduleOnce(taskName, task, delay);
+    }
+
+    /**
+     * Cancels a task which was scheduled through {@link #scheduleTask(String, Runnable, long)}.
+     *
+     * @param taskName The name of the task.
+     * @return true, if a task was cancelled.
+     */
+    public static boolean cancelTask(final String taskName) {
+        return Services.controller.cancelTask(taskName);
+    }
+
+    /**
+     * Gets the metrics of the task with the supplied name.
+     *
+     * @param taskName The name of the task.
+     * @return The metrics of the task.
+     * @see org.ssh.managers.controllers.ServicesController#getTaskMetrics(String)
+     */
+    public static TaskMetrics getTaskMetrics(final String taskName) {
+        return Services.controller.getTaskMetrics(taskName);
+    }
+
+    /**
+     * Gets the metrics of all named tasks, the task which ran longest in total first.
+     *
+     * @return The metrics of all tasks.
+     */
+    public static List<TaskMetrics> getTaskMetrics() {
+        return Services.controller.getAllTaskMetrics().stream()
+                .sorted(Comparator.comparingLong(TaskMetrics::getTotalRunTime).reversed())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Gets a human readable report of the metrics of all named tasks.
+     *
+     * @return The report.
+     */
+    public static String getTaskReport() {
+        final StringBuilder report = new StringBuilder(String.format("%-40s %-8s %10s %12s %12s %10s %14s%n",
+                "task", "state", "submitted", "wait", "run", "p99", "total"));
+        Services.getTaskMetrics().forEach(metrics -> report.append(metrics).append(System.lineSeparator()));
+        return report.toString();
+    }
+
+    /**
+     * Clears the metrics of all named tasks.
+     */
+    public static void resetTaskMetrics() {
+        Services.controller.getAllTaskMetrics().forEach(TaskMetrics::reset);
+    }
+
+    /**
+     * Runs a task at a fixed rate on a thread of its own. Unlike {@link #scheduleTask(String, Runnable, long)}
+     * the start of every execution is scheduled relative to the first one, so the task doesn't drift by its
+     * own execution time and isn't held up by other scheduled tasks.
+     *
+     * @param taskName      The name of the task.
+     * @param task          The Runnable to be executed periodically.
+     * @param interval      Time between the scheduled starts of consecutive executions in us.
+     * @param overrunPolicy What to do when an execution takes longer than the interval.
+     * @return The FixedRateTask, which measures the jitter and missed ticks of the task.
+     * @see org.ssh.managers.controllers.ServicesController#scheduleAtFixedRate(String, Runnable, long, OverrunPolicy)
+     */
+    public static FixedRateTask scheduleAtFixedRate(final String taskName,
+                                                    final Runnable task,
+                                                    final long interval,
+                                                    final OverrunPolicy overrunPolicy) {
+        Services.LOG.info("Scheduling a task named %s at a fixed rate of %d us (%s)", taskName, interval, overrunPolicy);
+        return Services.controller.scheduleAtFixedRate(taskName, task, interval, overrunPolicy);
+    }
+
+    /**
+     * Gets the fixed-rate task with the supplied name.
+     *
+     * @param taskName The name of the task.
+     * @return The FixedRateTask, if one has been scheduled with that name.
+     */
+    public static Optional<FixedRateTask> getFixedRateTask(final String taskName) {
+        return Services.controller.getFixedRateTask(taskName);
+    }
+
+    /**
+     * Stops the fixed-rate task with the supplied name.
+     *
+     * @param taskName The name of the task.
+     * @return true, if a task was stopped.
+     */
+    public static boolean cancelFixedRateTask(final String taskName) {
+        return Services.controller.cancelFixedRateTask(taskName);
+    }
+
     /**
      * Starts the Services manager.
      */
@@ -87,12 +203,12 @@ public final class Services implements ManagerInterface<AbstractService<? extend
      * @param taskName The name of the task.
      * @param task     The task as a Callable.
      * @return A ListenableFuture representing the result of the task.
-     * @see org.ssh.managers.controllers.ServicesController#submitTask(Callable)
+     * @see org.ssh.managers.controllers.ServicesController#submitTask(String, Callable)
      */
     public static <P extends AbstractPipelinePacket<?>> ListenableFuture<P> submitTask(final String taskName,
                                                                                        final Callable<P> task) {
-        Services.LOG.info("Submitting task named %s ...", taskName);
-        return Services.controller.submitTask(task);
+        Services.LOG.fine("Submitting task named %s ...", taskName);
+        return Services.controller.submitTask(taskName, task);
     }
 
     /**
@@ -101,12 +217,35 @@ public final class Services implements ManagerInterface<AbstractService<? extend
      * @param taskName The name of the task.
      * @param task     The task as a Runnable.
      * @return A ListenableFuture representing the result of the task.
-     * @see org.ssh.managers.controllers.ServicesController#submitTask(Callable)
+     * @see org.ssh.managers.controllers.ServicesController#submitTask(String, Runnable)
      */
-    @SuppressWarnings("unchecked")
     public static <L> ListenableFuture<L> submitTask(final String taskName, final Runnable task) {
-        Services.LOG.info("Submitting task named %s ...", taskName);
-        return (ListenableFuture<L>) Services.controller.submitTask(task);
+        Services.LOG.fine("Submitting task named %s ...", taskName);
+        return Services.controller.submitTask(taskName, task);
+    }
+
+    /**
+     * Loads the executors declared in the {@link ExecutorSettings} of the current profile. Tasks are
+     * routed to these executors by their name.
+     *
+     * @see org.ssh.managers.controllers.ServicesController#loadExecutors(ExecutorSettings)
+     */
+    public static void loadExecutors() {
+        Services.LOG.info("Loading executors...");
+        final ExecutorSettings settings = Models.<ExecutorSettings>get("executorsettings")
+                .orElseGet(() -> Models.create(ExecutorSettings.class));
+        Services.controller.loadExecutors(settings);
+    }
+
+    /**
+     * Gets the executor on which a task with the supplied name runs.
+     *
+     * @param taskName The name of the task.
+     * @return The executor.
+     * @see org.ssh.managers.controllers.ServicesController#getExecutor(String)
+     */
+    public static ListeningExecutorService getExecutor(final String taskName) {
+        return Services.controller.getExecutor(taskName);
     }
 
     /**
@@ -200,4 +339,42 @@ public final class Services implements ManagerInterface<AbstractService<? extend
     public static <S extends AbstractService<? extends AbstractPipelinePacket<?>>> List<S> find(final String pattern) {
         return Services.controller.find(pattern);
     }
-}
\ No newline at end of file
+
+    /**
+     * Start listening for a specific event
+     * @param event       event to listen for
+     * @param consumer    consumer to call when event happens
+     * @param classes     class(es) that should trigger the event
+     * @return true if listener has been added successful
+     */
+    public static boolean addSubscription(ManagerEvent event, Consumer consumer, Class<?>... classes){
+        return Services.controller.addSubscription(event, consumer, classes);
+    }
+
+    /**
+     * Start listening for a specific event, with the consumer being called on the given executor.
+     * Updates of the same object within the coalesce window are delivered once, at the end of the window.
+     * @param event          event to listen for
+     * @param consumer       consumer to call when event happens
+     * @param executor       executor on which the consumer is called
+     * @param coalesceWindow window in us within which {@link ManagerEvent#UPDATE updates} are coalesced, or 0
+     *                       (coalescing requires an executor)
+     * @param classes        class(es) that should trigger the event
+     * @return true if listener has been added successful
+     */
+    public static boolean addSubscription(ManagerEvent event, Consumer consumer, Executor executor,
+                                          long coalesceWindow, Class<?>... classes){
+        return Services.controller.addSubscription(event, consumer, executor, coalesceWindow, classes);
+    }
+
+    /**
+     * Stop listening for a specific event for a specific (set of) class(es)
+     * @param event     event to stop listening for
+     * @param consumer  consumer to unsubscribe
+     * @param classes   class to remove listener from
+     * @return true if successful
+     */
+    public static boolean removeSubscription(ManagerEvent event, Consumer consumer, Class<?>... classes){
+        return Services.controller.removeSubscription(event, consumer, classes);
+    }
+}
@@ -1,13 +1,14 @@
 package org.ssh.models;
 
+import com.google.protobuf.Message;
 import javafx.beans.value.WritableValue;
 import javafx.util.Pair;
 import org.jooq.lambda.Unchecked;
 import org.ssh.managers.AbstractManageable;
 import org.ssh.managers.controllers.ModelController;
 import org.ssh.managers.manager.Models;
+import org.ssh.models.FieldAccessors.FieldAccessor;
 import org.ssh.models.enums.ManagerEvent;
-import org.ssh.util.Reflect;
 
 import java.io.StringWriter;
 import java.lang.annotation.ElementType;
@@ -89,52 +90,31 @@ public abstract class AbstractModel extends AbstractManageable {
      * @return success value
      */
     public <T> boolean set(final String fieldName, final T value) {
+        return this.set(FieldAccessors.of(this.getClass()).get(fieldName), fieldName, value);
+    }
+
+    /**
+     * Set a specific {@link Field} to a specific value through its (compiled) {@link FieldAccessor}
+     *
+     * @param accessor  accessor of the field, or null if the field doesn't exist
+     * @param fieldName string name of the field
+     * @param value     value to set
+     * @return success value
+     */
+    private boolean set(final FieldAccessor accessor, final String fieldName, final Object value) {
         try {
-            // try to get the field
-            final Optional<Field> oField = Reflect.getField(fieldName, this.getClass());
             // found the field?
-            if (oField.isPresent()) {
-                // get it and set it accessible
-                final Field field = oField.get();
-                if (Modifier.isFinal(field.getModifiers()) || Modifier.isStatic(field.getModifiers())) {
-                    AbstractModel.LOG.fine("%s in is not a modifiable field", field.getName(), this.getClass().getSimpleName());
+            if (accessor != null) {
+                if (!accessor.isModifiable()) {
+                    AbstractModel.LOG.fine("%s in %s is not a modifiable field", accessor.getName(), this.getClass().getSimpleName());
                     return false;
                 }
-                if (!field.isAccessible())
-                    field.setAccessible(true);
-                // if the field is a collection and the value is not, the value is added to the collection
-                if (field.get(this) instanceof Collection && !(value instanceof Collection))
-                    ((Collection) field.get(this)).add(value);
-                    // check if the field is a writable value surrounding it
-                else if (field.get(this) instanceof WritableValue)
-                    // if so, use the setValue method of field so its bounded properties get updated
-                    if (value instanceof WritableValue)
-                        ((WritableValue) field.get(this)).setValue(((WritableValue) value).getValue());
-                    else
-                        ((WritableValue) field.get(this)).setValue(value);
-                    // try to cast this value, and set the field
-                    // Slightly hacky way to deal with primitive numbers.
-                else if (value instanceof Number) {
-                    if (field.getType().equals(Float.class))
-                        field.set(this, ((Number) value).floatValue());
-                    else if (field.getType().equals(Double.class))
-                        field.set(this, ((Number) value).doubleValue());
-                    else if (field.getType().equals(Integer.class))
-                        field.set(this, ((Number) value).intValue());
-                    else if (field.getType().equals(Long.class))
-                        field.set(this, ((Number) value).longValue());
-                    else if (field.getType().equals(Short.class))
-                        field.set(this, ((Number) value).shortValue());
-                } else
-                    field.set(this, field.getType().cast(value));
+                // sets, adds to or converts the value depending on the field
+                accessor.set(this, value);
                 return true;
             } else
                 // field doesn't exist
                 AbstractModel.LOG.info("%s does not exist.\n", fieldName);
-        } catch (IllegalAccessException exception) {
-            // field is either not accessible, or the fieldType didn't match
-            AbstractModel.LOG.info("%s is not a (accessible) field.\n", fieldName);
-            AbstractModel.LOG.exception(exception);
         } catch (ClassCastException exception) {
             AbstractModel.LOG.info("%s is not assignable from %s.\n", fieldName, value.getClass().getTypeName());
             AbstractModel.LOG.exception(exception);
@@ -187,18 +167,41 @@ public abstract class AbstractModel extends AbstractManageable {
     public boolean update(final Map<String, ?> changes) {
         AbstractModel.LOG.fine("Updating model %s", getClass());
 
+        // the accessors of this class
+        final FieldAccessors accessors = FieldAccessors.of(this.getClass());
+        boolean returnvalue = true;
         // loop all changes
-        boolean returnvalue = changes.entrySet().stream()
-                // check whether this field exists
-                .filter(entry -> Reflect.hasField(entry.getKey(), this.getClass()))
-                // set this value
-                .map(entry -> this.set(entry.getKey(), entry.getValue()))
-                // reduce success value
-                .reduce(true, (accumulator, success) -> accumulator && success);
+        for (final Map.Entry<String, ?> entry : changes.entrySet()) {
+            final FieldAccessor accessor = accessors.get(entry.getKey());
+            // skip the fields that don't exist, and set the value of the others
+            if (accessor != null)
+                returnvalue &= this.set(accessor, entry.getKey(), entry.getValue());
+        }
         Models.triggerEvent(ManagerEvent.UPDATE, this);
         return returnvalue;
     }
 
+    /**
+     * Update this model based on a protobuf message. If a {@link ModelBinder} is registered for the message and
+     * this model, the message is copied through its typed getters. Otherwise the fields of the message are bound to
+     * the fields of this model by name (or {@link Alias}), see {@link #update(Map)}.
+     *
+     * @param message protobuf message with new information
+     * @return success value
+     */
+    public boolean update(final Message message) {
+        final ModelBinder<Message, AbstractModel> binder = ModelBinders.get(message.getClass(), this.getClass());
+        if (binder == null)
+            return this.update(message.getAllFields().entrySet().stream().collect(Collectors.toMap(
+                    entry -> entry.getKey().getName(),
+                    Map.Entry::getValue
+            )));
+
+        binder.bind(message, this);
+        Models.triggerEvent(ManagerEvent.UPDATE, this);
+        return true;
+    }
+
     /**
      * Serialize this Model to a Map, with each fieldname as a key, and each field value as value.
      *
@@ -272,7 +275,7 @@ public abstract class AbstractModel extends AbstractManageable {
     public void reset(List<String> fields) {
         fields.forEach(field -> {
             try {
-                if (Reflect.getField(field, this.getClass()).get().get(this) instanceof WritableValue) {
+                if (FieldAccessors.of(this.getClass()).get(field).get(this) instanceof WritableValue) {
                     AbstractModel.LOG.info("Did not reset");
                     return;
                 }
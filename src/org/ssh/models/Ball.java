@@ -1,5 +1,6 @@
 package org.ssh.models;
 
+import com.google.protobuf.Message;
 import javafx.beans.property.FloatProperty;
 import javafx.beans.property.SimpleFloatProperty;
 import javafx.scene.paint.Color;
@@ -9,9 +10,6 @@ import javafx.scene.shape.MeshView;
 import javafx.scene.shape.Sphere;
 import protobuf.Detection;
 
-import java.util.Map;
-import java.util.stream.Collectors;
-
 
 /**
  * Describes a ball {@link FieldObject object}.
@@ -31,6 +29,14 @@ public class Ball extends FieldObject {
     @Alias("z")
     private FloatProperty zPosition;
 
+    static {
+        // bind ssl-vision detections directly
+        ModelBinders.register(Detection.DetectionBall.class, Ball.class, (detectionBall, ball) -> {
+            ball.setDetection(detectionBall.getConfidence(), detectionBall.getX(), detectionBall.getY());
+            ball.zPosition.set(detectionBall.getZ());
+        });
+    }
+
     /**
      * Instantiates a ball
      */
@@ -69,9 +75,6 @@ public class Ball extends FieldObject {
      * @return success value
      */
     public boolean update(Detection.DetectionBall detectionBall){
-        return update(detectionBall.getAllFields().entrySet().stream().collect(Collectors.toMap(
-                entry -> entry.getKey().getName(),
-                Map.Entry::getValue
-        )));
+        return update((Message) detectionBall);
     }
 }
\ No newline at end of file
@@ -0,0 +1,96 @@
+package org.ssh.models;
+
+import org.ssh.managers.manager.Models;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Keeps the {@link Ball Balls} in {@link Models} in the order in which they were created, so the ball belonging
+ * to a detection can be found by its index in the detection frame. The repository follows the balls being
+ * created and removed in {@link Models}.
+ *
+ * @author agent
+ */
+public class BallRepository {
+
+    /**
+     * The balls, in the order in which they were created
+     */
+    private final List<Ball> balls = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param index index of the ball
+     * @return the ball with the given index, if there are enough balls
+     */
+    public Optional<Ball> get(final int index) {
+        // take a single snapshot, the balls may be removed in the meantime
+        final Object[] snapshot = this.balls.toArray();
+        return index >= 0 && index < snapshot.length ? Optional.of((Ball) snapshot[index]) : Optional.empty();
+    }
+
+    /**
+     * Gets the ball with the given index, {@link Models#create(Class, Object...) creating} balls until there
+     * are enough.
+     *
+     * @param index index of the ball
+     * @return the ball, or null if it couldn't be created
+     */
+    public Ball getOrCreate(final int index) {
+        final Optional<Ball> ball = this.get(index);
+        if (ball.isPresent())
+            return ball.get();
+
+        synchronized (this) {
+            while (this.balls.size() <= index) {
+                // the new ball is added through the CREATE event, which is delivered before create returns
+                final Ball newBall = Models.create(Ball.class);
+                if (newBall == null || !this.balls.contains(newBall))
+                    return null;
+            }
+            return this.balls.get(index);
+        }
+    }
+
+    /**
+     * @return all balls
+     */
+    public List<Ball> getAll() {
+        return Collections.unmodifiableList(this.balls);
+    }
+
+    /**
+     * @return the number of balls
+     */
+    public int size() {
+        return this.balls.size();
+    }
+
+    /**
+     * Adds a ball to the repository if it isn't in there already
+     *
+     * @param ball ball to add
+     */
+    public synchronized void add(final Ball ball) {
+        if (!this.balls.contains(ball))
+            this.balls.add(ball);
+    }
+
+    /**
+     * Removes a ball from the repository
+     *
+     * @param ball ball to remove
+     */
+    public synchronized void remove(final Ball ball) {
+        this.balls.remove(ball);
+    }
+
+    /**
+     * Removes all balls from the repository
+     */
+    public synchronized void clear() {
+        this.balls.clear();
+    }
+}
@@ -0,0 +1,128 @@
+package org.ssh.models;
+
+import org.ssh.models.enums.ExecutorType;
+
+import java.util.Map;
+
+/**
+ * Contains the executors on which {@link org.ssh.managers.manager.Services Services} runs its tasks, and which
+ * tasks run on which executor.
+ *
+ * @author agent
+ */
+public class ExecutorSettings extends AbstractModel {
+
+    /**
+     * The executors by name
+     */
+    private Map<String, ExecutorDefinition> executors;
+
+    /**
+     * The executor by (part of) the name of a task. The longest part found in the name of a task decides
+     * on which executor the task runs.
+     */
+    private Map<String, String> routes;
+
+    /**
+     * The executor on which tasks run that match none of the routes
+     */
+    private String defaultExecutor;
+
+    /**
+     * The executor on which scheduled tasks run
+     */
+    private ExecutorDefinition scheduler;
+
+    public ExecutorSettings() {
+        super("executorsettings", "");
+    }
+
+    @Override
+    public void initialize() {
+        // no default values
+    }
+
+    /**
+     * @return The executors by name
+     */
+    public Map<String, ExecutorDefinition> getExecutors() {
+        return executors;
+    }
+
+    /**
+     * @return The executor by (part of) the name of a task
+     */
+    public Map<String, String> getRoutes() {
+        return routes;
+    }
+
+    /**
+     * @return The executor on which tasks run that match none of the routes
+     */
+    public String getDefaultExecutor() {
+        return defaultExecutor;
+    }
+
+    /**
+     * @return The executor on which scheduled tasks run
+     */
+    public ExecutorDefinition getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Describes a single executor.
+     */
+    public static class ExecutorDefinition {
+
+        /**
+         * How the executor runs its tasks
+         */
+        private ExecutorType type;
+
+        /**
+         * The number of threads of a {@link ExecutorType#FIXED fixed} pool or of the scheduler
+         */
+        private Integer threads;
+
+        /**
+         * The number of tasks waiting for a thread of a {@link ExecutorType#FIXED fixed} pool, unbounded if absent
+         */
+        private Integer queueCapacity;
+
+        /**
+         * The priority of the threads, between {@link Thread#MIN_PRIORITY} and {@link Thread#MAX_PRIORITY}
+         */
+        private Integer priority;
+
+        /**
+         * @return How the executor runs its tasks
+         */
+        public ExecutorType getType() {
+            return type == null ? ExecutorType.CACHED : type;
+        }
+
+        /**
+         * @return The number of threads of a fixed pool or of the scheduler
+         */
+        public int getThreads() {
+            return threads == null ? 1 : Math.max(1, threads);
+        }
+
+        /**
+         * @return The number of tasks waiting for a thread of a fixed pool, or 0 if unbounded
+         */
+        public int getQueueCapacity() {
+            return queueCapacity == null ? 0 : Math.max(0, queueCapacity);
+        }
+
+        /**
+         * @return The priority of the threads
+         */
+        public int getPriority() {
+            return priority == null
+                    ? Thread.NORM_PRIORITY
+                    : Math.min(Thread.MAX_PRIORITY, Math.max(Thread.MIN_PRIORITY, priority));
+        }
+    }
+}
@@ -0,0 +1,388 @@
+package org.ssh.models;
+
+import javafx.beans.value.WritableBooleanValue;
+import javafx.beans.value.WritableDoubleValue;
+import javafx.beans.value.WritableFloatValue;
+import javafx.beans.value.WritableIntegerValue;
+import javafx.beans.value.WritableLongValue;
+import javafx.beans.value.WritableValue;
+import org.ssh.models.AbstractModel.Alias;
+import org.ssh.util.Logger;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The table of {@link FieldAccessor FieldAccessors} of a {@link AbstractModel} class, by field name and
+ * {@link Alias}. The table is built once per class, after which setting a field of a model doesn't need any
+ * reflection. Names are resolved like {@link org.ssh.util.Reflect#getField(String, Class)} does: a subclass hides
+ * its parents, and a field name goes before an {@link Alias} in the same class.
+ *
+ * @author agent
+ */
+public final class FieldAccessors {
+
+    /**
+     * The accessor tables by model class
+     */
+    private static final ClassValue<FieldAccessors> TABLES = new ClassValue<FieldAccessors>() {
+        @Override
+        protected FieldAccessors computeValue(final Class<?> type) {
+            return new FieldAccessors(type);
+        }
+    };
+
+    // respective logger
+    private static final Logger LOG = Logger.getLogger();
+
+    /**
+     * The accessors by field name and alias
+     */
+    private final Map<String, FieldAccessor> accessors;
+
+    /**
+     * Builds the accessor table of a class.
+     *
+     * @param clazz class to build the table for
+     */
+    private FieldAccessors(final Class<?> clazz) {
+        final Map<String, FieldAccessor> table = new HashMap<>();
+        // loop until all superclasses has been tried
+        for (Class<?> clazzI = clazz; clazzI.getSuperclass() != null; clazzI = clazzI.getSuperclass()) {
+            final Field[] fields = clazzI.getDeclaredFields();
+            // names first
+            for (final Field field : fields)
+                table.computeIfAbsent(field.getName(), name -> FieldAccessor.of(field));
+            // then aliases
+            for (final Field field : fields) {
+                final Alias alias = field.getAnnotation(Alias.class);
+                if (alias != null)
+                    table.computeIfAbsent(alias.value(), name -> FieldAccessor.of(field));
+            }
+        }
+        this.accessors = Collections.unmodifiableMap(table);
+    }
+
+    /**
+     * @param clazz class of the model
+     * @return the accessor table of the given class
+     */
+    public static FieldAccessors of(final Class<?> clazz) {
+        return FieldAccessors.TABLES.get(clazz);
+    }
+
+    /**
+     * @param fieldName name or {@link Alias} of the field
+     * @return the accessor of the field, or null if the class doesn't have such a field
+     */
+    public FieldAccessor get(final String fieldName) {
+        return this.accessors.get(fieldName);
+    }
+
+    /**
+     * @param fieldName name or {@link Alias} of the field
+     * @return true if the class contains a field with given name or alias
+     */
+    public boolean has(final String fieldName) {
+        return this.accessors.containsKey(fieldName);
+    }
+
+    /**
+     * What kind of field an accessor sets, decided once from the declared type of the field.
+     */
+    private enum Kind {
+        COLLECTION, FLOAT_PROPERTY, DOUBLE_PROPERTY, INTEGER_PROPERTY, LONG_PROPERTY, BOOLEAN_PROPERTY, WRITABLE,
+        FLOAT, DOUBLE, INTEGER, LONG, SHORT, OTHER
+    }
+
+    /**
+     * Gets and sets a single field of a model through {@link MethodHandle MethodHandles}.
+     *
+     * @author agent
+     */
+    public static final class FieldAccessor {
+
+        /**
+         * The field
+         */
+        private final Field field;
+
+        /**
+         * Handle returning the value of the field, as (Object) -> Object
+         */
+        private final MethodHandle getter;
+
+        /**
+         * Handle setting the value of the field as (Object, Object) -> void, or null if the field is final or static
+         */
+        private final MethodHandle setter;
+
+        /**
+         * Handle setting a numeric field as (Object, primitive) -> void, for example (Object, float) -> void for a
+         * float or Float field, or null if the field isn't numeric or can't be set
+         */
+        private final MethodHandle numericSetter;
+
+        /**
+         * What kind of field this is
+         */
+        private final Kind kind;
+
+        /**
+         * Creates the accessor of a field.
+         *
+         * @param field      the field
+         * @param getter     handle returning the value of the field
+         * @param setter        handle setting the value of the field, or null
+         * @param numericSetter handle setting the field from a primitive, or null
+         * @param kind          what kind of field this is
+         */
+        private FieldAccessor(final Field field,
+                              final MethodHandle getter,
+                              final MethodHandle setter,
+                              final MethodHandle numericSetter,
+                              final Kind kind) {
+            this.field = field;
+            this.getter = getter;
+            this.setter = setter;
+            this.numericSetter = numericSetter;
+            this.kind = kind;
+        }
+
+        /**
+         * @param field the field
+         * @return an accessor for the field
+         */
+        private static FieldAccessor of(final Field field) {
+            try {
+                if (!field.isAccessible())
+                    field.setAccessible(true);
+                final MethodHandles.Lookup lookup = MethodHandles.lookup();
+                final boolean modifiable = !Modifier.isFinal(field.getModifiers()) && !Modifier.isStatic(field.getModifiers());
+
+                final MethodHandle getter = Modifier.isStatic(field.getModifiers())
+                        ? MethodHandles.dropArguments(lookup.unreflectGetter(field), 0, Object.class)
+                        : lookup.unreflectGetter(field);
+                final MethodHandle setter = modifiable ? lookup.unreflectSetter(field) : null;
+                final Kind kind = FieldAccessor.kindOf(field.getType());
+                final Class<?> primitive = FieldAccessor.primitiveOf(kind);
+                return new FieldAccessor(field,
+                        getter.asType(MethodType.methodType(Object.class, Object.class)),
+                        setter != null ? setter.asType(MethodType.methodType(void.class, Object.class, Object.class)) : null,
+                        // a primitive field is set without boxing, a boxed one is boxed by the handle itself
+                        setter != null && primitive != null
+                                ? setter.asType(MethodType.methodType(void.class, Object.class, primitive))
+                                : null,
+                        kind);
+            } catch (IllegalAccessException exception) {
+                FieldAccessors.LOG.exception(exception);
+                return new FieldAccessor(field, null, null, null, Kind.OTHER);
+            }
+        }
+
+        /**
+         * @param kind kind of field
+         * @return the primitive type a numeric field is set with, or null if the field isn't numeric
+         */
+        private static Class<?> primitiveOf(final Kind kind) {
+            switch (kind) {
+                case FLOAT:
+                    return float.class;
+                case DOUBLE:
+                    return double.class;
+                case INTEGER:
+                    return int.class;
+                case LONG:
+                    return long.class;
+                case SHORT:
+                    return short.class;
+                default:
+                    return null;
+            }
+        }
+
+        /**
+         * @param type declared type of a field
+         * @return the kind of field
+         */
+        private static Kind kindOf(final Class<?> type) {
+            if (Collection.class.isAssignableFrom(type)) return Kind.COLLECTION;
+            if (WritableFloatValue.class.isAssignableFrom(type)) return Kind.FLOAT_PROPERTY;
+            if (WritableDoubleValue.class.isAssignableFrom(type)) return Kind.DOUBLE_PROPERTY;
+            if (WritableIntegerValue.class.isAssignableFrom(type)) return Kind.INTEGER_PROPERTY;
+            if (WritableLongValue.class.isAssignableFrom(type)) return Kind.LONG_PROPERTY;
+            if (WritableBooleanValue.class.isAssignableFrom(type)) return Kind.BOOLEAN_PROPERTY;
+            if (WritableValue.class.isAssignableFrom(type)) return Kind.WRITABLE;
+            if (type == Float.class || type == float.class) return Kind.FLOAT;
+            if (type == Double.class || type == double.class) return Kind.DOUBLE;
+            if (type == Integer.class || type == int.class) return Kind.INTEGER;
+            if (type == Long.class || type == long.class) return Kind.LONG;
+            if (type == Short.class || type == short.class) return Kind.SHORT;
+            return Kind.OTHER;
+        }
+
+        /**
+         * @return the name of the field
+         */
+        public String getName() {
+            return this.field.getName();
+        }
+
+        /**
+         * @return true if the field can be set
+         */
+        public boolean isModifiable() {
+            return this.setter != null;
+        }
+
+        /**
+         * @param model model to read the field of
+         * @return the value of the field
+         */
+        public Object get(final AbstractModel model) {
+            try {
+                return (Object) this.getter.invokeExact((Object) model);
+            } catch (Throwable throwable) {
+                throw FieldAccessor.rethrow(throwable);
+            }
+        }
+
+        /**
+         * Sets the field of the model to the given value, like {@link AbstractModel#set(String, Object)}: if the
+         * field is a collection the value is added to it, if the field is a property the value of the property
+         * is set, and numbers are converted to the type of the field. A property which hasn't been created yet is
+         * treated like any other field.
+         *
+         * @param model model to set the field of
+         * @param value value to set
+         * @throws ClassCastException            if the value doesn't fit the field
+         * @throws UnsupportedOperationException if the field is an unmodifiable collection
+         */
+        @SuppressWarnings("unchecked")
+        public void set(final AbstractModel model, final Object value) {
+            try {
+                switch (this.kind) {
+                    case FLOAT_PROPERTY: {
+                        final Object property = this.get(model);
+                        if (property != null && value instanceof Number) {
+                            ((WritableFloatValue) property).set(((Number) value).floatValue());
+                            return;
+                        }
+                        break;
+                    }
+                    case DOUBLE_PROPERTY: {
+                        final Object property = this.get(model);
+                        if (property != null && value instanceof Number) {
+                            ((WritableDoubleValue) property).set(((Number) value).doubleValue());
+                            return;
+                        }
+                        break;
+                    }
+                    case INTEGER_PROPERTY: {
+                        final Object property = this.get(model);
+                        if (property != null && value instanceof Number) {
+                            ((WritableIntegerValue) property).set(((Number) value).intValue());
+                            return;
+                        }
+                        break;
+                    }
+                    case LONG_PROPERTY: {
+                        final Object property = this.get(model);
+                        if (property != null && value instanceof Number) {
+                            ((WritableLongValue) property).set(((Number) value).longValue());
+                            return;
+                        }
+                        break;
+                    }
+                    case BOOLEAN_PROPERTY: {
+                        final Object property = this.get(model);
+                        if (property != null && value instanceof Boolean) {
+                            ((WritableBooleanValue) property).set((Boolean) value);
+                            return;
+                        }
+                        break;
+                    }
+                    case FLOAT:
+                        if (value instanceof Number && this.numericSetter != null) {
+                            this.numericSetter.invokeExact((Object) model, ((Number) value).floatValue());
+                            return;
+                        }
+                        break;
+                    case DOUBLE:
+                        if (value instanceof Number && this.numericSetter != null) {
+                            this.numericSetter.invokeExact((Object) model, ((Number) value).doubleValue());
+                            return;
+                        }
+                        break;
+                    case INTEGER:
+                        if (value instanceof Number && this.numericSetter != null) {
+                            this.numericSetter.invokeExact((Object) model, ((Number) value).intValue());
+                            return;
+                        }
+                        break;
+                    case LONG:
+                        if (value instanceof Number && this.numericSetter != null) {
+                            this.numericSetter.invokeExact((Object) model, ((Number) value).longValue());
+                            return;
+                        }
+                        break;
+                    case SHORT:
+                        if (value instanceof Number && this.numericSetter != null) {
+                            this.numericSetter.invokeExact((Object) model, ((Number) value).shortValue());
+                            return;
+                        }
+                        break;
+                    default:
+                        break;
+                }
+
+                // the general case, decided by the current value of the field
+                final Object current = this.get(model);
+                // if the field is a collection and the value is not, the value is added to the collection
+                if (current instanceof Collection && !(value instanceof Collection))
+                    ((Collection) current).add(value);
+                    // if the field is a writable value, use its setValue method so its bounded properties get updated
+                else if (current instanceof WritableValue)
+                    ((WritableValue) current).setValue(value instanceof WritableValue
+                            ? ((WritableValue) value).getValue()
+                            : value);
+                else if (value instanceof Number && this.kind == Kind.OTHER)
+                    // a number which doesn't fit the field is ignored, like it always has been
+                    return;
+                else
+                    this.setter.invokeExact((Object) model, (Object) FieldAccessor.box(this.field.getType()).cast(value));
+            } catch (Throwable throwable) {
+                throw FieldAccessor.rethrow(throwable);
+            }
+        }
+
+        /**
+         * @param type a type, which may be primitive
+         * @return the boxed version of the type
+         */
+        private static Class<?> box(final Class<?> type) {
+            return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+        }
+
+        /**
+         * Rethrows unchecked exceptions as they are, and wraps checked ones.
+         *
+         * @param throwable the exception thrown by a handle
+         * @return nothing, this method always throws
+         */
+        private static RuntimeException rethrow(final Throwable throwable) {
+            if (throwable instanceof RuntimeException)
+                throw (RuntimeException) throwable;
+            if (throwable instanceof Error)
+                throw (Error) throwable;
+            throw new IllegalStateException(throwable);
+        }
+    }
+}
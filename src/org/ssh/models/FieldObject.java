@@ -49,6 +49,19 @@ public class FieldObject extends AbstractModel {
         yPosition = new SimpleFloatProperty(0f);
     }
 
+    /**
+     * Sets the detection of this object by ssl-vision, used by the {@link ModelBinder ModelBinders} of subclasses.
+     *
+     * @param confidence certainty of detection by ssl-vision
+     * @param x          X Position of this object in mm
+     * @param y          Y Position of this object in mm
+     */
+    protected void setDetection(final float confidence, final float x, final float y) {
+        this.confidence = confidence;
+        this.xPosition.set(x);
+        this.yPosition.set(y);
+    }
+
     /**
      * @return certainty of detection by ssl-vision
      */
@@ -0,0 +1,24 @@
+package org.ssh.models;
+
+import com.google.protobuf.Message;
+
+/**
+ * Copies the contents of a protobuf {@link Message} into a {@link AbstractModel} through the typed getters of the
+ * message, instead of binding the fields of the message to the fields of the model by name.
+ *
+ * @param <P> type of protobuf message
+ * @param <M> type of model
+ * @author agent
+ * @see ModelBinders
+ */
+@FunctionalInterface
+public interface ModelBinder<P extends Message, M extends AbstractModel> {
+
+    /**
+     * Copies the contents of the message into the model
+     *
+     * @param message protobuf message with new information
+     * @param model   model to update
+     */
+    void bind(P message, M model);
+}
@@ -0,0 +1,55 @@
+package org.ssh.models;
+
+import com.google.protobuf.Message;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the {@link ModelBinder ModelBinders} by the type of model and the type of protobuf message they bind. A
+ * model registers its binders when its class is loaded, see {@link AbstractModel#update(Message)}.
+ *
+ * @author agent
+ */
+public final class ModelBinders {
+
+    /**
+     * The binders by model class, and then by message class
+     */
+    private static final Map<Class<?>, Map<Class<?>, ModelBinder<?, ?>>> BINDERS = new ConcurrentHashMap<>();
+
+    /**
+     * This class should merely act as a registry, so it shouldn't be be instantiated.
+     */
+    private ModelBinders() {
+    }
+
+    /**
+     * Registers a binder for a type of message and model, replacing the binder registered before.
+     *
+     * @param messageClass class of the protobuf message
+     * @param modelClass   class of the model
+     * @param binder       binder copying the message into the model
+     * @param <P>          type of protobuf message
+     * @param <M>          type of model
+     */
+    public static <P extends Message, M extends AbstractModel> void register(final Class<P> messageClass,
+                                                                             final Class<M> modelClass,
+                                                                             final ModelBinder<P, M> binder) {
+        ModelBinders.BINDERS.computeIfAbsent(modelClass, key -> new ConcurrentHashMap<>()).put(messageClass, binder);
+    }
+
+    /**
+     * @param messageClass class of the protobuf message
+     * @param modelClass   class of the model
+     * @param <P>          type of protobuf message
+     * @param <M>          type of model
+     * @return the binder for the type of message and model, or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public static <P extends Message, M extends AbstractModel> ModelBinder<P, M> get(final Class<?> messageClass,
+                                                                                   final Class<?> modelClass) {
+        final Map<Class<?>, ModelBinder<?, ?>> binders = ModelBinders.BINDERS.get(modelClass);
+        return binders == null ? null : (ModelBinder<P, M>) binders.get(messageClass);
+    }
+}
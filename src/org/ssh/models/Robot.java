@@ -1,5 +1,6 @@
 package org.ssh.models;
 
+import com.google.protobuf.Message;
 import com.interactivemesh.jfx.importer.obj.ObjModelImporter;
 import javafx.beans.property.*;
 import javafx.scene.Group;
@@ -14,12 +15,12 @@ import org.ssh.models.enums.Malfunction;
 import org.ssh.models.enums.Malfunction.MalfunctionType;
 import org.ssh.ui.components.centersection.gamescene.shapes.ArcLine3D;
 import org.ssh.ui.lua.console.AvailableInLua;
+import org.ssh.util.Clock;
 import protobuf.Detection;
 
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -112,6 +113,15 @@ public class Robot extends FieldObject {
     /** Shows to which cluster groups this robots belongs to like so: {0.55, 0.23, 0.22} */
     private transient double[] clusterGroup;
 
+    static {
+        // bind ssl-vision detections directly
+        ModelBinders.register(Detection.DetectionRobot.class, Robot.class, (detectionRobot, robot) -> {
+            robot.setDetection(detectionRobot.getConfidence(), detectionRobot.getX(), detectionRobot.getY());
+            robot.orientation.set(detectionRobot.getOrientation());
+            robot.height = detectionRobot.getHeight();
+        });
+    }
+
     /**
      * Instantiates a new robot with specified properties
      *
@@ -136,7 +146,7 @@ public class Robot extends FieldObject {
         this.orientation = new SimpleFloatProperty(0.0f);
         this.malfunctions = new SimpleListProperty<>(
                 javafx.collections.FXCollections.observableList(new ArrayList<>()));
-        this.lastUpdated = System.currentTimeMillis();
+        this.lastUpdated = Clock.currentTimeMillis();
         clusterGroup = new double[]{};
     }
 
@@ -321,10 +331,8 @@ public class Robot extends FieldObject {
      * @return succesvalue of the update
      */
     public boolean update(final Detection.DetectionRobot protobufRobot) {
-        return update(protobufRobot.getAllFields().entrySet().stream().collect(Collectors.toMap(
-                entry -> entry.getKey().getName(),
-                Map.Entry::getValue
-        )));
+        this.lastUpdated = Clock.currentTimeMillis();
+        return update((Message) protobufRobot);
     }
 
     /**
@@ -0,0 +1,144 @@
+package org.ssh.models;
+
+import org.ssh.managers.manager.Models;
+import org.ssh.models.enums.Allegiance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keeps the {@link Robot Robots} in {@link Models} by {@link Allegiance} and robot id, so the robot belonging to a
+ * detection can be found without building its name or scanning the models. The repository follows the robots
+ * being created and removed in {@link Models}.
+ *
+ * @author agent
+ */
+public class RobotRepository {
+
+    /**
+     * The number of robot ids reserved per team, the array grows when a higher id is seen
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * The robots, indexed by the ordinal of their {@link Allegiance} and their robot id
+     */
+    private volatile Robot[][] robots = new Robot[Allegiance.values().length][DEFAULT_CAPACITY];
+
+    /**
+     * All robots in the repository, rebuilt whenever a robot is added or removed
+     */
+    private volatile List<Robot> allRobots = Collections.emptyList();
+
+    /**
+     * @param allegiance {@link Allegiance} of the robot
+     * @param robotId    id of the robot
+     * @return the robot with the given allegiance and id, if it exists
+     */
+    public Optional<Robot> get(final Allegiance allegiance, final int robotId) {
+        final Robot[] team = this.robots[allegiance.ordinal()];
+        return robotId >= 0 && robotId < team.length ? Optional.ofNullable(team[robotId]) : Optional.empty();
+    }
+
+    /**
+     * Gets the robot with the given allegiance and id, or {@link Models#create(Class, Object...) creates} it
+     * if it doesn't exist yet.
+     *
+     * @param allegiance {@link Allegiance} of the robot
+     * @param robotId    id of the robot
+     * @return the robot, or null if it couldn't be created
+     */
+    public Robot getOrCreate(final Allegiance allegiance, final int robotId) {
+        final Robot[] team = this.robots[allegiance.ordinal()];
+        if (robotId >= 0 && robotId < team.length && team[robotId] != null)
+            return team[robotId];
+
+        synchronized (this) {
+            // another thread may have created the robot in the meantime
+            // the new robot is added through the CREATE event, which is delivered before create returns
+            return this.get(allegiance, robotId).orElseGet(() -> Models.create(Robot.class, robotId, allegiance));
+        }
+    }
+
+    /**
+     * @return all robots
+     */
+    public List<Robot> getAll() {
+        return this.allRobots;
+    }
+
+    /**
+     * @param allegiance {@link Allegiance} of the robots
+     * @return all robots with the given allegiance
+     */
+    public List<Robot> getAll(final Allegiance allegiance) {
+        final List<Robot> team = new ArrayList<>();
+        for (final Robot robot : this.robots[allegiance.ordinal()])
+            if (robot != null)
+                team.add(robot);
+        return team;
+    }
+
+    /**
+     * Adds a robot to the repository, replacing the robot with the same allegiance and id
+     *
+     * @param robot robot to add
+     */
+    public synchronized void add(final Robot robot) {
+        final int ordinal = robot.getAllegiance().ordinal();
+        final int robotId = robot.getRobotId();
+        if (robotId < 0)
+            return;
+
+        final Robot[][] newRobots = this.robots.clone();
+        if (robotId >= newRobots[ordinal].length)
+            newRobots[ordinal] = Arrays.copyOf(newRobots[ordinal], Math.max(robotId + 1, newRobots[ordinal].length * 2));
+        else
+            newRobots[ordinal] = newRobots[ordinal].clone();
+        newRobots[ordinal][robotId] = robot;
+        this.publish(newRobots);
+    }
+
+    /**
+     * Removes a robot from the repository
+     *
+     * @param robot robot to remove
+     */
+    public synchronized void remove(final Robot robot) {
+        final int ordinal = robot.getAllegiance().ordinal();
+        final int robotId = robot.getRobotId();
+        if (robotId < 0 || robotId >= this.robots[ordinal].length || this.robots[ordinal][robotId] != robot)
+            return;
+
+        final Robot[][] newRobots = this.robots.clone();
+        newRobots[ordinal] = newRobots[ordinal].clone();
+        newRobots[ordinal][robotId] = null;
+        this.publish(newRobots);
+    }
+
+    /**
+     * Removes all robots from the repository
+     */
+    public synchronized void clear() {
+        this.publish(new Robot[Allegiance.values().length][DEFAULT_CAPACITY]);
+    }
+
+    /**
+     * Replaces the robots by the given (copied) arrays, so readers never see a half-updated repository
+     *
+     * @param newRobots robots indexed by allegiance and robot id
+     */
+    private void publish(final Robot[][] newRobots) {
+        final List<Robot> newAllRobots = new ArrayList<>();
+        for (final Robot[] team : newRobots)
+            for (final Robot robot : team)
+                if (robot != null)
+                    newAllRobots.add(robot);
+
+        this.robots = newRobots;
+        this.allRobots = Collections.unmodifiableList(newAllRobots);
+    }
+}
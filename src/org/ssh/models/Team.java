@@ -1,13 +1,13 @@
 package org.ssh.models;
 
+import com.google.protobuf.Message;
 import org.ssh.managers.manager.Models;
 import org.ssh.models.enums.Allegiance;
+import org.ssh.util.Clock;
 import protobuf.RefereeOuterClass;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * Describes a team<br />
@@ -52,6 +52,16 @@ public class Team extends AbstractModel {
     @Alias("timeout_time")
     private Integer timeoutLeft;
 
+    static {
+        // bind the team info of the referee directly
+        ModelBinders.register(RefereeOuterClass.Referee.TeamInfo.class, Team.class, (teamInfo, team) -> {
+            team.teamName = teamInfo.getName();
+            team.goalieId = teamInfo.getGoalie();
+            team.timeouts = teamInfo.getTimeouts();
+            team.timeoutLeft = teamInfo.getTimeoutTime();
+        });
+    }
+
     /**
      * Instantiates a new team that plays on a specified field half.
      *
@@ -79,21 +89,21 @@ public class Team extends AbstractModel {
      * adds 1 red card to the count with current timestamp
      */
     public void addRedCard() {
-        this.redCards.add(System.currentTimeMillis());
+        this.redCards.add(Clock.currentTimeMillis());
     }
 
     /**
      * adds 1 red card to the count with current timestamp
      */
     public void addScore() {
-        this.scores.add(System.currentTimeMillis());
+        this.scores.add(Clock.currentTimeMillis());
     }
 
     /**
      * adds 1 yellow card to the count with current timestamp
      */
     public void addYellowCard() {
-        this.yellowCards.add(System.currentTimeMillis());
+        this.yellowCards.add(Clock.currentTimeMillis());
     }
 
     /**
@@ -159,10 +169,6 @@ public class Team extends AbstractModel {
      * @return successvalue of the update
      */
     public boolean update(final RefereeOuterClass.Referee.TeamInfo team){
-        return update(team.getAllFields().entrySet().stream()
-                .collect(Collectors.toMap(
-                        entry -> entry.getKey().getName(),
-                        Map.Entry::getValue
-                )));
+        return update((Message) team);
     }
 }
\ No newline at end of file
@@ -0,0 +1,415 @@
+package org.ssh.models;
+
+import org.ssh.models.enums.Allegiance;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The positions of all robots and balls stored as primitive columns, so numeric code (like clustering) can loop
+ * over them without unboxing properties or following references to the models. Robots are stored in slots: the
+ * robots of a team take up {@link #getCapacity()} consecutive slots, ordered by their robot id.
+ * <p>
+ * The {@link org.ssh.network.receive.detection.consumers.DetectionModelConsumer} fills the columns alongside the
+ * models, and every {@link WorldState} holds a read-only {@link #copy() copy} which never changes. The columns are
+ * read one value at a time, so a reader can't change them.
+ *
+ * @author agent
+ */
+public final class WorldColumns {
+
+    /**
+     * The number of robot ids reserved per team, the columns grow when a higher id is seen
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * The number of balls reserved, the columns grow when more balls are seen
+     */
+    private static final int DEFAULT_BALL_CAPACITY = 4;
+
+    /**
+     * The number of slots per team
+     */
+    private int capacity;
+
+    /**
+     * X Position of the robot in every slot, in mm
+     */
+    private float[] x;
+
+    /**
+     * Y Position of the robot in every slot, in mm
+     */
+    private float[] y;
+
+    /**
+     * Orientation of the robot in every slot, in radians
+     */
+    private float[] orientation;
+
+    /**
+     * Time of the last detection of the robot in every slot, in ms since epoch
+     */
+    private long[] lastSeen;
+
+    /**
+     * The slots which hold a robot
+     */
+    private BitSet present;
+
+    /**
+     * The slots which hold a visible robot
+     */
+    private BitSet visible;
+
+    /**
+     * X Position of every ball, in mm
+     */
+    private float[] ballX;
+
+    /**
+     * Y Position of every ball, in mm
+     */
+    private float[] ballY;
+
+    /**
+     * Height of every ball, in mm
+     */
+    private float[] ballZ;
+
+    /**
+     * Time of the last detection of every ball, in ms since epoch
+     */
+    private long[] ballLastSeen;
+
+    /**
+     * The number of balls
+     */
+    private int ballCount;
+
+    /**
+     * Whether the columns are a read-only copy
+     */
+    private boolean readOnly;
+
+    /**
+     * Creates empty columns.
+     */
+    public WorldColumns() {
+        this(DEFAULT_CAPACITY, DEFAULT_BALL_CAPACITY);
+    }
+
+    /**
+     * Creates empty columns.
+     *
+     * @param capacity     number of slots per team
+     * @param ballCapacity number of balls reserved
+     */
+    private WorldColumns(final int capacity, final int ballCapacity) {
+        final int slots = capacity * Allegiance.values().length;
+        this.capacity = capacity;
+        this.x = new float[slots];
+        this.y = new float[slots];
+        this.orientation = new float[slots];
+        this.lastSeen = new long[slots];
+        this.present = new BitSet(slots);
+        this.visible = new BitSet(slots);
+        this.ballX = new float[ballCapacity];
+        this.ballY = new float[ballCapacity];
+        this.ballZ = new float[ballCapacity];
+        this.ballLastSeen = new long[ballCapacity];
+        this.ballCount = 0;
+        this.readOnly = false;
+    }
+
+    /**
+     * @return a read-only copy of these columns, which isn't affected by later updates
+     */
+    public WorldColumns copy() {
+        final WorldColumns copy = new WorldColumns(0, 0);
+        copy.capacity = this.capacity;
+        copy.x = this.x.clone();
+        copy.y = this.y.clone();
+        copy.orientation = this.orientation.clone();
+        copy.lastSeen = this.lastSeen.clone();
+        copy.present = (BitSet) this.present.clone();
+        copy.visible = (BitSet) this.visible.clone();
+        copy.ballX = Arrays.copyOf(this.ballX, this.ballCount);
+        copy.ballY = Arrays.copyOf(this.ballY, this.ballCount);
+        copy.ballZ = Arrays.copyOf(this.ballZ, this.ballCount);
+        copy.ballLastSeen = Arrays.copyOf(this.ballLastSeen, this.ballCount);
+        copy.ballCount = this.ballCount;
+        copy.readOnly = true;
+        return copy;
+    }
+
+    /**
+     * @throws UnsupportedOperationException if the columns are a read-only copy
+     */
+    private void checkWritable() {
+        if (this.readOnly)
+            throw new UnsupportedOperationException("The columns of a world state can't be changed");
+    }
+
+    /**
+     * Stores the detection of a robot.
+     *
+     * @param allegiance  {@link Allegiance} of the robot
+     * @param robotId     id of the robot
+     * @param x           X Position of the robot in mm
+     * @param y           Y Position of the robot in mm
+     * @param orientation orientation of the robot in radians
+     * @param timestamp   time of the detection in ms since epoch
+     */
+    public void updateRobot(final Allegiance allegiance,
+                            final int robotId,
+                            final float x,
+                            final float y,
+                            final float orientation,
+                            final long timestamp) {
+        this.checkWritable();
+        if (robotId < 0)
+            return;
+        if (robotId >= this.capacity)
+            this.grow(Math.max(robotId + 1, this.capacity * 2));
+
+        final int slot = this.getSlot(allegiance, robotId);
+        this.x[slot] = x;
+        this.y[slot] = y;
+        this.orientation[slot] = orientation;
+        this.lastSeen[slot] = timestamp;
+        this.present.set(slot);
+    }
+
+    /**
+     * Marks the robots which have been detected within the timeout as visible, and the others as invisible.
+     *
+     * @param timestamp current time in ms since epoch
+     * @param timeout   time in ms after the last detection at which a robot is no longer visible
+     */
+    public void updateVisibility(final long timestamp, final long timeout) {
+        this.checkWritable();
+        for (int slot = this.present.nextSetBit(0); slot >= 0; slot = this.present.nextSetBit(slot + 1))
+            this.visible.set(slot, timestamp - this.lastSeen[slot] < timeout);
+    }
+
+    /**
+     * Stores the detection of a ball, and raises the number of balls to include it.
+     *
+     * @param index     index of the ball
+     * @param x         X Position of the ball in mm
+     * @param y         Y Position of the ball in mm
+     * @param z         height of the ball in mm
+     * @param timestamp time of the detection in ms since epoch
+     */
+    public void updateBall(final int index, final float x, final float y, final float z, final long timestamp) {
+        this.checkWritable();
+        if (index < 0)
+            return;
+        if (index >= this.ballX.length) {
+            final int ballCapacity = Math.max(index + 1, this.ballX.length * 2);
+            this.ballX = Arrays.copyOf(this.ballX, ballCapacity);
+            this.ballY = Arrays.copyOf(this.ballY, ballCapacity);
+            this.ballZ = Arrays.copyOf(this.ballZ, ballCapacity);
+            this.ballLastSeen = Arrays.copyOf(this.ballLastSeen, ballCapacity);
+        }
+
+        this.ballX[index] = x;
+        this.ballY[index] = y;
+        this.ballZ[index] = z;
+        this.ballLastSeen[index] = timestamp;
+        this.ballCount = Math.max(this.ballCount, index + 1);
+    }
+
+    /**
+     * Lowers the number of balls to leave out the balls at the end which haven't been detected within the timeout.
+     *
+     * @param timestamp current time in ms since epoch
+     * @param timeout   time in ms after the last detection at which a ball is gone
+     */
+    public void expireBalls(final long timestamp, final long timeout) {
+        this.checkWritable();
+        while (this.ballCount > 0 && timestamp - this.ballLastSeen[this.ballCount - 1] >= timeout)
+            --this.ballCount;
+    }
+
+    /**
+     * Removes all robots and balls.
+     */
+    public void clear() {
+        this.checkWritable();
+        Arrays.fill(this.lastSeen, 0L);
+        this.present.clear();
+        this.visible.clear();
+        this.ballCount = 0;
+    }
+
+    /**
+     * Grows the robot columns, keeping every robot in the slot belonging to its allegiance and id.
+     *
+     * @param newCapacity the new number of slots per team
+     */
+    private void grow(final int newCapacity) {
+        final int teams = Allegiance.values().length;
+        final float[] newX = new float[newCapacity * teams];
+        final float[] newY = new float[newCapacity * teams];
+        final float[] newOrientation = new float[newCapacity * teams];
+        final long[] newLastSeen = new long[newCapacity * teams];
+        final BitSet newPresent = new BitSet(newCapacity * teams);
+        final BitSet newVisible = new BitSet(newCapacity * teams);
+
+        for (int slot = this.present.nextSetBit(0); slot >= 0; slot = this.present.nextSetBit(slot + 1)) {
+            final int newSlot = (slot / this.capacity) * newCapacity + slot % this.capacity;
+            newX[newSlot] = this.x[slot];
+            newY[newSlot] = this.y[slot];
+            newOrientation[newSlot] = this.orientation[slot];
+            newLastSeen[newSlot] = this.lastSeen[slot];
+            newPresent.set(newSlot);
+            newVisible.set(newSlot, this.visible.get(slot));
+        }
+
+        this.capacity = newCapacity;
+        this.x = newX;
+        this.y = newY;
+        this.orientation = newOrientation;
+        this.lastSeen = newLastSeen;
+        this.present = newPresent;
+        this.visible = newVisible;
+    }
+
+    /**
+     * @return the number of slots per team
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * @param allegiance {@link Allegiance} of the robot
+     * @param robotId    id of the robot
+     * @return the slot of the robot
+     */
+    public int getSlot(final Allegiance allegiance, final int robotId) {
+        return allegiance.ordinal() * this.capacity + robotId;
+    }
+
+    /**
+     * @param allegiance {@link Allegiance} of the team
+     * @return the first slot of the team
+     */
+    public int getFirstSlot(final Allegiance allegiance) {
+        return allegiance.ordinal() * this.capacity;
+    }
+
+    /**
+     * @param slot slot of a robot
+     * @return the id of the robot
+     */
+    public int getRobotId(final int slot) {
+        return slot % this.capacity;
+    }
+
+    /**
+     * @param slot slot of a robot
+     * @return the {@link Allegiance} of the robot
+     */
+    public Allegiance getAllegiance(final int slot) {
+        return Allegiance.values()[slot / this.capacity];
+    }
+
+    /**
+     * @param fromSlot slot to start looking from
+     * @return the first slot from the given one which holds a robot, or -1 if there is none
+     */
+    public int nextPresentSlot(final int fromSlot) {
+        return this.present.nextSetBit(fromSlot);
+    }
+
+    /**
+     * @param slot slot of a robot
+     * @return true if the slot holds a robot
+     */
+    public boolean isPresent(final int slot) {
+        return this.present.get(slot);
+    }
+
+    /**
+     * @param slot slot of a robot
+     * @return true if the slot holds a visible robot
+     */
+    public boolean isVisible(final int slot) {
+        return this.visible.get(slot);
+    }
+
+    /**
+     * @param slot slot of a robot
+     * @return X Position of the robot in mm
+     */
+    public float getX(final int slot) {
+        return this.x[slot];
+    }
+
+    /**
+     * @param slot slot of a robot
+     * @return Y Position of the robot in mm
+     */
+    public float getY(final int slot) {
+        return this.y[slot];
+    }
+
+    /**
+     * @param slot slot of a robot
+     * @return orientation of the robot in radians
+     */
+    public float getOrientation(final int slot) {
+        return this.orientation[slot];
+    }
+
+    /**
+     * @param slot slot of a robot
+     * @return time of the last detection of the robot, in ms since epoch
+     */
+    public long getLastSeen(final int slot) {
+        return this.lastSeen[slot];
+    }
+
+    /**
+     * @param index index of a ball
+     * @return X Position of the ball in mm
+     */
+    public float getBallX(final int index) {
+        return this.ballX[index];
+    }
+
+    /**
+     * @param index index of a ball
+     * @return Y Position of the ball in mm
+     */
+    public float getBallY(final int index) {
+        return this.ballY[index];
+    }
+
+    /**
+     * @param index index of a ball
+     * @return height of the ball in mm
+     */
+    public float getBallZ(final int index) {
+        return this.ballZ[index];
+    }
+
+    /**
+     * @param index index of a ball
+     * @return time of the last detection of the ball, in ms since epoch
+     */
+    public long getBallLastSeen(final int index) {
+        return this.ballLastSeen[index];
+    }
+
+    /**
+     * @return the number of balls which have been detected recently
+     */
+    public int getBallCount() {
+        return this.ballCount;
+    }
+}
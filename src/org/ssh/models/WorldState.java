@@ -0,0 +1,374 @@
+package org.ssh.models;
+
+import org.ssh.models.enums.Allegiance;
+import org.ssh.ui.lua.console.AvailableInLua;
+import protobuf.Geometry.GeometryFieldSize;
+import protobuf.RefereeOuterClass;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * An immutable snapshot of the world: the {@link Robot Robots}, {@link Ball Balls}, {@link Field} and
+ * {@link Referee} as they were at the end of a single processed frame. Snapshots are published through
+ * {@link org.ssh.managers.manager.Models#getWorldState()}, so everyone reading a snapshot sees the same
+ * consistent world without locking, while the models keep being updated by the network threads.
+ * <p>
+ * Every published snapshot gets a higher frame number than the one before it, so a reader can tell whether
+ * anything changed by comparing frame numbers.
+ *
+ * @author agent
+ */
+@AvailableInLua
+public final class WorldState {
+
+    /**
+     * The world before the first frame has been processed
+     */
+    public static final WorldState EMPTY = new WorldState(0L, 0L, Collections.emptyList(), Collections.emptyList(),
+            new WorldColumns().copy(), null, null);
+
+    /**
+     * Number of this snapshot, increases with every published snapshot
+     */
+    private final long frameNumber;
+
+    /**
+     * Time at which the snapshot was taken, in ms since epoch according to the {@link org.ssh.util.Clock}
+     */
+    private final long timestamp;
+
+    /**
+     * All robots
+     */
+    private final List<RobotState> robots;
+
+    /**
+     * All balls which have been detected recently, in the order of the {@link BallRepository}
+     */
+    private final List<BallState> balls;
+
+    /**
+     * The positions of all robots and balls as primitive columns
+     */
+    private final WorldColumns columns;
+
+    /**
+     * The size of the field, or null if no geometry has been received
+     */
+    private final GeometryFieldSize fieldSize;
+
+    /**
+     * The last referee packet, or null if no referee packet has been received
+     */
+    private final RefereeOuterClass.Referee referee;
+
+    /**
+     * Creates a snapshot.
+     *
+     * @param frameNumber number of this snapshot
+     * @param timestamp   time at which the snapshot was taken
+     * @param robots      all robots (not copied)
+     * @param balls       all balls (not copied)
+     * @param columns     the positions as columns (not copied)
+     * @param fieldSize   the size of the field
+     * @param referee     the last referee packet
+     */
+    private WorldState(final long frameNumber,
+                       final long timestamp,
+                       final List<RobotState> robots,
+                       final List<BallState> balls,
+                       final WorldColumns columns,
+                       final GeometryFieldSize fieldSize,
+                       final RefereeOuterClass.Referee referee) {
+        this.frameNumber = frameNumber;
+        this.timestamp = timestamp;
+        this.robots = robots;
+        this.balls = balls;
+        this.columns = columns;
+        this.fieldSize = fieldSize;
+        this.referee = referee;
+    }
+
+    /**
+     * Takes a snapshot of the given models. The referee is taken over from the previous snapshot.
+     *
+     * @param previous  the previous snapshot
+     * @param timestamp time at which the snapshot is taken, in ms
+     * @param robots    all robots
+     * @param balls     all balls, of which only the ones still in the columns are taken
+     * @param columns   the positions of the robots and balls as columns, which are copied
+     * @param field     the field, or null if there isn't one
+     * @return the new snapshot, numbered after the previous one
+     */
+    public static WorldState capture(final WorldState previous,
+                                     final long timestamp,
+                                     final List<Robot> robots,
+                                     final List<Ball> balls,
+                                     final WorldColumns columns,
+                                     final Field field) {
+        final List<RobotState> robotStates = new ArrayList<>(robots.size());
+        for (final Robot robot : robots)
+            robotStates.add(new RobotState(robot));
+        // balls which haven't been detected recently have left the columns
+        final List<BallState> ballStates = new ArrayList<>(columns.getBallCount());
+        for (final Ball ball : balls) {
+            if (ballStates.size() == columns.getBallCount())
+                break;
+            ballStates.add(new BallState(ball));
+        }
+
+        return new WorldState(previous.frameNumber + 1,
+                timestamp,
+                Collections.unmodifiableList(robotStates),
+                Collections.unmodifiableList(ballStates),
+                columns.copy(),
+                field == null ? previous.fieldSize : field.getFieldSize(),
+                previous.referee);
+    }
+
+    /**
+     * Creates a copy of this snapshot with a new referee packet.
+     *
+     * @param timestamp time at which the referee packet was received, in ms
+     * @param referee   the referee packet
+     * @return the new snapshot, numbered after this one
+     */
+    public WorldState withReferee(final long timestamp, final RefereeOuterClass.Referee referee) {
+        return new WorldState(this.frameNumber + 1, timestamp, this.robots, this.balls, this.columns,
+                this.fieldSize, referee);
+    }
+
+    /**
+     * @return number of this snapshot, increases with every published snapshot
+     */
+    public long getFrameNumber() {
+        return this.frameNumber;
+    }
+
+    /**
+     * @return time at which the snapshot was taken, in ms since epoch
+     */
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    /**
+     * @return all robots
+     */
+    public List<RobotState> getRobots() {
+        return this.robots;
+    }
+
+    /**
+     * @param allegiance {@link Allegiance} of the robots
+     * @return all robots with the given allegiance
+     */
+    public List<RobotState> getRobots(final Allegiance allegiance) {
+        final List<RobotState> team = new ArrayList<>();
+        for (final RobotState robot : this.robots)
+            if (robot.getAllegiance() == allegiance)
+                team.add(robot);
+        return team;
+    }
+
+    /**
+     * @param allegiance {@link Allegiance} of the robot
+     * @param robotId    id of the robot
+     * @return the robot with the given allegiance and id, if it was in the world
+     */
+    public Optional<RobotState> getRobot(final Allegiance allegiance, final int robotId) {
+        for (final RobotState robot : this.robots)
+            if (robot.getAllegiance() == allegiance && robot.getRobotId() == robotId)
+                return Optional.of(robot);
+        return Optional.empty();
+    }
+
+    /**
+     * @return all balls
+     */
+    public List<BallState> getBalls() {
+        return this.balls;
+    }
+
+    /**
+     * @param index index of the ball
+     * @return the ball with the given index, or null if there are fewer balls
+     */
+    public BallState getBall(final int index) {
+        return index >= 0 && index < this.balls.size() ? this.balls.get(index) : null;
+    }
+
+    /**
+     * @return the positions of all robots and balls as read-only primitive columns, for numeric code looping over them
+     */
+    public WorldColumns getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * @return the size of the field, or null if no geometry has been received
+     */
+    public GeometryFieldSize getFieldSize() {
+        return this.fieldSize;
+    }
+
+    /**
+     * @return the last referee packet, or null if no referee packet has been received
+     */
+    public RefereeOuterClass.Referee getReferee() {
+        return this.referee;
+    }
+
+    /**
+     * @param value a value which may not have been set
+     * @return the value, or 0 if it wasn't set
+     */
+    private static float orZero(final Float value) {
+        return value == null ? 0f : value;
+    }
+
+    /**
+     * The state of a single {@link Robot} in a {@link WorldState}.
+     *
+     * @author agent
+     */
+    public static final class RobotState {
+
+        private final int robotId;
+        private final Allegiance allegiance;
+        private final float confidence;
+        private final float xPosition;
+        private final float yPosition;
+        private final float orientation;
+        private final boolean visible;
+        private final long lastUpdated;
+
+        /**
+         * Takes the state of a robot.
+         *
+         * @param robot the robot
+         */
+        private RobotState(final Robot robot) {
+            this.robotId = robot.getRobotId();
+            this.allegiance = robot.getAllegiance();
+            this.confidence = WorldState.orZero(robot.getConfidence());
+            this.xPosition = WorldState.orZero(robot.getXPosition());
+            this.yPosition = WorldState.orZero(robot.getYPosition());
+            this.orientation = WorldState.orZero(robot.getOrientation());
+            this.visible = robot.isVisible();
+            this.lastUpdated = robot.lastUpdated() == null ? 0L : robot.lastUpdated();
+        }
+
+        /**
+         * @return id of the robot
+         */
+        public int getRobotId() {
+            return this.robotId;
+        }
+
+        /**
+         * @return {@link Allegiance} of the robot
+         */
+        public Allegiance getAllegiance() {
+            return this.allegiance;
+        }
+
+        /**
+         * @return certainty of detection by ssl-vision
+         */
+        public float getConfidence() {
+            return this.confidence;
+        }
+
+        /**
+         * @return X Position of the robot in mm
+         */
+        public float getXPosition() {
+            return this.xPosition;
+        }
+
+        /**
+         * @return Y Position of the robot in mm
+         */
+        public float getYPosition() {
+            return this.yPosition;
+        }
+
+        /**
+         * @return orientation of the robot in radians
+         */
+        public float getOrientation() {
+            return this.orientation;
+        }
+
+        /**
+         * @return true if the robot was seen recently
+         */
+        public boolean isVisible() {
+            return this.visible;
+        }
+
+        /**
+         * @return time of the last detection of the robot, in ms since epoch
+         */
+        public long lastUpdated() {
+            return this.lastUpdated;
+        }
+    }
+
+    /**
+     * The state of a single {@link Ball} in a {@link WorldState}.
+     *
+     * @author agent
+     */
+    public static final class BallState {
+
+        private final float confidence;
+        private final float xPosition;
+        private final float yPosition;
+        private final float zPosition;
+
+        /**
+         * Takes the state of a ball.
+         *
+         * @param ball the ball
+         */
+        private BallState(final Ball ball) {
+            this.confidence = WorldState.orZero(ball.getConfidence());
+            this.xPosition = WorldState.orZero(ball.getXPosition());
+            this.yPosition = WorldState.orZero(ball.getYPosition());
+            this.zPosition = WorldState.orZero(ball.getZPosition());
+        }
+
+        /**
+         * @return certainty of detection by ssl-vision
+         */
+        public float getConfidence() {
+            return this.confidence;
+        }
+
+        /**
+         * @return X Position of the ball in mm
+         */
+        public float getXPosition() {
+            return this.xPosition;
+        }
+
+        /**
+         * @return Y Position of the ball in mm
+         */
+        public float getYPosition() {
+            return this.yPosition;
+        }
+
+        /**
+         * @return height of the ball in mm
+         */
+        public float getZPosition() {
+            return this.zPosition;
+        }
+    }
+}
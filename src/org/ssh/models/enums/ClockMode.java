@@ -0,0 +1,25 @@
+package org.ssh.models.enums;
+
+import org.ssh.ui.lua.console.AvailableInLua;
+
+/**
+ * Enum that describes how the {@link org.ssh.util.Clock} advances.
+ *
+ * @author agent
+ */
+@AvailableInLua
+public enum ClockMode {
+    /**
+     * The clock follows the system clock.
+     */
+    REAL,
+    /**
+     * The clock follows the system clock, multiplied by a scale factor.
+     */
+    SCALED,
+    /**
+     * The clock only advances when it is driven, like by the replay of a log, so the replay runs as fast as
+     * possible while the tasks waiting on the clock follow it.
+     */
+    VIRTUAL
+}
@@ -0,0 +1,25 @@
+package org.ssh.models.enums;
+
+import org.ssh.ui.lua.console.AvailableInLua;
+
+/**
+ * Enum that describes on which thread a {@link org.ssh.services.AbstractConsumer consumer} registered with a
+ * {@link org.ssh.pipelines.AbstractPipeline pipeline} consumes its packets.
+ *
+ * @author agent
+ */
+@AvailableInLua
+public enum ExecutionMode {
+    /**
+     * The consumer runs on the thread processing the pipeline, so it delays everything after it.
+     */
+    INLINE,
+    /**
+     * The consumer gets its own queue and its own thread.
+     */
+    DEDICATED,
+    /**
+     * The consumer gets its own queue, which is drained by tasks in the shared thread pool.
+     */
+    SHARED
+}
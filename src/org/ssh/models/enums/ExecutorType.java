@@ -0,0 +1,29 @@
+package org.ssh.models.enums;
+
+import org.ssh.ui.lua.console.AvailableInLua;
+
+/**
+ * Enum that describes how an executor declared in the {@link org.ssh.models.ExecutorSettings executor settings}
+ * runs the tasks submitted to it.
+ *
+ * @author agent
+ */
+@AvailableInLua
+public enum ExecutorType {
+    /**
+     * An unbounded pool which reuses idle threads and creates new threads when none are idle.
+     */
+    CACHED,
+    /**
+     * A pool with a fixed number of threads and an optionally bounded queue.
+     */
+    FIXED,
+    /**
+     * Every task gets a thread of its own, named after the task. Meant for long-running, latency-critical loops.
+     */
+    DEDICATED,
+    /**
+     * Every task gets a virtual thread of its own, if the runtime supports them. Meant for blocking I/O.
+     */
+    VIRTUAL
+}
@@ -0,0 +1,25 @@
+package org.ssh.models.enums;
+
+import org.ssh.ui.lua.console.AvailableInLua;
+
+/**
+ * Enum that describes what a bounded {@link org.ssh.pipelines.AbstractPipeline pipeline} queue does when a packet
+ * arrives while the queue is full.
+ *
+ * @author agent
+ */
+@AvailableInLua
+public enum OverflowPolicy {
+    /**
+     * The packet at the head of the queue (the oldest one) is discarded to make room for the new packet.
+     */
+    DROP_OLDEST,
+    /**
+     * The new packet is discarded and the queue is left untouched.
+     */
+    DROP_NEWEST,
+    /**
+     * The calling thread waits until there is room in the queue.
+     */
+    BLOCK
+}
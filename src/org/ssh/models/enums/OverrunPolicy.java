@@ -0,0 +1,21 @@
+package org.ssh.models.enums;
+
+import org.ssh.ui.lua.console.AvailableInLua;
+
+/**
+ * Enum that describes what a {@link org.ssh.util.FixedRateTask fixed-rate task} does when a tick takes longer
+ * than its interval.
+ *
+ * @author agent
+ */
+@AvailableInLua
+public enum OverrunPolicy {
+    /**
+     * The ticks that should already have started run back-to-back until the task is on schedule again.
+     */
+    CATCH_UP,
+    /**
+     * The ticks that should already have started are skipped, and the task continues at the next tick on schedule.
+     */
+    SKIP
+}
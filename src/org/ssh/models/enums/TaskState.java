@@ -0,0 +1,25 @@
+package org.ssh.models.enums;
+
+import org.ssh.ui.lua.console.AvailableInLua;
+
+/**
+ * Enum that describes what a named task submitted to {@link org.ssh.managers.manager.Services Services} is
+ * currently doing.
+ *
+ * @author agent
+ */
+@AvailableInLua
+public enum TaskState {
+    /**
+     * No instance of the task is waiting or running.
+     */
+    IDLE,
+    /**
+     * An instance of the task is waiting for a thread.
+     */
+    QUEUED,
+    /**
+     * An instance of the task is running.
+     */
+    RUNNING
+}
@@ -2,6 +2,7 @@ package org.ssh.network.receive.detection;
 
 import org.ssh.pipelines.AbstractPipeline;
 import org.ssh.pipelines.packets.DetectionPacket;
+import org.ssh.pipelines.queues.ConflatingPacketQueue;
 
 /**
  * Pipeline for {@link DetectionPacket DetectionPackets}
@@ -11,7 +12,30 @@ import org.ssh.pipelines.packets.DetectionPacket;
 public class DetectionPipeline extends AbstractPipeline<DetectionPacket> {
 
     public DetectionPipeline(String name) {
+        this(name, false);
+    }
+
+    /**
+     * Creates a pipeline for {@link DetectionPacket DetectionPackets}. A conflating pipeline only keeps the
+     * latest unprocessed frame per camera and processes the frames on its own worker, so consumers that
+     * fall behind skip stale frames instead of queueing them.
+     *
+     * @param name       name of the pipeline
+     * @param conflating whether stale frames should be superseded by newer frames from the same camera
+     */
+    public DetectionPipeline(String name, boolean conflating) {
         super(name);
+        if (conflating) {
+            this.setQueue(new ConflatingPacketQueue<>());
+            this.startWorker();
+        }
+    }
+
+    /**
+     * @return the number of frames that were superseded before being processed
+     */
+    public long getSupersededFrames() {
+        return this.getDroppedPackets();
     }
 
 }
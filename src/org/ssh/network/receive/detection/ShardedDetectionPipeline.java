@@ -0,0 +1,45 @@
+package org.ssh.network.receive.detection;
+
+import org.ssh.pipelines.ShardedPipeline;
+import org.ssh.pipelines.packets.DetectionPacket;
+import org.ssh.pipelines.queues.ConflatingPacketQueue;
+import org.ssh.pipelines.queues.UnboundedPacketQueue;
+
+/**
+ * Pipeline for {@link DetectionPacket DetectionPackets} which processes the frames of different cameras in
+ * parallel. The frames of a single camera are always processed in order, by the same shard.
+ *
+ * @author agent
+ */
+public class ShardedDetectionPipeline extends ShardedPipeline<DetectionPacket> {
+
+    /**
+     * Creates a sharded pipeline for {@link DetectionPacket DetectionPackets}.
+     *
+     * @param name   name of the pipeline
+     * @param shards number of cameras that can be processed at the same time
+     */
+    public ShardedDetectionPipeline(String name, int shards) {
+        this(name, shards, false);
+    }
+
+    /**
+     * Creates a sharded pipeline for {@link DetectionPacket DetectionPackets}. A conflating pipeline only keeps
+     * the latest unprocessed frame per camera, see {@link DetectionPipeline#DetectionPipeline(String, boolean)}.
+     *
+     * @param name       name of the pipeline
+     * @param shards     number of cameras that can be processed at the same time
+     * @param conflating whether stale frames should be superseded by newer frames from the same camera
+     */
+    public ShardedDetectionPipeline(String name, int shards, boolean conflating) {
+        super(name, shards, conflating ? ConflatingPacketQueue::new : UnboundedPacketQueue::new);
+    }
+
+    /**
+     * @return the number of frames that were superseded before being processed
+     */
+    public long getSupersededFrames() {
+        return this.getDroppedPackets();
+    }
+
+}
@@ -4,16 +4,19 @@ import org.ssh.managers.manager.Models;
 import org.ssh.models.Ball;
 import org.ssh.models.Game;
 import org.ssh.models.Robot;
+import org.ssh.models.RobotRepository;
+import org.ssh.models.WorldColumns;
 import org.ssh.models.enums.Allegiance;
 import org.ssh.models.enums.TeamColor;
 import org.ssh.pipelines.packets.DetectionPacket;
 import org.ssh.services.AbstractConsumer;
+import org.ssh.util.Clock;
+import protobuf.Detection.DetectionBall;
 import protobuf.Detection.DetectionFrame;
 import protobuf.Detection.DetectionRobot;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Stream;
 
 /**
  * Class for parsing all {@link DetectionPacket}s to their models.
@@ -22,11 +25,21 @@ import java.util.stream.Stream;
  */
 public class DetectionModelConsumer extends AbstractConsumer<DetectionPacket> {
 
+    /**
+     * time in ms after the last detection at which a robot is invisible, or a ball is gone
+     */
+    private static final long VISIBILITY_TIMEOUT = 500;
+
     /**
      * helperclass containing information about the game
      */
     private Game game;
 
+    /**
+     * the positions of the robots and balls as columns, copied into every published world state
+     */
+    private final WorldColumns columns = new WorldColumns();
+
     /**
      * Create a new consumer for {@link DetectionPacket}s.
      *
@@ -41,77 +54,62 @@ public class DetectionModelConsumer extends AbstractConsumer<DetectionPacket> {
 
         // read the packet
         DetectionFrame frame = pipelinePacket.read();
-        // create a reference for the yellow team
-        List<DetectionRobot> yellowTeam = frame.getRobotsYellowList();
-
-        // merge both list
-        Stream.concat(yellowTeam.stream(), frame.getRobotsBlueList().stream()).forEach(robot ->
-                    //return the updated robot model
-                    Models.<Robot>get(getModelName(robot, yellowTeam))
-                            // try to get the existing model, if that doesn't work (orElse) create a new one
-                            .orElseGet(() ->
-                                    //create robotclass
-                                    Models.<Robot>create(Robot.class, robot.getRobotId(), getAllegiance(robot, yellowTeam))
-                            ).update(robot)
-        );
+        // the game decides which color is which allegiance, look it up once per frame
+        Optional<Game> oGame = Models.<Game>get("game");
+        if (!oGame.isPresent()) {
+            AbstractConsumer.LOG.info("No Game model, could not determine robot allegiance");
+            return false;
+        }
+        this.game = oGame.get();
+        long timestamp = Clock.currentTimeMillis();
 
-        // get all balls to update them
-        List<Ball> balls = Models.<Ball> getAll("ball");
+        // update both teams
+        updateRobots(frame.getRobotsYellowList(), game.getAllegiance(TeamColor.YELLOW), timestamp);
+        updateRobots(frame.getRobotsBlueList(), game.getAllegiance(TeamColor.BLUE), timestamp);
 
         // compare the balls available in the frame
         for(int i = 0; i < frame.getBallsCount(); ++i){
-            if(i == balls.size())
-                balls.add(Models.create(Ball.class));
+            DetectionBall detectedBall = frame.getBalls(i);
+            // get the ball, or create it if there aren't enough balls
+            Ball ball = Models.getBalls().getOrCreate(i);
             // update the balls
-            balls.get(i).update(frame.getBalls(i));
+            if (ball != null) {
+                ball.update(detectedBall);
+                columns.updateBall(i, detectedBall.getX(), detectedBall.getY(), detectedBall.getZ(), timestamp);
+            }
         }
+        columns.expireBalls(timestamp, VISIBILITY_TIMEOUT);
 
-        // loop all robots that haven't been processed
-        Models.<Robot>getAll("robot").forEach(robot ->
-            robot.setVisible((frame.getTSent() - robot.lastUpdated() < 500))
-        );
+        // a robot is visible if it has been detected recently, including the robots that weren't in this frame
+        columns.updateVisibility(timestamp, VISIBILITY_TIMEOUT);
+        Models.getRobots().getAll().forEach(robot -> {
+            int robotId = robot.getRobotId();
+            robot.setVisible(robotId >= 0 && robotId < columns.getCapacity()
+                    && columns.isVisible(columns.getSlot(robot.getAllegiance(), robotId)));
+        });
 
+        // publish the world as it is after this frame
+        Models.publishWorldState(columns);
         return true;
     }
 
     /**
-     * @param robot      robot to get {@link Allegiance} for
-     * @param yellowTeam list of all detected yellow robots
-     * @return the {@link Allegiance} of a robot (either {@link Allegiance#ALLY} or {@link Allegiance#OPPONENT}.
-     */
-    private Allegiance getAllegiance(DetectionRobot robot, List<DetectionRobot> yellowTeam) {
-        return game.getAllegiance(DetectionModelConsumer.getTeamColor(robot, yellowTeam));
-    }
-
-    /**
-     * Get the teamcolor based on the presents of the robot in the provided list. <br /><br />
-     * <p>
-     * NOTE: list should be of the yellow team.
+     * Updates the robot models of a single team, creating the models that don't exist yet.
      *
-     * @param robot      robot to get {@link TeamColor} for.
-     * @param yellowTeam list of all detected yellow robots
-     * @return {@link TeamColor} of given robot
+     * @param detectedRobots all detected robots of the team
+     * @param allegiance     the {@link Allegiance} of the team (either {@link Allegiance#ALLY} or {@link Allegiance#OPPONENT}).
+     * @param timestamp      time at which the frame is processed, in ms
      */
-    private static TeamColor getTeamColor(DetectionRobot robot, List<DetectionRobot> yellowTeam) {
-        return yellowTeam.contains(robot) ? TeamColor.YELLOW : TeamColor.BLUE;
-    }
-
-    /**
-     * Get the proposed name of {@link DetectionRobot} based on it's present in the given list. <br /><br />
-     * <p>
-     * NOTE: list should be of the yellow team.
-     *
-     * @param robot      robot to generate modelname for
-     * @param yellowTeam list of all detected yellow robots
-     * @return proposed robotname (i.e. "robot A3")
-     */
-    private String getModelName(DetectionRobot robot, List<DetectionRobot> yellowTeam) {
-        Optional<Game> oGame = Models.<Game>get("game");
-        if (oGame.isPresent()) {
-            this.game = oGame.get();
-            return String.format("robot %s%d", game.getAllegiance(getTeamColor(robot, yellowTeam)).identifier(), robot.getRobotId());
+    private void updateRobots(List<DetectionRobot> detectedRobots, Allegiance allegiance, long timestamp) {
+        RobotRepository robots = Models.getRobots();
+        for (DetectionRobot detectedRobot : detectedRobots) {
+            // try to get the existing model, if that doesn't work create a new one
+            Robot robot = robots.getOrCreate(allegiance, detectedRobot.getRobotId());
+            if (robot != null) {
+                robot.update(detectedRobot);
+                columns.updateRobot(allegiance, detectedRobot.getRobotId(), detectedRobot.getX(),
+                        detectedRobot.getY(), detectedRobot.getOrientation(), timestamp);
+            }
         }
-        AbstractConsumer.LOG.info("No Game model, could not determine robot name");
-        return "robot ";
     }
 }
\ No newline at end of file
@@ -15,7 +15,6 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
 import java.net.DatagramPacket;
 import java.net.InetAddress;
 import java.net.MulticastSocket;
@@ -48,7 +47,7 @@ public class UDPReceiver extends AbstractService<ProtoPacket<?>> {
     /**
      * Type of packet that is being listened for
      */
-    private Type packetType;
+    private Class<?> packetType;
     /**
      * Type of message this packetType has
      */
@@ -194,7 +193,7 @@ public class UDPReceiver extends AbstractService<ProtoPacket<?>> {
             return (S) this;
         }
 
-        Services.submitTask(packetType.getTypeName(), () -> {
+        Services.submitTask("receiver-" + packetType.getSimpleName(), () -> {
             // try to connect
             if (!this.connect()) AbstractService.LOG.warning("Connection to %s:%s (%s) FAILED.",
                     networkSettings.getIP(),
@@ -37,6 +37,7 @@ public class RefereeModelConsumer extends AbstractConsumer<RefereePacket> {
                     refereeModel.updateCurrentStage(referee.getStage());
                 }
         );
+        Models.publishReferee(referee);
         // Update the Teams
         // Check whether game is even available
         if(game != null){
@@ -1,10 +1,15 @@
 package org.ssh.network.receive.wrapper.consumers;
 
 import org.ssh.managers.manager.Pipelines;
+import org.ssh.pipelines.AbstractPipeline;
+import org.ssh.pipelines.AbstractPipelinePacket;
+import org.ssh.pipelines.PacketPool;
 import org.ssh.pipelines.packets.DetectionPacket;
 import org.ssh.pipelines.packets.GeometryPacket;
 import org.ssh.pipelines.packets.WrapperPacket;
 import org.ssh.services.AbstractConsumer;
+import protobuf.Detection.DetectionFrame;
+import protobuf.Geometry.GeometryData;
 
 /**
  * Class that splits a {@link WrapperPacket} to a {@link DetectionPacket} and a
@@ -14,6 +19,23 @@ import org.ssh.services.AbstractConsumer;
  */
 public class WrapperConsumer extends AbstractConsumer<WrapperPacket> {
 
+    /**
+     * Maximum number of recycled packets kept per type
+     */
+    private static final int POOL_SIZE = 64;
+
+    /**
+     * Recycled {@link GeometryPacket GeometryPackets}
+     */
+    private final PacketPool<GeometryPacket> geometryPool =
+            new PacketPool<>(() -> new GeometryPacket(GeometryData.getDefaultInstance()), POOL_SIZE);
+
+    /**
+     * Recycled {@link DetectionPacket DetectionPackets}
+     */
+    private final PacketPool<DetectionPacket> detectionPool =
+            new PacketPool<>(() -> new DetectionPacket(DetectionFrame.getDefaultInstance()), POOL_SIZE);
+
     /**
      * Start the WrapperConsumer and attach to all compatible pipelines
      */
@@ -31,14 +53,15 @@ public class WrapperConsumer extends AbstractConsumer<WrapperPacket> {
         // check if a Geometrypacket is present, if so it should be added to each pipeline for that
         // type.
         if (packet.hasGeometry())
-            Pipelines.getOfDataType(GeometryPacket.class).stream().forEach(
-                    pipeline -> pipeline.addPacket(new GeometryPacket(packet.read().getGeometry())).processPacket());
+            for (AbstractPipeline<AbstractPipelinePacket<?>> pipeline : Pipelines.getOfDataType(GeometryPacket.class))
+                // every pipeline gets its own recycled packet, which it releases once it's done
+                pipeline.addPacket(geometryPool.acquire().save(packet.read().getGeometry())).processPacket();
 
         // check if a Geometrypacket is present, if so it should be added to each pipeline for that
         // type.
         if (packet.hasDetection())
-            Pipelines.getOfDataType(DetectionPacket.class).stream().forEach(
-                    pipeline -> pipeline.addPacket(new DetectionPacket(packet.read().getDetection())).processPacket());
+            for (AbstractPipeline<AbstractPipelinePacket<?>> pipeline : Pipelines.getOfDataType(DetectionPacket.class))
+                pipeline.addPacket(detectionPool.acquire().save(packet.read().getDetection())).processPacket();
 
         return true;
     }
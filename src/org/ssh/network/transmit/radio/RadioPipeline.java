@@ -1,15 +1,40 @@
 package org.ssh.network.transmit.radio;
 
 import org.ssh.pipelines.AbstractPipeline;
+import org.ssh.pipelines.DeadlinePacket;
 import org.ssh.pipelines.packets.RadioPacket;
+import org.ssh.pipelines.queues.DeadlinePacketQueue;
+import org.ssh.util.Clock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The Class RadioPipeline.
+ * <p>
+ * The RadioPipeline processes its commands earliest-deadline-first. Commands whose deadline passes while they
+ * wait in the queue, or while they are being run through the couplers, are dropped before they reach the
+ * consumers.
  *
  * @author Rimon Oz
  */
 public class RadioPipeline extends AbstractPipeline<RadioPacket> {
 
+    /**
+     * The queue ordering the commands by deadline.
+     */
+    private final DeadlinePacketQueue<RadioPacket> deadlineQueue = new DeadlinePacketQueue<>();
+
+    /**
+     * The number of commands which expired after leaving the queue.
+     */
+    private final AtomicLong lateCommands = new AtomicLong();
+
+    /**
+     * The deadline (in ns after creation) given to commands without one, or {@link DeadlinePacket#NO_DEADLINE}.
+     */
+    private volatile long commandTimeout = DeadlinePacket.NO_DEADLINE;
+
     /**
      * Instantiates a new radio pipeline.
      *
@@ -17,5 +42,83 @@ public class RadioPipeline extends AbstractPipeline<RadioPacket> {
      */
     public RadioPipeline(final String name) {
         super(name);
+        this.setQueue(this.deadlineQueue);
+    }
+
+    /**
+     * Sets the deadline given to commands which are added to the Pipeline without one.
+     *
+     * @param timeout the time after creation after which a command is outdated.
+     * @param unit    the unit of the timeout.
+     * @return the Pipeline itself, to support method chaining.
+     */
+    public RadioPipeline setCommandTimeout(final long timeout, final TimeUnit unit) {
+        this.commandTimeout = unit.toNanos(timeout);
+        return this;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.ssh.pipelines.AbstractPipeline#addPacket(org.ssh.pipelines.AbstractPipelinePacket)
+     */
+    @Override
+    public <S extends AbstractPipeline<RadioPacket>> S addPacket(final RadioPacket pipelinePacket) {
+        final long timeout = this.commandTimeout;
+        if (timeout != DeadlinePacket.NO_DEADLINE && !pipelinePacket.hasDeadline())
+            pipelinePacket.setDeadline(timeout, TimeUnit.NANOSECONDS);
+        return super.addPacket(pipelinePacket);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.ssh.pipelines.AbstractPipeline#isDeliverable(org.ssh.pipelines.AbstractPipelinePacket)
+     */
+    @Override
+    protected boolean isDeliverable(final RadioPacket pipelinePacket) {
+        if (!pipelinePacket.isExpired(Clock.nanoTime()))
+            return true;
+
+        this.lateCommands.incrementAndGet();
+        RadioPipeline.LOG.fine("Command on pipeline %s expired before it could be sent.", this.getName());
+        return false;
+    }
+
+    /**
+     * Gets the number of commands which expired while waiting in the queue.
+     *
+     * @return The number of expired commands.
+     */
+    public long getExpiredCommands() {
+        return this.deadlineQueue.getExpiredPackets();
+    }
+
+    /**
+     * Gets the number of commands which left the queue in time, but expired before reaching the consumers.
+     *
+     * @return The number of late commands.
+     */
+    public long getLateCommands() {
+        return this.lateCommands.get();
+    }
+
+    /**
+     * Gets the number of commands which were dropped because they expired.
+     *
+     * @return The number of dropped commands.
+     */
+    public long getDroppedCommands() {
+        return this.getExpiredCommands() + this.getLateCommands();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.ssh.pipelines.AbstractPipeline#getDroppedPackets()
+     */
+    @Override
+    public long getDroppedPackets() {
+        return super.getDroppedPackets() + this.getLateCommands();
     }
 }
@@ -3,6 +3,7 @@ package org.ssh.network.transmit.radio.consumers;
 import org.ssh.pipelines.AbstractPipelinePacket;
 import org.ssh.services.AbstractConsumer;
 import org.ssh.services.AbstractService;
+import org.ssh.services.ThreadSafeConsumer;
 
 import java.lang.reflect.Type;
 
@@ -13,7 +14,8 @@ import java.lang.reflect.Type;
  *
  * @author Rimon Oz
  */
-public class StringConsumer<P extends AbstractPipelinePacket<? extends Object>> extends AbstractConsumer<P> {
+public class StringConsumer<P extends AbstractPipelinePacket<? extends Object>> extends AbstractConsumer<P>
+        implements ThreadSafeConsumer {
     private Type type;
 
 
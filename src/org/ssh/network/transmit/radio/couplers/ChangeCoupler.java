@@ -22,10 +22,13 @@ public class ChangeCoupler extends AbstractCoupler<RadioPacket> {
     public ChangeCoupler() {
         super("changecoupler", packet -> {
             AbstractService.LOG.info("Change Coupler is updating some values ....");
-            // get the data
-            return new RadioPacket(packet.read().toBuilder()
-                    .setCommand(0, packet.read().getCommand(0).toBuilder().setVelocityY(9000.3f))
-                    .build());
+            // only change the packet itself if nobody else holds it
+            final RadioPacket target = packet.isMutable()
+                    ? packet
+                    : packet.copy();
+            // update the data
+            target.getBuilder().getCommandBuilder(0).setVelocityY(9000.3f);
+            return target;
         });
     }
 
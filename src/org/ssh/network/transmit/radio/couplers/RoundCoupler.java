@@ -7,11 +7,15 @@ public class RoundCoupler extends AbstractCoupler<RadioPacket> {
 
     public RoundCoupler() {
         super("roundcoupler", packet -> {
-            packet.read().toBuilder().getCommandBuilderList()
+            // only change the packet itself if nobody else holds it
+            final RadioPacket target = packet.isMutable()
+                    ? packet
+                    : packet.copy();
+            target.getBuilder().getCommandBuilderList()
                     .forEach(command -> command.getAllFields().entrySet().stream().filter(
                             entry -> entry.getValue() instanceof Float)
                             .forEach(entry -> command.setField(entry.getKey(), (float) Math.round((Float) entry.getValue()))));
-            return packet;
+            return target;
         });
     }
 }
@@ -1,17 +1,30 @@
 package org.ssh.pipelines;
 
-import com.google.common.reflect.TypeToken;
 import org.ssh.managers.AbstractManageable;
 import org.ssh.managers.manager.Pipelines;
+import org.ssh.managers.manager.Services;
+import org.ssh.models.enums.ExecutionMode;
+import org.ssh.models.enums.OverflowPolicy;
+import org.ssh.pipelines.queues.PacketQueue;
+import org.ssh.pipelines.queues.QueuedPacket;
+import org.ssh.pipelines.queues.RingBufferPacketQueue;
+import org.ssh.pipelines.queues.UnboundedPacketQueue;
 import org.ssh.services.AbstractConsumer;
 import org.ssh.services.AbstractCoupler;
 import org.ssh.services.AbstractProducer;
+import org.ssh.util.StageMetrics;
+import org.ssh.util.TypeRegistry;
+import org.ssh.util.TypeRegistry.TypeMetadata;
+import org.ssh.util.TypeRegistry.TypeParameter;
 
 import java.lang.reflect.Type;
 import java.util.*;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Stream;
 
 /**
@@ -24,27 +37,98 @@ import java.util.stream.Stream;
  */
 public abstract class AbstractPipeline<P extends AbstractPipelinePacket<?>> extends AbstractManageable {
 
+    /**
+     * How long (in ms) the worker waits for a packet before checking whether it should stop.
+     */
+    protected static final long WORKER_POLL_TIMEOUT = 100;
+
+    /**
+     * The default number of batches which can wait in the lane of a consumer.
+     */
+    private static final int DEFAULT_LANE_CAPACITY = 256;
+
     /**
      * The Consumers registered to this Pipeline.
      */
     private final List<AbstractConsumer<P>> consumers;
 
+    /**
+     * The lanes of the consumers which don't run inline.
+     */
+    private final List<ConsumerLane<P>> lanes = new CopyOnWriteArrayList<>();
+
     /**
      * The queue of PipelinePackets.
      */
-    private final Queue<P> queue = new ConcurrentLinkedQueue<P>();
+    private volatile PacketQueue<P> queue = new UnboundedPacketQueue<>();
+
+    /**
+     * Whether a worker is draining the queue. When set, callers of {@link #processPacket()} only hand off
+     * their packets and the worker does the actual processing.
+     */
+    private volatile boolean workerRunning = false;
+
+    /**
+     * The generation of the current worker. Every start and stop of the worker begins a new generation, so a
+     * worker which was stopped never keeps draining the queue next to its successor.
+     */
+    private final AtomicInteger workerGeneration = new AtomicInteger();
+
+    /**
+     * Held by whoever takes packets from the queue and processes them, so the packets of this Pipeline are
+     * processed one at a time and in the order in which they were queued.
+     */
+    private final ReentrantLock processLock = new ReentrantLock();
+
+    /**
+     * The maximum number of packets the worker processes as a single batch.
+     */
+    private volatile int batchSize = 1;
+
+    /**
+     * The maximum time (in us) the worker waits for a batch to fill up.
+     */
+    private volatile long batchDelay = 0;
+
+    /**
+     * The type of packets carried by Pipelines, resolved once per class of Pipeline.
+     */
+    private static final TypeParameter PACKET_TYPE = TypeRegistry.parameter(AbstractPipeline.class, 0);
+
+    /**
+     * The type of {@link AbstractPipelinePacket} carried by this Pipeline.
+     */
+    private final TypeMetadata packetType = AbstractPipeline.PACKET_TYPE.of(this.getClass());
+
+    /**
+     * The raw Class of {@link AbstractPipelinePacket} carried by this Pipeline.
+     */
+    private final Class<?> packetClass = this.packetType.getRawType();
+
+    /**
+     * The metrics of the time packets spend waiting in the queue.
+     */
+    private final StageMetrics queueMetrics;
 
     /**
-     * The reflected TypeToken (o¬‿¬o ).
+     * The metrics of the time packets spend being processed after leaving the queue.
      */
-    @SuppressWarnings("serial")
-    public TypeToken<P> genericType = new TypeToken<P>(this.getClass()) {
-    };
+    private final StageMetrics processingMetrics;
 
     /**
-     * The routes which the Pipeline symbolizes.
+     * The metrics of the time between a translator handing off a packet and this Pipeline processing it.
      */
-    private List<Function<AbstractPipelinePacket<?>, AbstractPipelinePacket<?>>> routes;
+    private final StageMetrics handOffMetrics;
+
+    /**
+     * Whether a task draining the packets handed off to this Pipeline is scheduled.
+     */
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    /**
+     * The compiled route(s) which the Pipeline symbolizes.
+     */
+    private volatile RouteGraph route;
 
     /**
      * Instantiates a new Pipeline.
@@ -52,13 +136,35 @@ public abstract class AbstractPipeline<P extends AbstractPipelinePacket<?>> exte
      * @param name The name of the new Pipeline.
      */
     public AbstractPipeline(final String name) {
+        this(name, true);
+    }
+
+    /**
+     * Instantiates a new Pipeline. A subclass which needs to set itself up before anyone can see it passes
+     * false, and calls {@link #register()} at the end of its own constructor.
+     *
+     * @param name     The name of the new Pipeline.
+     * @param register Whether to register the Pipeline with {@link Pipelines} right away.
+     */
+    protected AbstractPipeline(final String name, final boolean register) {
         super(name);
         // set attributes
-        this.consumers = new ArrayList<>();
-        this.routes = new ArrayList<>();
+        this.consumers = new CopyOnWriteArrayList<>();
+        this.route = RouteGraph.empty();
+        this.queueMetrics = new StageMetrics(name + " (queue)");
+        this.processingMetrics = new StageMetrics(name + " (processing)");
+        this.handOffMetrics = new StageMetrics(name + " (hand-off)");
+
+        if (register)
+            this.register();
+    }
 
+    /**
+     * Registers the Pipeline with {@link Pipelines}, which announces it to everyone listening for new Pipelines.
+     */
+    protected void register() {
         Pipelines.add(this);
-        AbstractPipeline.LOG.info("New pipeline created with name %s", name);
+        AbstractPipeline.LOG.info("New pipeline created with name %s", this.getName());
     }
 
     /**
@@ -68,12 +174,26 @@ public abstract class AbstractPipeline<P extends AbstractPipelinePacket<?>> exte
      * @return The Pipeline itself, to support method chaining.
      */
     public AbstractPipeline setRoute(String pattern) {
-        this.routes = Pipelines.generateRoutes(pattern);
+        this.route = Pipelines.compileRoute(pattern);
         return this;
     }
 
     /**
-     * Adds a {@link AbstractPipelinePacket} to the Pipeline.
+     * Sets the route(s) symbolized by the pipeline. Where the route branches, all but one of the branches
+     * are forked onto the supplied executor.
+     *
+     * @param pattern      The route expressed as a PEPE pattern.
+     * @param forkExecutor The executor on which branches of the route are run.
+     * @return The Pipeline itself, to support method chaining.
+     */
+    public AbstractPipeline setRoute(String pattern, ExecutorService forkExecutor) {
+        this.route = Pipelines.compileRoute(pattern).setForkExecutor(forkExecutor);
+        return this;
+    }
+
+    /**
+     * Adds a {@link AbstractPipelinePacket} to the Pipeline. The Pipeline takes over the reference to the
+     * packet and releases it once the packet is processed or dropped, see {@link PacketPool}.
      *
      * @param <S>            The generic type of Pipeline requested by the user.
      * @param pipelinePacket The packet to be added to the Pipeline.
@@ -82,61 +202,549 @@ public abstract class AbstractPipeline<P extends AbstractPipelinePacket<?>> exte
     @SuppressWarnings("unchecked")
     public <S extends AbstractPipeline<P>> S addPacket(final P pipelinePacket) {
         // add the packet
-        this.queue.add(pipelinePacket);
-        AbstractPipeline.LOG.fine("Packet of type %s added to pipeline %s ...",
-                pipelinePacket.getClass().toString(),
-                this.getName());
+        pipelinePacket.stampReceiveTime();
+        final PacketQueue<P> target = this.queue;
+        if (target.offer(pipelinePacket, System.nanoTime())) {
+            AbstractPipeline.LOG.fine("Packet of type %s added to pipeline %s ...",
+                    pipelinePacket.getClass().toString(),
+                    this.getName());
+            // the queue may have been replaced while the packet was offered
+            if (target != this.queue)
+                this.transfer(target);
+        } else {
+            AbstractPipeline.LOG.fine("Packet of type %s dropped by pipeline %s.",
+                    pipelinePacket.getClass().toString(),
+                    this.getName());
+            pipelinePacket.release();
+        }
+
+        return (S) this;
+    }
+
+    /**
+     * Switches the Pipeline to ring buffer mode. Packets are kept in a preallocated, bounded queue which is
+     * drained by a dedicated worker, so callers of {@link #processPacket()} no longer process packets
+     * on their own thread. Packets that were already queued are carried over as far as they fit.
+     *
+     * @param <S>            The generic type of Pipeline requested by the user.
+     * @param capacity       The maximum number of packets waiting in the Pipeline.
+     * @param overflowPolicy What to do with a packet that arrives when the queue is full.
+     * @return The Pipeline itself.
+     */
+    @SuppressWarnings("unchecked")
+    public <S extends AbstractPipeline<P>> S setRingBuffer(final int capacity, final OverflowPolicy overflowPolicy) {
+        AbstractPipeline.LOG.info("Pipeline %s switches to a ring buffer of %d packets (%s).",
+                this.getName(),
+                capacity,
+                overflowPolicy);
+        this.setQueue(new RingBufferPacketQueue<>(capacity, overflowPolicy));
+        return this.startWorker();
+    }
 
+    /**
+     * Replaces the queue of the Pipeline. Packets that were already queued are moved to the new queue.
+     *
+     * @param newQueue The new queue.
+     */
+    protected void setQueue(final PacketQueue<P> newQueue) {
+        // nobody takes packets from the old queue while it is being replaced
+        this.processLock.lock();
+        try {
+            final PacketQueue<P> oldQueue = this.queue;
+            this.queue = newQueue;
+            this.transfer(oldQueue);
+        } finally {
+            this.processLock.unlock();
+        }
+    }
+
+    /**
+     * Moves the packets waiting in a queue which is no longer used to the current queue.
+     *
+     * @param oldQueue The queue which was replaced.
+     */
+    private void transfer(final PacketQueue<P> oldQueue) {
+        QueuedPacket<P> queuedPacket;
+        while ((queuedPacket = oldQueue.poll()) != null) {
+            if (!this.queue.offer(queuedPacket.getPacket(), queuedPacket.getEnqueueTime()))
+                queuedPacket.getPacket().release();
+        }
+    }
+
+    /**
+     * Gets the queue of the Pipeline.
+     *
+     * @return The queue of the Pipeline.
+     */
+    protected PacketQueue<P> getQueue() {
+        return this.queue;
+    }
+
+    /**
+     * Starts a worker which drains the queue of this Pipeline on its own thread.
+     *
+     * @param <S> The generic type of Pipeline requested by the user.
+     * @return The Pipeline itself.
+     */
+    @SuppressWarnings("unchecked")
+    public <S extends AbstractPipeline<P>> S startWorker() {
+        final int generation;
+        synchronized (this.workerGeneration) {
+            if (this.workerRunning)
+                return (S) this;
+
+            this.workerRunning = true;
+            generation = this.workerGeneration.incrementAndGet();
+        }
+
+        Services.submitTask(this.getName() + "-worker", () -> {
+            AbstractPipeline.LOG.info("Worker of pipeline %s started.", this.getName());
+            while (this.isCurrentWorker(generation)) {
+                try {
+                    // a previous worker finishes its packet before this one takes over
+                    this.processLock.lockInterruptibly();
+                    try {
+                        if (!this.isCurrentWorker(generation))
+                            break;
+
+                        final QueuedPacket<P> queuedPacket = this.queue.poll(WORKER_POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+                        if (queuedPacket != null)
+                            this.processPolled(this.dequeue(queuedPacket));
+                    } finally {
+                        this.processLock.unlock();
+                    }
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    this.stopWorker(generation);
+                } catch (Exception exception) {
+                    // a failing packet should not take the worker down
+                    AbstractPipeline.LOG.exception(exception);
+                }
+            }
+            AbstractPipeline.LOG.info("Worker of pipeline %s stopped.", this.getName());
+        });
         return (S) this;
     }
 
+    /**
+     * Checks whether the worker of the supplied generation is the one which should be draining the queue.
+     *
+     * @param generation The generation of the worker.
+     * @return true, if the worker should keep running.
+     */
+    private boolean isCurrentWorker(final int generation) {
+        return this.workerRunning && this.workerGeneration.get() == generation;
+    }
+
+    /**
+     * Stops the worker of the supplied generation, unless another worker has been started since.
+     *
+     * @param generation The generation of the worker.
+     */
+    private void stopWorker(final int generation) {
+        synchronized (this.workerGeneration) {
+            if (this.workerGeneration.get() == generation) {
+                this.workerRunning = false;
+                this.workerGeneration.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Records the time the supplied packet spent waiting in a queue of this Pipeline.
+     *
+     * @param queuedPacket The packet taken from the queue.
+     * @return The packet itself.
+     */
+    protected P dequeue(final QueuedPacket<P> queuedPacket) {
+        this.queueMetrics.record(queuedPacket.getEnqueueTime());
+        return queuedPacket.getPacket();
+    }
+
+    /**
+     * Processes a packet taken from the queue, together with the rest of its batch if batching is enabled.
+     *
+     * @param pipelinePacket The packet taken from the queue.
+     */
+    private void processPolled(final P pipelinePacket) {
+        if (this.batchSize > 1)
+            this.processBatch(pipelinePacket, this.batchSize, this.batchDelay);
+        else
+            this.process(pipelinePacket);
+    }
+
+    /**
+     * Hands a packet produced by a translator of another Pipeline off to this Pipeline. The packet is processed
+     * by the worker of this Pipeline, or by a task on the Services threadpool if there's no worker, so the
+     * calling Pipeline never waits for this Pipeline to process it.
+     *
+     * @param pipelinePacket The packet to be handed off.
+     */
+    public void handOff(final P pipelinePacket) {
+        this.addPacket(pipelinePacket);
+        if (!this.hasWorker())
+            this.scheduleDrain();
+    }
+
+    /**
+     * Schedules a task draining the queue, unless one is already scheduled.
+     */
+    private void scheduleDrain() {
+        if (this.draining.compareAndSet(false, true))
+            Services.submitTask(this.getName() + "-drain", this::drain);
+    }
+
+    /**
+     * Processes queued packets until the queue is empty or a worker takes over.
+     */
+    private void drain() {
+        try {
+            this.processBatch(this.batchSize, this.batchDelay);
+        } finally {
+            this.draining.set(false);
+        }
+
+        // a packet may have been handed off after the last poll, unless someone else is processing it already
+        if (!this.hasWorker() && this.getQueueSize() > 0 && !this.isProcessing())
+            this.scheduleDrain();
+    }
+
+    /**
+     * Checks whether a thread is taking packets from the queue of this Pipeline and processing them.
+     *
+     * @return true, if the queue is being processed.
+     */
+    protected boolean isProcessing() {
+        return this.processLock.isLocked();
+    }
+
+    /**
+     * Processes queued packets until the queue is empty. Every way of processing packets without a worker
+     * goes through here: only one thread at a time takes packets from the queue, and a thread which finds
+     * another thread processing leaves its packets to that thread, which looks at the queue again before
+     * it stops. The packets of this Pipeline are therefore processed one at a time and in order.
+     *
+     * @param maxPackets The maximum number of packets in a batch, 1 processes the packets one by one.
+     * @param maxDelay   The maximum time (in us) to wait for a batch to fill up.
+     * @return false if there were no packets to process or a packet failed, true otherwise
+     */
+    private boolean processQueued(final int maxPackets, final long maxDelay) {
+        boolean processed = false;
+        boolean success = true;
+        do {
+            // the worker or another thread takes care of the queue
+            if (this.workerRunning || !this.processLock.tryLock())
+                return true;
+
+            try {
+                QueuedPacket<P> queuedPacket;
+                while (!this.workerRunning && (queuedPacket = this.queue.poll()) != null) {
+                    final P pipelinePacket = this.dequeue(queuedPacket);
+                    processed = true;
+                    try {
+                        success &= maxPackets > 1
+                                ? this.processBatch(pipelinePacket, maxPackets, maxDelay)
+                                : this.process(pipelinePacket);
+                    } catch (Exception exception) {
+                        // a failing packet should not stop the other packets
+                        AbstractPipeline.LOG.exception(exception);
+                        success = false;
+                    }
+                }
+            } finally {
+                this.processLock.unlock();
+            }
+            // a packet may have been added by a thread which found the lock taken
+        } while (!this.workerRunning && this.queue.size() > 0);
+
+        return processed && success;
+    }
+
+    /**
+     * Lets the worker of this Pipeline process packets in batches, see {@link #processBatch(int, long)}.
+     * A batch size of 1 disables batching.
+     *
+     * @param <S>        The generic type of Pipeline requested by the user.
+     * @param maxPackets The maximum number of packets in a batch.
+     * @param maxDelay   The maximum time (in us) to wait for a batch to fill up.
+     * @return The Pipeline itself.
+     */
+    @SuppressWarnings("unchecked")
+    public <S extends AbstractPipeline<P>> S setBatching(final int maxPackets, final long maxDelay) {
+        this.batchSize = Math.max(1, maxPackets);
+        this.batchDelay = Math.max(0, maxDelay);
+        return (S) this;
+    }
+
+    /**
+     * Stops the worker of this Pipeline. The worker finishes the packet it is processing, and a worker started
+     * afterwards waits for that. Packets that are still queued stay in the queue and can be processed with
+     * {@link #processPacket()}.
+     *
+     * @param <S> The generic type of Pipeline requested by the user.
+     * @return The Pipeline itself.
+     */
+    @SuppressWarnings("unchecked")
+    public <S extends AbstractPipeline<P>> S stopWorker() {
+        this.stopWorker(this.workerGeneration.get());
+        return (S) this;
+    }
+
+    /**
+     * Checks whether a worker is draining the queue of this Pipeline.
+     *
+     * @return true, if a worker is running.
+     */
+    public boolean hasWorker() {
+        return this.workerRunning;
+    }
+
+    /**
+     * Gets the number of packets waiting in the queue.
+     *
+     * @return The number of queued packets.
+     */
+    public int getQueueSize() {
+        return this.queue.size();
+    }
+
+    /**
+     * Gets the metrics of the time packets spend waiting in the queue.
+     *
+     * @return The queue metrics.
+     */
+    public StageMetrics getQueueMetrics() {
+        return this.queueMetrics;
+    }
+
+    /**
+     * Gets the metrics of the time packets spend in the routes, translators and consumers.
+     *
+     * @return The processing metrics.
+     */
+    public StageMetrics getProcessingMetrics() {
+        return this.processingMetrics;
+    }
+
+    /**
+     * Gets the metrics of the time between a translator handing a packet off to this Pipeline and this
+     * Pipeline processing it, translation included.
+     *
+     * @return The hand-off metrics.
+     */
+    public StageMetrics getHandOffMetrics() {
+        return this.handOffMetrics;
+    }
+
+    /**
+     * Gets the number of packets dropped because the queue was full.
+     *
+     * @return The number of dropped packets.
+     */
+    public long getDroppedPackets() {
+        return this.queue.getDroppedPackets();
+    }
+
     /**
      * Gets the type of PipelinePackets this Pipeline operates on.
      *
      * @return The type of packets this Pipeline operates on.
      */
     public Type getType() {
-        return this.genericType.getType();
+        return this.packetType.getType();
     }
 
     /**
-     * Processes the packet sitting at the head of queue.
+     * Gets the raw Class of {@link AbstractPipelinePacket} carried by this Pipeline.
+     *
+     * @return The Class of packet carried by this Pipeline.
+     */
+    public Class<?> getPacketClass() {
+        return this.packetClass;
+    }
+
+    /**
+     * Processes the packets waiting in the queue. When a worker is draining the queue, or another thread is
+     * processing packets of this Pipeline, the packets are left to them and this method returns immediately.
      *
      * @return true, if successful
      */
-    @SuppressWarnings("unchecked")
     public boolean processPacket() {
-        // check to see if there's a packet available
-        if (this.queue.peek() == null) {
-            return false;
-        }
+        return this.processQueued(1, 0);
+    }
 
+    /**
+     * Processes the supplied packet by running it through the routes, the translators and the consumers.
+     *
+     * @param pipelinePacket The packet to be processed.
+     * @return true, if successful
+     */
+    protected boolean process(final P pipelinePacket) {
         AbstractPipeline.LOG.fine("Starting to process packet on pipeline %s", this.getName());
+        final long start = System.nanoTime();
+        boolean success = false;
+        try {
+            success = this.deliver(this.routePacket(pipelinePacket));
+            return success;
+        } finally {
+            this.processingMetrics.record(start);
+            if (!success)
+                this.processingMetrics.recordFailure();
+            // the Pipeline is done with the packet
+            pipelinePacket.release();
+        }
+    }
 
-        // get the packet
-        final P pipelinePacket = this.queue.poll();
+    /**
+     * Processes the queued packets in batches of up to the given number of packets. The packets are run through
+     * the routes and translators one by one, after which {@link org.ssh.services.BatchConsumer}s receive all results at once
+     * and regular Consumers receive them one by one. When a worker is draining the queue, or another thread is
+     * processing packets of this Pipeline, the packets are left to them and this method returns immediately.
+     *
+     * @param maxPackets The maximum number of packets in a batch.
+     * @param maxDelay   The maximum time (in us) to wait for a batch to fill up.
+     * @return true, if successful
+     */
+    public boolean processBatch(final int maxPackets, final long maxDelay) {
+        return this.processQueued(Math.max(1, maxPackets), Math.max(0, maxDelay));
+    }
 
-        // get the results
-        List<P> resultPackets = (List<P>) this.routes.stream().parallel()
-                .map(route -> route.apply(pipelinePacket))
-                .collect(Collectors.toList());
+    /**
+     * Processes the supplied packet and up to maxPackets - 1 queued packets as a single batch.
+     *
+     * @param firstPacket The first packet of the batch.
+     * @param maxPackets  The maximum number of packets in the batch.
+     * @param maxDelay    The maximum time (in us) to wait for the batch to fill up.
+     * @return true, if successful
+     */
+    private boolean processBatch(final P firstPacket, final int maxPackets, final long maxDelay) {
+        final long start = System.nanoTime();
+        final long deadline = start + TimeUnit.MICROSECONDS.toNanos(maxDelay);
+        final List<P> batchPackets = new ArrayList<>(Collections.singletonList(firstPacket));
+        final List<P> resultPackets = new ArrayList<>(this.routePacket(firstPacket));
+
+        // fill up the batch
+        for (int count = 1; count < maxPackets; count++) {
+            final long remaining = deadline - System.nanoTime();
+            final QueuedPacket<P> queuedPacket;
+            try {
+                queuedPacket = remaining > 0
+                        ? this.queue.poll(remaining, TimeUnit.NANOSECONDS)
+                        : this.queue.poll();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
+            if (queuedPacket == null)
+                break;
+            final P pipelinePacket = this.dequeue(queuedPacket);
+            batchPackets.add(pipelinePacket);
+            resultPackets.addAll(this.routePacket(pipelinePacket));
+        }
+
+        AbstractPipeline.LOG.fine("Processing a batch of %d packets on pipeline %s", resultPackets.size(), this.getName());
+        boolean success = false;
+        try {
+            success = this.deliver(resultPackets);
+            return success;
+        } finally {
+            this.processingMetrics.record(start, batchPackets.size());
+            if (!success)
+                this.processingMetrics.recordFailure();
+            // the Pipeline is done with the packets
+            batchPackets.forEach(AbstractPipelinePacket::release);
+        }
+    }
+
+    /**
+     * Runs the supplied packet through the routes and hands the results to the compatible translators.
+     *
+     * @param pipelinePacket The packet to be routed.
+     * @return The packets resulting from the routes.
+     */
+    @SuppressWarnings("unchecked")
+    private List<P> routePacket(final P pipelinePacket) {
+        if (pipelinePacket.getHandOffTime() != 0) {
+            this.handOffMetrics.record(pipelinePacket.getHandOffTime());
+            pipelinePacket.setHandOffTime(0);
+        }
 
         // if there were no couplers then the result is the original packet
-        final List<P> resultant = resultPackets.isEmpty() ? Collections.singletonList(pipelinePacket) : resultPackets;
+        final List<P> resultant = this.filterDeliverable(this.route.isEmpty()
+                ? Collections.singletonList(pipelinePacket)
+                : (List<P>) this.route.apply(pipelinePacket));
 
         // map the packet onto the compatible translators
-        Pipelines.getCompatibleTranslators(this).forEach(translator -> resultant.forEach(resultPacket ->
-                Pipelines.getOfDataType(translator.getOutputType())
-                        .forEach(pipeline -> pipeline.addPacket(translator.translate(resultPacket)).processPacket())
-        ));
+        for (final DispatchRegistry.TranslatorRoute translatorRoute : Pipelines.getTranslatorRoutes(this.packetClass)) {
+            for (final P resultPacket : resultant) {
+                translatorRoute.dispatch(resultPacket);
+            }
+        }
 
-        // map the results on the consumers
-        return resultant.stream().parallel().map(resultPacket -> this.consumers.stream()
-                .map(consumer -> consumer.consume((P) resultPacket)).collect(Collectors.toList()))
-                .flatMap(Collection::stream)
-                // return true if everything succeeded, false otherwise
-                .reduce(true, (accumulator, success) -> accumulator && success);
+        return resultant;
+    }
 
+    /**
+     * Removes the packets which should no longer be delivered from the supplied list. The list itself is
+     * returned when every packet is deliverable.
+     *
+     * @param resultPackets The packets resulting from the routes.
+     * @return The packets which are to be delivered.
+     */
+    private List<P> filterDeliverable(final List<P> resultPackets) {
+        List<P> deliverable = null;
+        for (int index = 0; index < resultPackets.size(); index++) {
+            final P resultPacket = resultPackets.get(index);
+            if (this.isDeliverable(resultPacket)) {
+                if (deliverable != null)
+                    deliverable.add(resultPacket);
+            } else if (deliverable == null) {
+                // only copy the list once a packet is left out
+                deliverable = new ArrayList<>(resultPackets.subList(0, index));
+            }
+        }
+        return deliverable == null ? resultPackets : deliverable;
+    }
+
+    /**
+     * Checks whether a packet which made it through the routes should still be handed to the translators
+     * and consumers. Every packet is deliverable by default.
+     *
+     * @param pipelinePacket The packet resulting from the routes.
+     * @return true, if the packet is to be delivered.
+     */
+    protected boolean isDeliverable(final P pipelinePacket) {
+        return true;
+    }
+
+    /**
+     * Hands the supplied packets to the registered consumers.
+     *
+     * @param resultPackets The packets to be consumed.
+     * @return true if every consumer succeeded, false otherwise
+     */
+    private boolean deliver(final List<P> resultPackets) {
+        boolean success = true;
+        for (final AbstractConsumer<P> consumer : this.consumers) {
+            success &= this.consume(consumer, resultPackets);
+        }
+        // the other consumers get their packets through their lanes
+        for (final ConsumerLane<P> lane : this.lanes) {
+            success &= lane.offer(resultPackets);
+        }
+        return success;
+    }
+
+    /**
+     * Hands the supplied packets to a Consumer which is registered inline.
+     *
+     * @param consumer      The Consumer.
+     * @param resultPackets The packets to be consumed.
+     * @return true if the Consumer succeeded, false otherwise
+     */
+    protected boolean consume(final AbstractConsumer<P> consumer, final List<P> resultPackets) {
+        return consumer.consumePackets(resultPackets);
     }
 
     /**
@@ -154,6 +762,87 @@ public abstract class AbstractPipeline<P extends AbstractPipelinePacket<?>> exte
         return (S) this;
     }
 
+    /**
+     * Registers a {@link AbstractConsumer} with the Pipeline, which consumes its packets according to the
+     * supplied execution mode. Consumers which don't run inline get a lane holding up to
+     * {@value #DEFAULT_LANE_CAPACITY} batches, dropping the oldest batch when it's full.
+     *
+     * @param <C>           The generic type of Consumer supplied by the user.
+     * @param <S>           The generic type of of Pipeline requested by the user.
+     * @param consumer      The Consumer to be registered with the Pipeline.
+     * @param executionMode The thread on which the Consumer consumes its packets.
+     * @return The Pipeline itself.
+     */
+    public <C extends AbstractConsumer<?>, S extends AbstractPipeline<P>> S registerConsumer(final C consumer,
+                                                                                            final ExecutionMode executionMode) {
+        return this.registerConsumer(consumer, executionMode, DEFAULT_LANE_CAPACITY, OverflowPolicy.DROP_OLDEST);
+    }
+
+    /**
+     * Registers a {@link AbstractConsumer} with the Pipeline, which consumes its packets according to the
+     * supplied execution mode.
+     *
+     * @param <C>            The generic type of Consumer supplied by the user.
+     * @param <S>            The generic type of of Pipeline requested by the user.
+     * @param consumer       The Consumer to be registered with the Pipeline.
+     * @param executionMode  The thread on which the Consumer consumes its packets.
+     * @param capacity       The maximum number of batches waiting in the lane of the Consumer.
+     * @param overflowPolicy What to do with packets which arrive while the lane is full.
+     * @return The Pipeline itself.
+     */
+    @SuppressWarnings("unchecked")
+    public <C extends AbstractConsumer<?>, S extends AbstractPipeline<P>> S registerConsumer(final C consumer,
+                                                                                            final ExecutionMode executionMode,
+                                                                                            final int capacity,
+                                                                                            final OverflowPolicy overflowPolicy) {
+        if (executionMode == ExecutionMode.INLINE)
+            return this.registerConsumer(consumer);
+
+        AbstractPipeline.LOG.fine("Consumer named %s registered to pipeline %s (%s).",
+                consumer.getName(),
+                this.getName(),
+                executionMode);
+        this.lanes.add(new ConsumerLane<>((AbstractConsumer<P>) consumer, executionMode, capacity, overflowPolicy));
+        return (S) this;
+    }
+
+    /**
+     * Gets the lanes of the consumers which don't run inline.
+     *
+     * @return The lanes of the consumers.
+     */
+    public List<ConsumerLane<P>> getLanes() {
+        return Collections.unmodifiableList(this.lanes);
+    }
+
+    /**
+     * Stops and removes the lane(s) of the supplied Consumer. Packets still waiting in the lane are released
+     * without being consumed.
+     *
+     * @param consumer The Consumer.
+     * @return true, if the Consumer had a lane on this Pipeline.
+     */
+    public boolean removeLanes(final AbstractConsumer<?> consumer) {
+        boolean removed = false;
+        for (final ConsumerLane<P> lane : this.lanes) {
+            if (lane.getConsumer() == consumer && this.lanes.remove(lane)) {
+                lane.stop();
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Stops and removes the lanes of all Consumers, for instance when the Pipeline itself is removed.
+     */
+    public void removeLanes() {
+        for (final ConsumerLane<P> lane : this.lanes) {
+            if (this.lanes.remove(lane))
+                lane.stop();
+        }
+    }
+
     /**
      * Register a list of {@link AbstractConsumer} registered with the Pipeline.
      *
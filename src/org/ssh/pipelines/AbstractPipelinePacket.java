@@ -1,13 +1,16 @@
 package org.ssh.pipelines;
 
-import com.google.common.reflect.TypeToken;
 import org.jooq.lambda.Unchecked;
+import org.ssh.util.Clock;
 import org.ssh.util.Logger;
 import org.ssh.util.Reflect;
+import org.ssh.util.TypeRegistry;
+import org.ssh.util.TypeRegistry.TypeParameter;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Type;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -22,16 +25,32 @@ import java.util.stream.Stream;
 public abstract class AbstractPipelinePacket<O> {
 
     /**
-     * The mutability setting.
+     * Atomically updates the reference count of packets.
      */
-    private boolean isMutable;
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<AbstractPipelinePacket> REFERENCES =
+            AtomicIntegerFieldUpdater.newUpdater(AbstractPipelinePacket.class, "references");
 
     /**
-     * The reflected TypeToken (o¬‿¬o ).
+     * The mutability setting. A mutable packet is owned by whoever is processing it, so it
+     * may be changed in place instead of being copied.
      */
-    @SuppressWarnings("serial")
-    public TypeToken<O> genericType = new TypeToken<O>(this.getClass()) {
-    };
+    private volatile boolean isMutable;
+
+    /**
+     * The pool this packet returns to once it is released, or null if the packet isn't pooled.
+     */
+    private PacketPool<?> pool;
+
+    /**
+     * The number of holders of this packet. Only used for pooled packets.
+     */
+    private volatile int references = 1;
+
+    /**
+     * The type of data held by PipelinePackets, resolved once per class of packet.
+     */
+    private static final TypeParameter DATA_TYPE = TypeRegistry.parameter(AbstractPipelinePacket.class, 0);
 
     // a logger for good measure
     protected static final Logger LOG = Logger.getLogger();
@@ -41,6 +60,17 @@ public abstract class AbstractPipelinePacket<O> {
      */
     private O data;
 
+    /**
+     * The moment (as returned by {@link System#nanoTime()}) at which the packet was handed off by a
+     * translator, or 0 if it wasn't.
+     */
+    private long handOffTime;
+
+    /**
+     * The moment (as returned by {@link Clock#nanoTime()}) at which the packet was first added to a
+     * {@link AbstractPipeline}, or 0 if it wasn't.
+     */
+    private volatile long receiveTime;
 
     /**
      * Gets the type of {@link AbstractPipelinePacket} on which this Service operates.
@@ -48,7 +78,7 @@ public abstract class AbstractPipelinePacket<O> {
      * @return The type of PipelinePacket on which this Service operates.
      */
     public Type getType() {
-        return this.genericType.getType();
+        return AbstractPipelinePacket.DATA_TYPE.of(this.getClass()).getType();
     }
 
     /**
@@ -101,6 +131,43 @@ public abstract class AbstractPipelinePacket<O> {
         return this;
     }
 
+    /**
+     * Gets the moment at which the packet was handed off to a {@link AbstractPipeline} by a translator.
+     *
+     * @return The moment as returned by {@link System#nanoTime()}, or 0 if the packet wasn't handed off.
+     */
+    public long getHandOffTime() {
+        return this.handOffTime;
+    }
+
+    /**
+     * Sets the moment at which the packet was handed off to a {@link AbstractPipeline} by a translator.
+     *
+     * @param handOffTime The moment as returned by {@link System#nanoTime()}, or 0 to clear it.
+     */
+    public void setHandOffTime(final long handOffTime) {
+        this.handOffTime = handOffTime;
+    }
+
+    /**
+     * Gets the moment at which the packet was first added to a {@link AbstractPipeline}. Unlike the moment at
+     * which it is consumed, this moment stays the same when the packet is delivered in a batch.
+     *
+     * @return The moment as returned by {@link Clock#nanoTime()}, or 0 if the packet wasn't added to a Pipeline.
+     */
+    public long getReceiveTime() {
+        return this.receiveTime;
+    }
+
+    /**
+     * Sets the moment at which the packet was received to the current time of the {@link Clock}, unless the
+     * packet was already added to another {@link AbstractPipeline}.
+     */
+    public void stampReceiveTime() {
+        if (this.receiveTime == 0)
+            this.receiveTime = Clock.nanoTime();
+    }
+
     /**
      * Sets the mutability of the packet.
      *
@@ -110,6 +177,68 @@ public abstract class AbstractPipelinePacket<O> {
         this.isMutable = mutability;
     }
 
+    /**
+     * Adds a reference to the packet. A holder which keeps a pooled packet around after handing it off
+     * needs to retain it, and release it once it's done.
+     *
+     * @return The PipelinePacket itself.
+     */
+    public AbstractPipelinePacket<O> retain() {
+        REFERENCES.incrementAndGet(this);
+        return this;
+    }
+
+    /**
+     * Removes a reference from the packet. When the last reference to a pooled packet is released the packet
+     * is returned to its pool, after which it must no longer be used. Releasing a packet which isn't pooled
+     * has no effect.
+     *
+     * @return true, if the packet was returned to its pool.
+     */
+    public boolean release() {
+        if (this.pool == null || REFERENCES.decrementAndGet(this) != 0) {
+            return false;
+        }
+
+        this.pool.recycle(this);
+        return true;
+    }
+
+    /**
+     * Checks whether the packet came from a {@link PacketPool}.
+     *
+     * @return true, if the packet is pooled.
+     */
+    public boolean isPooled() {
+        return this.pool != null;
+    }
+
+    /**
+     * Sets the pool to which the packet returns once it is released.
+     *
+     * @param pool The pool.
+     */
+    void setPool(final PacketPool<?> pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Resets the reference count to a single reference.
+     */
+    void resetReferences() {
+        REFERENCES.set(this, 1);
+    }
+
+    /**
+     * Clears the packet before it is returned to its pool.
+     */
+    protected void reset() {
+        this.data = null;
+        this.isMutable = false;
+        this.handOffTime = 0;
+        this.receiveTime = 0;
+    }
+
     /**
      * Saves the data in the packet as a Map<String, O extends Object>.
      *
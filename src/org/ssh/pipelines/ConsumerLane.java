@@ -0,0 +1,314 @@
+package org.ssh.pipelines;
+
+import org.ssh.managers.manager.Services;
+import org.ssh.models.enums.ExecutionMode;
+import org.ssh.models.enums.OverflowPolicy;
+import org.ssh.services.AbstractConsumer;
+import org.ssh.util.Logger;
+import org.ssh.util.StageMetrics;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The Class ConsumerLane.
+ * <p>
+ * A ConsumerLane decouples a single {@link AbstractConsumer} from the {@link AbstractPipeline} it is registered with.
+ * The Pipeline hands its results to the lane's bounded queue and moves on, while the consumer works through the
+ * queue on a thread of its own ({@link ExecutionMode#DEDICATED}) or on the shared thread pool
+ * ({@link ExecutionMode#SHARED}). Either way the consumer receives the packets one batch at a time, in the order
+ * in which the Pipeline produced them.
+ *
+ * @param <P> The type of PipelinePacket consumed through the lane.
+ * @author agent
+ */
+public class ConsumerLane<P extends AbstractPipelinePacket<?>> {
+
+    /**
+     * How long (in ms) a dedicated lane waits for packets before checking whether it should stop.
+     */
+    private static final long POLL_TIMEOUT = 100;
+
+    /**
+     * The consumer at the end of the lane.
+     */
+    private final AbstractConsumer<P> consumer;
+
+    /**
+     * Whether the lane has a thread of its own or uses the shared thread pool.
+     */
+    private final ExecutionMode executionMode;
+
+    /**
+     * What to do with packets which arrive while the lane is full.
+     */
+    private final OverflowPolicy overflowPolicy;
+
+    /**
+     * The packets waiting for the consumer.
+     */
+    private final BlockingQueue<LaneItem<P>> queue;
+
+    /**
+     * The time packets spend waiting in the lane.
+     */
+    private final StageMetrics lagMetrics;
+
+    /**
+     * The number of packets dropped because the lane was full.
+     */
+    private final AtomicLong droppedPackets = new AtomicLong();
+
+    /**
+     * Whether a task in the shared thread pool is draining the lane.
+     */
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+
+    /**
+     * Whether the lane accepts packets.
+     */
+    private volatile boolean running = true;
+
+    // a logger for good measure
+    private static final Logger LOG = Logger.getLogger();
+
+    /**
+     * Instantiates a new ConsumerLane.
+     *
+     * @param consumer       The consumer at the end of the lane.
+     * @param executionMode  Either {@link ExecutionMode#DEDICATED} or {@link ExecutionMode#SHARED}.
+     * @param capacity       The maximum number of batches waiting in the lane.
+     * @param overflowPolicy What to do with packets which arrive while the lane is full.
+     */
+    public ConsumerLane(final AbstractConsumer<P> consumer,
+                        final ExecutionMode executionMode,
+                        final int capacity,
+                        final OverflowPolicy overflowPolicy) {
+        if (executionMode == ExecutionMode.INLINE) {
+            throw new IllegalArgumentException("An inline consumer doesn't need a lane.");
+        }
+
+        this.consumer = consumer;
+        this.executionMode = executionMode;
+        this.overflowPolicy = overflowPolicy;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.lagMetrics = new StageMetrics(consumer.getName() + " (lane)");
+
+        if (executionMode == ExecutionMode.DEDICATED) {
+            Services.submitTask(consumer.getName() + "-lane", this::runDedicated);
+        }
+    }
+
+    /**
+     * Hands a batch of packets to the lane. Every packet is retained until the consumer is done with it.
+     *
+     * @param pipelinePackets The packets for the consumer.
+     * @return true if the packets were accepted, false if they were dropped.
+     */
+    public boolean offer(final List<P> pipelinePackets) {
+        if (!this.running || pipelinePackets.isEmpty()) {
+            return false;
+        }
+
+        pipelinePackets.forEach(AbstractPipelinePacket::retain);
+        final LaneItem<P> laneItem = new LaneItem<>(pipelinePackets, System.nanoTime());
+
+        if (!this.enqueue(laneItem)) {
+            this.droppedPackets.addAndGet(pipelinePackets.size());
+            laneItem.release();
+            return false;
+        }
+
+        if (this.executionMode == ExecutionMode.SHARED) {
+            this.scheduleDrain();
+        }
+        return true;
+    }
+
+    /**
+     * Puts the item in the queue according to the overflow policy.
+     *
+     * @param laneItem The item.
+     * @return true if the item was queued.
+     */
+    private boolean enqueue(final LaneItem<P> laneItem) {
+        switch (this.overflowPolicy) {
+            case DROP_OLDEST:
+                while (!this.queue.offer(laneItem)) {
+                    final LaneItem<P> evictedItem = this.queue.poll();
+                    if (evictedItem != null) {
+                        this.droppedPackets.addAndGet(evictedItem.pipelinePackets.size());
+                        evictedItem.release();
+                    }
+                }
+                return true;
+            case BLOCK:
+                try {
+                    this.queue.put(laneItem);
+                    return true;
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            case DROP_NEWEST:
+            default:
+                return this.queue.offer(laneItem);
+        }
+    }
+
+    /**
+     * Submits a drain task to the shared thread pool, unless one is already running.
+     */
+    private void scheduleDrain() {
+        if (this.draining.compareAndSet(false, true)) {
+            Services.submitTask(this.consumer.getName() + "-lane", this::drain);
+        }
+    }
+
+    /**
+     * Works through the queue until it's empty. Only one drain task runs at a time, which keeps
+     * the packets in order.
+     */
+    private void drain() {
+        do {
+            LaneItem<P> laneItem;
+            while ((laneItem = this.queue.poll()) != null) {
+                this.consume(laneItem);
+            }
+            this.draining.set(false);
+            // packets may have arrived after the queue was found empty
+        } while (!this.queue.isEmpty() && this.draining.compareAndSet(false, true));
+    }
+
+    /**
+     * Works through the queue on a dedicated thread until the lane is stopped.
+     */
+    private void runDedicated() {
+        LOG.info("Lane of consumer %s started.", this.consumer.getName());
+        while (this.running) {
+            try {
+                final LaneItem<P> laneItem = this.queue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+                if (laneItem != null)
+                    this.consume(laneItem);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                this.running = false;
+            }
+        }
+        LOG.info("Lane of consumer %s stopped.", this.consumer.getName());
+    }
+
+    /**
+     * Hands an item to the consumer and releases its packets afterwards.
+     *
+     * @param laneItem The item.
+     */
+    private void consume(final LaneItem<P> laneItem) {
+        this.lagMetrics.record(laneItem.enqueueTime, laneItem.pipelinePackets.size());
+        try {
+            this.consumer.consumePackets(laneItem.pipelinePackets);
+        } catch (Exception exception) {
+            // a failing consumer should not take the lane down
+            LOG.exception(exception);
+        } finally {
+            laneItem.release();
+        }
+    }
+
+    /**
+     * Stops the lane. Packets still in the lane are released without being consumed. Lanes are stopped
+     * when their consumer or their pipeline is removed, see {@link AbstractPipeline#removeLanes(AbstractConsumer)}.
+     */
+    public void stop() {
+        this.running = false;
+        LaneItem<P> laneItem;
+        while ((laneItem = this.queue.poll()) != null) {
+            laneItem.release();
+        }
+    }
+
+    /**
+     * Gets the consumer at the end of the lane.
+     *
+     * @return The consumer.
+     */
+    public AbstractConsumer<P> getConsumer() {
+        return this.consumer;
+    }
+
+    /**
+     * Gets the execution mode of the lane.
+     *
+     * @return The execution mode.
+     */
+    public ExecutionMode getExecutionMode() {
+        return this.executionMode;
+    }
+
+    /**
+     * Gets the metrics of the time packets spend waiting in the lane.
+     *
+     * @return The lag metrics.
+     */
+    public StageMetrics getLagMetrics() {
+        return this.lagMetrics;
+    }
+
+    /**
+     * Gets the number of batches waiting in the lane.
+     *
+     * @return The number of waiting batches.
+     */
+    public int getQueueSize() {
+        return this.queue.size();
+    }
+
+    /**
+     * Gets the number of packets dropped because the lane was full.
+     *
+     * @return The number of dropped packets.
+     */
+    public long getDroppedPackets() {
+        return this.droppedPackets.get();
+    }
+
+    /**
+     * A batch of packets waiting in the lane.
+     *
+     * @param <P> The type of PipelinePacket.
+     */
+    private static class LaneItem<P extends AbstractPipelinePacket<?>> {
+
+        /**
+         * The packets.
+         */
+        private final List<P> pipelinePackets;
+
+        /**
+         * The moment the packets entered the lane, as returned by {@link System#nanoTime()}.
+         */
+        private final long enqueueTime;
+
+        /**
+         * Instantiates a new LaneItem.
+         *
+         * @param pipelinePackets The packets.
+         * @param enqueueTime     The moment the packets entered the lane.
+         */
+        private LaneItem(final List<P> pipelinePackets, final long enqueueTime) {
+            this.pipelinePackets = pipelinePackets;
+            this.enqueueTime = enqueueTime;
+        }
+
+        /**
+         * Releases the packets.
+         */
+        private void release() {
+            this.pipelinePackets.forEach(AbstractPipelinePacket::release);
+        }
+    }
+}
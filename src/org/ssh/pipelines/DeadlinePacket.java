@@ -0,0 +1,54 @@
+package org.ssh.pipelines;
+
+import org.ssh.util.Clock;
+
+/**
+ * The Interface DeadlinePacket.
+ * <p>
+ * A DeadlinePacket is a {@link AbstractPipelinePacket} which is only useful up to a certain moment, such as a
+ * command for a robot which is outdated once the next vision frame arrives. All moments are expressed as
+ * returned by {@link Clock#nanoTime()}, so commands expire on the same timeline as the rest of the system
+ * when time is scaled or replayed.
+ *
+ * @author agent
+ */
+public interface DeadlinePacket {
+
+    /**
+     * The deadline of a packet which never expires.
+     */
+    long NO_DEADLINE = Long.MAX_VALUE;
+
+    /**
+     * Gets the moment at which the packet was created.
+     *
+     * @return The moment at which the packet was created.
+     */
+    long getCreationTime();
+
+    /**
+     * Gets the moment after which the packet is no longer useful, or {@link #NO_DEADLINE} if it never expires.
+     *
+     * @return The deadline of the packet.
+     */
+    long getDeadline();
+
+    /**
+     * Checks whether the packet has a deadline.
+     *
+     * @return true, if the packet has a deadline.
+     */
+    default boolean hasDeadline() {
+        return this.getDeadline() != NO_DEADLINE;
+    }
+
+    /**
+     * Checks whether the deadline of the packet has passed at the supplied moment.
+     *
+     * @param now The moment, as returned by {@link Clock#nanoTime()}.
+     * @return true, if the packet has expired.
+     */
+    default boolean isExpired(final long now) {
+        return this.hasDeadline() && now - this.getDeadline() > 0;
+    }
+}
@@ -0,0 +1,263 @@
+package org.ssh.pipelines;
+
+import org.ssh.services.AbstractTranslator;
+import org.ssh.util.Logger;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * The Class DispatchRegistry.
+ * <p>
+ * The DispatchRegistry keeps track of which {@link AbstractPipeline}s and {@link AbstractTranslator}s handle which
+ * type of {@link AbstractPipelinePacket}. The tables are keyed by the raw Class of the packet and are updated
+ * whenever a Pipeline or Translator is created or deleted, so looking up where a packet needs to go costs
+ * a single map lookup instead of a scan over all Services and Pipelines.
+ *
+ * @author agent
+ */
+public class DispatchRegistry {
+
+    /**
+     * The result of a lookup without matches.
+     */
+    private static final AbstractPipeline<?>[] NO_PIPELINES = new AbstractPipeline<?>[0];
+
+    /**
+     * The result of a lookup without matches.
+     */
+    private static final TranslatorRoute[] NO_ROUTES = new TranslatorRoute[0];
+
+    /**
+     * The Pipelines by the Class of packet they carry.
+     */
+    private final Map<Class<?>, AbstractPipeline<?>[]> pipelines = new ConcurrentHashMap<>();
+
+    /**
+     * The Translators by the Class(es) of packet they accept.
+     */
+    private final Map<Class<?>, AbstractTranslator<?, ?>[]> translators = new ConcurrentHashMap<>();
+
+    /**
+     * The Translators together with the Pipelines they feed, by the Class of packet they accept.
+     */
+    private final Map<Class<?>, TranslatorRoute[]> translatorRoutes = new ConcurrentHashMap<>();
+
+    // a logger for good measure
+    private static final Logger LOG = Logger.getLogger();
+
+    /**
+     * Gets the Pipelines which carry packets of the supplied Class.
+     *
+     * @param packetClass The Class of the packet.
+     * @return The Pipelines carrying the packet.
+     */
+    public AbstractPipeline<?>[] getPipelines(final Class<?> packetClass) {
+        return this.pipelines.getOrDefault(packetClass, NO_PIPELINES);
+    }
+
+    /**
+     * Gets the Translators (and the Pipelines they feed) which accept packets of the supplied Class.
+     *
+     * @param packetClass The Class of the packet.
+     * @return The routes through the Translators accepting the packet.
+     */
+    public TranslatorRoute[] getTranslatorRoutes(final Class<?> packetClass) {
+        return this.translatorRoutes.getOrDefault(packetClass, NO_ROUTES);
+    }
+
+    /**
+     * Adds a Pipeline to the registry.
+     *
+     * @param pipeline The Pipeline to be added.
+     */
+    public synchronized void addPipeline(final AbstractPipeline<?> pipeline) {
+        final Class<?> packetClass = pipeline.getPacketClass();
+        final AbstractPipeline<?>[] current = this.getPipelines(packetClass);
+        if (Arrays.asList(current).contains(pipeline)) return;
+
+        this.pipelines.put(packetClass, DispatchRegistry.append(current, pipeline));
+        DispatchRegistry.LOG.fine("Pipeline %s registered for %s", pipeline.getName(), packetClass.getSimpleName());
+        this.rebuildTranslatorRoutes();
+    }
+
+    /**
+     * Removes a Pipeline from the registry.
+     *
+     * @param pipeline The Pipeline to be removed.
+     */
+    public synchronized void removePipeline(final AbstractPipeline<?> pipeline) {
+        final Class<?> packetClass = pipeline.getPacketClass();
+        final AbstractPipeline<?>[] remaining = Stream.of(this.getPipelines(packetClass))
+                .filter(candidate -> candidate != pipeline)
+                .toArray(AbstractPipeline<?>[]::new);
+
+        if (remaining.length == 0)
+            this.pipelines.remove(packetClass);
+        else
+            this.pipelines.put(packetClass, remaining);
+        this.rebuildTranslatorRoutes();
+    }
+
+    /**
+     * Adds a Translator to the registry. The Translator is registered for its input type and every supertype
+     * thereof. A Translator which would (indirectly) translate its own output back into its input is rejected,
+     * since packets would then circulate between the Pipelines forever.
+     *
+     * @param translator The Translator to be added.
+     * @return true, if the Translator was added.
+     */
+    public synchronized boolean addTranslator(final AbstractTranslator<?, ?> translator) {
+        if (this.closesCycle(translator)) {
+            DispatchRegistry.LOG.warning("Translator %s refused, since it would create a cycle of translators.",
+                    translator.getName());
+            return false;
+        }
+
+        translator.getTypeMetadata().getRawTypes().forEach(inputClass -> {
+            final AbstractTranslator<?, ?>[] current = this.translators.getOrDefault(inputClass, new AbstractTranslator<?, ?>[0]);
+            if (!Arrays.asList(current).contains(translator))
+                this.translators.put(inputClass, DispatchRegistry.append(current, translator));
+        });
+        DispatchRegistry.LOG.fine("Translator %s registered", translator.getName());
+        this.rebuildTranslatorRoutes();
+        return true;
+    }
+
+    /**
+     * Checks whether the output of the supplied Translator can be translated back into its input by the
+     * Translators already in the registry (or by the Translator itself).
+     *
+     * @param translator The Translator to be added.
+     * @return true, if adding the Translator would create a cycle.
+     */
+    private boolean closesCycle(final AbstractTranslator<?, ?> translator) {
+        final Set<Class<?>> inputClasses = translator.getTypeMetadata().getRawTypes();
+        final Set<Class<?>> visited = new HashSet<>();
+        final Deque<Class<?>> pending = new ArrayDeque<>();
+        pending.push(translator.getOutputClass());
+
+        // walk every type of packet the output of the translator can be translated into
+        while (!pending.isEmpty()) {
+            final Class<?> packetClass = pending.pop();
+            if (inputClasses.contains(packetClass))
+                return true;
+            if (!visited.add(packetClass))
+                continue;
+
+            for (final AbstractTranslator<?, ?> next : this.translators.getOrDefault(packetClass, new AbstractTranslator<?, ?>[0]))
+                pending.push(next.getOutputClass());
+        }
+        return false;
+    }
+
+    /**
+     * Removes a Translator from the registry.
+     *
+     * @param translator The Translator to be removed.
+     */
+    public synchronized void removeTranslator(final AbstractTranslator<?, ?> translator) {
+        this.translators.replaceAll((inputClass, current) -> Stream.of(current)
+                .filter(candidate -> candidate != translator)
+                .toArray(AbstractTranslator<?, ?>[]::new));
+        this.translators.values().removeIf(current -> current.length == 0);
+        this.rebuildTranslatorRoutes();
+    }
+
+    /**
+     * Recalculates which Pipelines every Translator feeds. This only happens when a Pipeline or
+     * Translator is added or removed.
+     */
+    private void rebuildTranslatorRoutes() {
+        this.translators.forEach((inputClass, current) -> this.translatorRoutes.put(inputClass, Stream.of(current)
+                .map(translator -> new TranslatorRoute(translator,
+                        this.getPipelines(translator.getOutputClass())))
+                .toArray(TranslatorRoute[]::new)));
+        this.translatorRoutes.keySet().retainAll(this.translators.keySet());
+    }
+
+    /**
+     * Creates a copy of the supplied array with the element appended.
+     *
+     * @param array   The array.
+     * @param element The element to append.
+     * @param <T>     The type of the elements.
+     * @return The new array.
+     */
+    private static <T> T[] append(final T[] array, final T element) {
+        final T[] result = Arrays.copyOf(array, array.length + 1);
+        result[array.length] = element;
+        return result;
+    }
+
+    /**
+     * The Class TranslatorRoute.
+     * <p>
+     * A TranslatorRoute couples a {@link AbstractTranslator} to the Pipelines which carry its output.
+     */
+    public static class TranslatorRoute {
+
+        /**
+         * The Translator.
+         */
+        private final AbstractTranslator<?, ?> translator;
+
+        /**
+         * The Pipelines carrying the output of the Translator.
+         */
+        private final AbstractPipeline<?>[] targets;
+
+        /**
+         * Instantiates a new TranslatorRoute.
+         *
+         * @param translator The Translator.
+         * @param targets    The Pipelines carrying the output of the Translator.
+         */
+        private TranslatorRoute(final AbstractTranslator<?, ?> translator, final AbstractPipeline<?>[] targets) {
+            this.translator = translator;
+            this.targets = targets;
+        }
+
+        /**
+         * Gets the Translator.
+         *
+         * @return The Translator.
+         */
+        public AbstractTranslator<?, ?> getTranslator() {
+            return this.translator;
+        }
+
+        /**
+         * Gets the Pipelines carrying the output of the Translator.
+         *
+         * @return The Pipelines carrying the output of the Translator.
+         */
+        public AbstractPipeline<?>[] getTargets() {
+            return this.targets;
+        }
+
+        /**
+         * Translates the supplied packet and hands it off to every target Pipeline, see
+         * {@link AbstractPipeline#handOff(AbstractPipelinePacket)}.
+         *
+         * @param pipelinePacket The packet to be translated.
+         */
+        @SuppressWarnings("unchecked")
+        public void dispatch(final AbstractPipelinePacket<?> pipelinePacket) {
+            for (final AbstractPipeline<?> target : this.targets) {
+                final long start = System.nanoTime();
+                final AbstractPipelinePacket<?> translatedPacket =
+                        ((AbstractTranslator<AbstractPipelinePacket<?>, AbstractPipelinePacket<?>>) this.translator)
+                                .translate(pipelinePacket);
+                translatedPacket.setHandOffTime(start);
+                ((AbstractPipeline<AbstractPipelinePacket<?>>) target).handOff(translatedPacket);
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.ssh.pipelines;
+
+/**
+ * The Interface KeyedPacket.
+ * <p>
+ * A KeyedPacket is a {@link AbstractPipelinePacket} which describes the state of a specific source, such as a
+ * single camera. Packets with the same key describe the same source, so a newer packet with a key makes
+ * any older unprocessed packet with that key obsolete.
+ *
+ * @author agent
+ */
+public interface KeyedPacket {
+
+    /**
+     * Gets the key of the source this packet describes.
+     *
+     * @return The key of the packet.
+     */
+    Object getKey();
+}
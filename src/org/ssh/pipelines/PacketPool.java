@@ -0,0 +1,116 @@
+package org.ssh.pipelines;
+
+import org.ssh.util.Logger;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * The Class PacketPool.
+ * <p>
+ * A PacketPool hands out recycled {@link AbstractPipelinePacket PipelinePackets} of a single type. Packets taken
+ * from a pool are mutable and start with a single reference. Every holder which wants to keep the packet
+ * around calls {@link AbstractPipelinePacket#retain()}, and every holder which is done with it calls
+ * {@link AbstractPipelinePacket#release()}. Once the last reference is released the packet returns to the pool.
+ *
+ * @param <P> The type of PipelinePacket held by the pool.
+ * @author agent
+ */
+public class PacketPool<P extends AbstractPipelinePacket<?>> {
+
+    /**
+     * The operation which creates a new packet when the pool is empty.
+     */
+    private final Supplier<P> factory;
+
+    /**
+     * The packets which are ready to be reused.
+     */
+    private final BlockingQueue<P> availablePackets;
+
+    /**
+     * The number of packets created by this pool.
+     */
+    private final AtomicLong createdPackets = new AtomicLong();
+
+    /**
+     * The number of times a packet was reused.
+     */
+    private final AtomicLong reusedPackets = new AtomicLong();
+
+    // a logger for good measure
+    private static final Logger LOG = Logger.getLogger();
+
+    /**
+     * Instantiates a new PacketPool.
+     *
+     * @param factory  The operation which creates a new packet when the pool is empty.
+     * @param capacity The maximum number of packets kept for reuse.
+     */
+    public PacketPool(final Supplier<P> factory, final int capacity) {
+        this.factory = factory;
+        this.availablePackets = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Takes a packet from the pool, or creates one if none are available.
+     *
+     * @return A mutable packet with a single reference.
+     */
+    public P acquire() {
+        P pipelinePacket = this.availablePackets.poll();
+        if (pipelinePacket == null) {
+            pipelinePacket = this.factory.get();
+            pipelinePacket.setPool(this);
+            PacketPool.LOG.finest("Created packet number %d for pool of %s",
+                    this.createdPackets.incrementAndGet(),
+                    pipelinePacket.getClass().getSimpleName());
+        } else {
+            this.reusedPackets.incrementAndGet();
+        }
+
+        pipelinePacket.resetReferences();
+        pipelinePacket.setMutability(true);
+        return pipelinePacket;
+    }
+
+    /**
+     * Returns a packet to the pool. If the pool is full the packet is left to the garbage collector.
+     *
+     * @param pipelinePacket The packet which is no longer referenced.
+     */
+    @SuppressWarnings("unchecked")
+    void recycle(final AbstractPipelinePacket<?> pipelinePacket) {
+        pipelinePacket.reset();
+        this.availablePackets.offer((P) pipelinePacket);
+    }
+
+    /**
+     * Gets the number of packets created by this pool.
+     *
+     * @return The number of created packets.
+     */
+    public long getCreatedPackets() {
+        return this.createdPackets.get();
+    }
+
+    /**
+     * Gets the number of times a packet from this pool was reused.
+     *
+     * @return The number of reused packets.
+     */
+    public long getReusedPackets() {
+        return this.reusedPackets.get();
+    }
+
+    /**
+     * Gets the number of packets which are ready to be reused.
+     *
+     * @return The number of available packets.
+     */
+    public int getAvailablePackets() {
+        return this.availablePackets.size();
+    }
+}
@@ -0,0 +1,268 @@
+package org.ssh.pipelines;
+
+import org.ssh.util.Logger;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * The Class RouteGraph.
+ * <p>
+ * A RouteGraph is the compiled form of a PEPE route expression. Instead of expanding the expression
+ * into every possible chain of couplers, the expression is kept as a directed acyclic graph in which
+ * chains of concatenated couplers are fused into a single function. A packet is only copied onto
+ * multiple branches where the expression contains a parallel operator, and those branches can
+ * optionally be forked onto a dedicated executor. A route without branches runs entirely on the
+ * calling thread.
+ *
+ * @author agent
+ */
+public class RouteGraph {
+
+    /**
+     * The nodes a packet enters the graph through.
+     */
+    private final List<Node> entries;
+
+    /**
+     * The nodes through which a packet leaves the graph. These are only used while composing graphs.
+     */
+    private final List<Node> exits;
+
+    /**
+     * The executor on which branches are forked, or null if branches run on the calling thread.
+     */
+    private ExecutorService forkExecutor;
+
+    // a logger for good measure
+    private static final Logger LOG = Logger.getLogger();
+
+    /**
+     * Instantiates a new RouteGraph.
+     *
+     * @param entries The nodes a packet enters the graph through.
+     * @param exits   The nodes a packet leaves the graph through.
+     */
+    private RouteGraph(final List<Node> entries, final List<Node> exits) {
+        this.entries = entries;
+        this.exits = exits;
+    }
+
+    /**
+     * Creates an empty RouteGraph. An empty graph passes packets through unchanged.
+     *
+     * @return An empty RouteGraph.
+     */
+    public static RouteGraph empty() {
+        return new RouteGraph(new ArrayList<>(), new ArrayList<>());
+    }
+
+    /**
+     * Creates a RouteGraph consisting of a single transfer function.
+     *
+     * @param transferFunction The transfer function of the coupler.
+     * @return The RouteGraph.
+     */
+    public static RouteGraph of(final Function<AbstractPipelinePacket<?>, AbstractPipelinePacket<?>> transferFunction) {
+        final Node node = new Node(transferFunction);
+        return new RouteGraph(new ArrayList<>(Collections.singletonList(node)),
+                new ArrayList<>(Collections.singletonList(node)));
+    }
+
+    /**
+     * Concatenates the supplied graph to this graph, such that every packet leaving this graph
+     * enters the supplied graph.
+     *
+     * @param next The graph which follows this graph.
+     * @return The concatenated graph.
+     */
+    public RouteGraph then(final RouteGraph next) {
+        this.exits.forEach(exit -> exit.children.addAll(next.entries));
+        return new RouteGraph(this.entries, next.exits);
+    }
+
+    /**
+     * Places the supplied graph parallel to this graph, such that every packet is sent
+     * through both graphs.
+     *
+     * @param other The graph which runs parallel to this graph.
+     * @return The combined graph.
+     */
+    public RouteGraph or(final RouteGraph other) {
+        final List<Node> newEntries = new ArrayList<>(this.entries);
+        newEntries.addAll(other.entries);
+        final List<Node> newExits = new ArrayList<>(this.exits);
+        newExits.addAll(other.exits);
+        return new RouteGraph(newEntries, newExits);
+    }
+
+    /**
+     * Fuses every chain of nodes without branches into a single node.
+     *
+     * @return The RouteGraph itself, to support method chaining.
+     */
+    public RouteGraph fuse() {
+        final Set<Node> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        this.entries.forEach(entry -> entry.fuse(visited));
+        return this;
+    }
+
+    /**
+     * Sets the executor on which branches of the graph are forked. If no executor is set, all
+     * branches run on the calling thread.
+     *
+     * @param forkExecutor The executor on which branches are forked.
+     * @return The RouteGraph itself, to support method chaining.
+     */
+    public RouteGraph setForkExecutor(final ExecutorService forkExecutor) {
+        this.forkExecutor = forkExecutor;
+        return this;
+    }
+
+    /**
+     * Checks whether the graph contains any couplers.
+     *
+     * @return true, if the graph is empty.
+     */
+    public boolean isEmpty() {
+        return this.entries.isEmpty();
+    }
+
+    /**
+     * Checks whether the graph is a single fused chain, in which case it runs without any forking.
+     *
+     * @return true, if the graph has no branches.
+     */
+    public boolean isLinear() {
+        return this.entries.size() == 1 && this.entries.get(0).children.isEmpty();
+    }
+
+    /**
+     * Sends the supplied packet through the graph.
+     *
+     * @param pipelinePacket The packet to send through the graph.
+     * @return The packets leaving the graph, one for every route in the expression.
+     */
+    public List<AbstractPipelinePacket<?>> apply(final AbstractPipelinePacket<?> pipelinePacket) {
+        // the common case: a single chain of couplers
+        if (this.isLinear()) {
+            return Collections.singletonList(this.entries.get(0).transferFunction.apply(pipelinePacket));
+        }
+
+        final List<AbstractPipelinePacket<?>> resultPackets = new ArrayList<>();
+        this.applyAll(this.entries, pipelinePacket, resultPackets);
+        return resultPackets;
+    }
+
+    /**
+     * Sends the supplied packet through the supplied nodes, forking onto the executor if one is set.
+     *
+     * @param nodes          The nodes to send the packet through.
+     * @param pipelinePacket The packet.
+     * @param resultPackets  The list to which the resulting packets are added.
+     */
+    private void applyAll(final List<Node> nodes,
+                          final AbstractPipelinePacket<?> pipelinePacket,
+                          final List<AbstractPipelinePacket<?>> resultPackets) {
+        if (nodes.size() > 1) {
+            // the branches share the packet, so none of them may change it in place
+            pipelinePacket.setMutability(false);
+        }
+
+        if (this.forkExecutor == null || nodes.size() == 1) {
+            for (final Node node : nodes) {
+                this.applyNode(node, pipelinePacket, resultPackets);
+            }
+            return;
+        }
+
+        // fork all but the first branch, which runs on this thread
+        final List<Future<List<AbstractPipelinePacket<?>>>> branches = new ArrayList<>(nodes.size() - 1);
+        for (int index = 1; index < nodes.size(); index++) {
+            final Node node = nodes.get(index);
+            branches.add(this.forkExecutor.submit(() -> {
+                final List<AbstractPipelinePacket<?>> branchResults = new ArrayList<>();
+                this.applyNode(node, pipelinePacket, branchResults);
+                return branchResults;
+            }));
+        }
+        this.applyNode(nodes.get(0), pipelinePacket, resultPackets);
+
+        // join the branches
+        for (final Future<List<AbstractPipelinePacket<?>>> branch : branches) {
+            try {
+                resultPackets.addAll(branch.get());
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                RouteGraph.LOG.exception(exception);
+            } catch (ExecutionException exception) {
+                RouteGraph.LOG.exception(exception);
+            }
+        }
+    }
+
+    /**
+     * Sends the supplied packet through a single node and everything following it.
+     *
+     * @param node           The node.
+     * @param pipelinePacket The packet.
+     * @param resultPackets  The list to which the resulting packets are added.
+     */
+    private void applyNode(final Node node,
+                           final AbstractPipelinePacket<?> pipelinePacket,
+                           final List<AbstractPipelinePacket<?>> resultPackets) {
+        final AbstractPipelinePacket<?> resultPacket = node.transferFunction.apply(pipelinePacket);
+        if (node.children.isEmpty()) {
+            resultPackets.add(resultPacket);
+        } else {
+            this.applyAll(node.children, resultPacket, resultPackets);
+        }
+    }
+
+    /**
+     * A single vertex in the graph, holding the (possibly fused) transfer function of one or more couplers.
+     */
+    private static class Node {
+
+        /**
+         * The transfer function of this node.
+         */
+        private Function<AbstractPipelinePacket<?>, AbstractPipelinePacket<?>> transferFunction;
+
+        /**
+         * The nodes following this node.
+         */
+        private List<Node> children = new ArrayList<>();
+
+        /**
+         * Instantiates a new Node.
+         *
+         * @param transferFunction The transfer function of this node.
+         */
+        private Node(final Function<AbstractPipelinePacket<?>, AbstractPipelinePacket<?>> transferFunction) {
+            this.transferFunction = transferFunction;
+        }
+
+        /**
+         * Fuses this node with its successor as long as there's exactly one, and continues with the successors.
+         *
+         * @param visited The nodes which have already been fused.
+         */
+        private void fuse(final Set<Node> visited) {
+            if (!visited.add(this)) {
+                return;
+            }
+
+            while (this.children.size() == 1) {
+                final Node child = this.children.get(0);
+                this.transferFunction = this.transferFunction.andThen(child.transferFunction);
+                this.children = new ArrayList<>(child.children);
+            }
+
+            this.children.forEach(child -> child.fuse(visited));
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package org.ssh.pipelines;
+
+import org.ssh.managers.manager.Services;
+import org.ssh.models.enums.OverflowPolicy;
+import org.ssh.pipelines.queues.PacketQueue;
+import org.ssh.pipelines.queues.QueuedPacket;
+import org.ssh.pipelines.queues.UnboundedPacketQueue;
+import org.ssh.services.AbstractConsumer;
+import org.ssh.services.ThreadSafeConsumer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * The Class ShardedPipeline.
+ * <p>
+ * A ShardedPipeline spreads its packets over a number of shards, each with its own queue and worker. Packets
+ * implementing {@link KeyedPacket} are assigned to a shard by their key, so packets with the same key (such as
+ * the frames of a single camera) are always processed in order by the same worker, while packets with different
+ * keys are processed in parallel. Packets without a key all go to the same shard.
+ * <p>
+ * Since the shards deliver their results concurrently, Consumers which are registered inline are called by one
+ * shard at a time, unless they implement {@link ThreadSafeConsumer}, in which case all shards call them at once.
+ * Consumers which should not hold up the shards at all can be registered with a lane of their own.
+ *
+ * @param <P> A PipelinePacket this ShardedPipeline can work with.
+ * @author agent
+ */
+public abstract class ShardedPipeline<P extends AbstractPipelinePacket<?>> extends AbstractPipeline<P> {
+
+    /**
+     * The queues of the shards.
+     */
+    private final PacketQueue<P>[] shards;
+
+    /**
+     * Held by whoever takes packets from a shard and processes them, one lock per shard, so the packets of a
+     * shard are processed one at a time and in the order in which they were queued.
+     */
+    private final ReentrantLock[] shardLocks;
+
+    /**
+     * Whether the workers of the shards are running.
+     */
+    private volatile boolean workersRunning = false;
+
+    /**
+     * The generation of the current workers. Every start and stop of the workers begins a new generation, so a
+     * worker which was stopped never keeps draining its shard next to its successor.
+     */
+    private final AtomicInteger workerGeneration = new AtomicInteger();
+
+    /**
+     * Instantiates a new ShardedPipeline with unbounded queues and starts its workers.
+     *
+     * @param name   The name of the new Pipeline.
+     * @param shards The number of shards.
+     */
+    public ShardedPipeline(final String name, final int shards) {
+        this(name, shards, UnboundedPacketQueue::new);
+    }
+
+    /**
+     * Instantiates a new ShardedPipeline and starts its workers.
+     *
+     * @param name         The name of the new Pipeline.
+     * @param shards       The number of shards.
+     * @param queueFactory Creates the queue of every shard.
+     */
+    @SuppressWarnings("unchecked")
+    public ShardedPipeline(final String name, final int shards, final Supplier<PacketQueue<P>> queueFactory) {
+        super(name, false);
+        this.shards = Stream.generate(queueFactory).limit(Math.max(1, shards)).toArray(PacketQueue[]::new);
+        this.shardLocks = Stream.generate(ReentrantLock::new).limit(this.shards.length).toArray(ReentrantLock[]::new);
+        // only announce the Pipeline once it has its shards
+        this.register();
+        this.startWorker();
+    }
+
+    /**
+     * Gets the number of shards.
+     *
+     * @return The number of shards.
+     */
+    public int getShardCount() {
+        return this.shards.length;
+    }
+
+    /**
+     * Gets the shard a packet is assigned to.
+     *
+     * @param pipelinePacket The packet.
+     * @return The index of the shard.
+     */
+    public int getShard(final P pipelinePacket) {
+        if (!(pipelinePacket instanceof KeyedPacket))
+            return 0;
+        final Object key = ((KeyedPacket) pipelinePacket).getKey();
+        return key == null ? 0 : Math.floorMod(key.hashCode(), this.shards.length);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.ssh.pipelines.AbstractPipeline#addPacket(org.ssh.pipelines.AbstractPipelinePacket)
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <S extends AbstractPipeline<P>> S addPacket(final P pipelinePacket) {
+        pipelinePacket.stampReceiveTime();
+        if (!this.shards[this.getShard(pipelinePacket)].offer(pipelinePacket, System.nanoTime())) {
+            ShardedPipeline.LOG.fine("Packet of type %s dropped by pipeline %s.",
+                    pipelinePacket.getClass().toString(),
+                    this.getName());
+            pipelinePacket.release();
+        }
+        return (S) this;
+    }
+
+    /**
+     * The shards have a queue each, which is chosen when the ShardedPipeline is created. Use
+     * {@link #ShardedPipeline(String, int, Supplier)} to give the shards a different kind of queue.
+     *
+     * @param newQueue The new queue.
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    protected void setQueue(final PacketQueue<P> newQueue) {
+        throw new UnsupportedOperationException("The queues of sharded pipeline " + this.getName()
+                + " are chosen when it is created.");
+    }
+
+    /**
+     * The shards have a queue each, which is chosen when the ShardedPipeline is created. Use
+     * {@link #ShardedPipeline(String, int, Supplier)} with a factory of
+     * {@link org.ssh.pipelines.queues.RingBufferPacketQueue RingBufferPacketQueues} to give every shard a ring buffer.
+     *
+     * @param <S>            The generic type of Pipeline requested by the user.
+     * @param capacity       The maximum number of packets waiting in the Pipeline.
+     * @param overflowPolicy What to do with a packet that arrives when the queue is full.
+     * @return nothing
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public <S extends AbstractPipeline<P>> S setRingBuffer(final int capacity, final OverflowPolicy overflowPolicy) {
+        throw new UnsupportedOperationException("The queues of sharded pipeline " + this.getName()
+                + " are chosen when it is created.");
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.ssh.pipelines.AbstractPipeline#processPacket()
+     */
+    @Override
+    public boolean processPacket() {
+        return this.processShards();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.ssh.pipelines.AbstractPipeline#processBatch(int, long)
+     */
+    @Override
+    public boolean processBatch(final int maxPackets, final long maxDelay) {
+        // the shards process their packets one by one
+        return this.processShards();
+    }
+
+    /**
+     * Processes the packets waiting in the shards while the workers are stopped. A shard which is being
+     * processed by another thread is left to that thread, which looks at the shard again before it stops, so
+     * the packets of a shard are still processed one at a time and in order.
+     *
+     * @return false if there were no packets to process or a packet failed, true otherwise
+     */
+    private boolean processShards() {
+        // the workers take care of the shards
+        if (this.workersRunning)
+            return true;
+
+        boolean processed = false;
+        boolean success = true;
+        for (int index = 0; index < this.shards.length; index++) {
+            final PacketQueue<P> shard = this.shards[index];
+            final ReentrantLock shardLock = this.shardLocks[index];
+            // a packet may be added by a thread which finds the lock taken, so look at the shard again after unlocking
+            while (!this.workersRunning && shard.size() > 0) {
+                // another thread takes care of the shard
+                if (!shardLock.tryLock()) {
+                    processed = true;
+                    break;
+                }
+
+                try {
+                    QueuedPacket<P> queuedPacket;
+                    while (!this.workersRunning && (queuedPacket = shard.poll()) != null) {
+                        processed = true;
+                        try {
+                            success &= this.process(this.dequeue(queuedPacket));
+                        } catch (Exception exception) {
+                            // a failing packet should not stop the other packets
+                            ShardedPipeline.LOG.exception(exception);
+                            success = false;
+                        }
+                    }
+                } finally {
+                    shardLock.unlock();
+                }
+            }
+        }
+
+        return processed && success;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.ssh.pipelines.AbstractPipeline#startWorker()
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <S extends AbstractPipeline<P>> S startWorker() {
+        final int generation;
+        synchronized (this.workerGeneration) {
+            if (this.workersRunning)
+                return (S) this;
+
+            this.workersRunning = true;
+            generation = this.workerGeneration.incrementAndGet();
+        }
+
+        for (int index = 0; index < this.shards.length; index++) {
+            final PacketQueue<P> shard = this.shards[index];
+            final ReentrantLock shardLock = this.shardLocks[index];
+            final String workerName = this.getName() + "-shard-" + index;
+            Services.submitTask(workerName, () -> {
+                ShardedPipeline.LOG.info("Worker %s started.", workerName);
+                while (this.isCurrentWorker(generation)) {
+                    try {
+                        // a previous worker of the shard finishes its packet before this one takes over
+                        shardLock.lockInterruptibly();
+                        try {
+                            if (!this.isCurrentWorker(generation))
+                                break;
+
+                            final QueuedPacket<P> queuedPacket = shard.poll(WORKER_POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+                            if (queuedPacket != null)
+                                this.process(this.dequeue(queuedPacket));
+                        } finally {
+                            shardLock.unlock();
+                        }
+                    } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                        this.stopWorker(generation);
+                    } catch (Exception exception) {
+                        // a failing packet should not take the worker down
+                        ShardedPipeline.LOG.exception(exception);
+                    }
+                }
+                ShardedPipeline.LOG.info("Worker %s stopped.", workerName);
+            });
+        }
+        return (S) this;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.ssh.pipelines.AbstractPipeline#stopWorker()
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <S extends AbstractPipeline<P>> S stopWorker() {
+        this.stopWorker(this.workerGeneration.get());
+        return (S) this;
+    }
+
+    /**
+     * Checks whether the workers of the supplied generation are the ones which should be draining the shards.
+     *
+     * @param generation The generation of the workers.
+     * @return true, if the workers should keep running.
+     */
+    private boolean isCurrentWorker(final int generation) {
+        return this.workersRunning && this.workerGeneration.get() == generation;
+    }
+
+    /**
+     * Stops the workers of the supplied generation, unless other workers have been started since.
+     *
+     * @param generation The generation of the workers.
+     */
+    private void stopWorker(final int generation) {
+        synchronized (this.workerGeneration) {
+            if (this.workerGeneration.get() == generation) {
+                this.workersRunning = false;
+                this.workerGeneration.incrementAndGet();
+            }
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.ssh.pipelines.AbstractPipeline#hasWorker()
+     */
+    @Override
+    public boolean hasWorker() {
+        return this.workersRunning;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.ssh.pipelines.AbstractPipeline#isProcessing()
+     */
+    @Override
+    protected boolean isProcessing() {
+        return Stream.of(this.shardLocks).anyMatch(ReentrantLock::isLocked);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.ssh.pipelines.AbstractPipeline#getQueueSize()
+     */
+    @Override
+    public int getQueueSize() {
+        return Stream.of(this.shards).mapToInt(PacketQueue::size).sum();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.ssh.pipelines.AbstractPipeline#getDroppedPackets()
+     */
+    @Override
+    public long getDroppedPackets() {
+        return Stream.of(this.shards).mapToLong(PacketQueue::getDroppedPackets).sum();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.ssh.pipelines.AbstractPipeline#consume(org.ssh.services.AbstractConsumer, java.util.List)
+     */
+    @Override
+    protected boolean consume(final AbstractConsumer<P> consumer, final List<P> resultPackets) {
+        if (consumer instanceof ThreadSafeConsumer)
+            return consumer.consumePackets(resultPackets);
+
+        // the other shards wait until the consumer is done
+        synchronized (consumer) {
+            return consumer.consumePackets(resultPackets);
+        }
+    }
+}
@@ -1,9 +1,10 @@
 package org.ssh.pipelines.consumers;
 
-import com.google.common.reflect.TypeToken;
 import org.ssh.pipelines.packets.ProtoPacket;
 import org.ssh.services.AbstractConsumer;
 import org.ssh.services.AbstractService;
+import org.ssh.services.ThreadSafeConsumer;
+import org.ssh.util.TypeRegistry.TypeMetadata;
 
 import java.lang.reflect.Type;
 
@@ -12,7 +13,12 @@ import java.lang.reflect.Type;
  *
  * @author Jeroen de Jong
  */
-public class ProtoConsumer extends AbstractConsumer<ProtoPacket<?>> {
+public class ProtoConsumer extends AbstractConsumer<ProtoPacket<?>> implements ThreadSafeConsumer {
+
+    /**
+     * The type of ProtoPacket consumed by this ProtoConsumer.
+     */
+    private TypeMetadata packetType;
 
     /**
      * Instantiates a new Consumer that consumes RadioPackets
@@ -23,7 +29,18 @@ public class ProtoConsumer extends AbstractConsumer<ProtoPacket<?>> {
         super(name);
         // This way anonymous ProtoConsumers can be created,
         // without creating a empty class defining the type
-        this.genericType = (TypeToken<ProtoPacket<?>>) TypeToken.of(type);
+        this.packetType = TypeMetadata.of(type);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.ssh.services.AbstractService#getTypeMetadata()
+     */
+    @Override
+    public TypeMetadata getTypeMetadata() {
+        // the type is only known once the constructor has finished
+        return this.packetType != null ? this.packetType : super.getTypeMetadata();
     }
 
     /*
@@ -34,7 +51,7 @@ public class ProtoConsumer extends AbstractConsumer<ProtoPacket<?>> {
     @Override
     public boolean consume(ProtoPacket<?> pipelinePacket) {
         AbstractService.LOG.info("The ProtoConsumer<%s> ate a packet that looked like: \n%s",
-                this.genericType,
+                this.packetType.getType(),
                 pipelinePacket.read().toString());
         return true;
     }
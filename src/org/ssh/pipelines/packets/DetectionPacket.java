@@ -1,6 +1,7 @@
 package org.ssh.pipelines.packets;
 
 import org.ssh.pipelines.AbstractPipelinePacket;
+import org.ssh.pipelines.KeyedPacket;
 import protobuf.Detection.DetectionFrame;
 
 /**
@@ -11,10 +12,20 @@ import protobuf.Detection.DetectionFrame;
  * @see {@link AbstractPipelinePacket PipelinePackets}
  * @see {@link org.ssh.pipelines.packets.ProtoPacket ProtoPacket}
  */
-public class DetectionPacket extends ProtoPacket<DetectionFrame> {
+public class DetectionPacket extends ProtoPacket<DetectionFrame> implements KeyedPacket {
 
     public DetectionPacket(DetectionFrame detectionFrame) {
         super(detectionFrame);
     }
 
+    /**
+     * Detection frames are keyed by the camera that produced them.
+     *
+     * @return the id of the camera
+     */
+    @Override
+    public Object getKey() {
+        return this.read().getCameraId();
+    }
+
 }
@@ -3,10 +3,12 @@ package org.ssh.pipelines.packets;
 import com.google.protobuf.GeneratedMessage;
 import com.google.protobuf.Message.Builder;
 import org.ssh.pipelines.AbstractPipelinePacket;
+import org.ssh.pipelines.PacketPool;
 
 /**
  * PipelinePacket for protobuf packets, class implements some usefull methods for use with protobuf
- * messages.
+ * messages. The message and the builder kept with the packet are only touched while holding the lock of
+ * the packet, so a packet which is shared by several consumers can be read from any thread.
  *
  * @param <M> type of protobuf message.
  * @author Jeroen de Jong
@@ -15,6 +17,21 @@ import org.ssh.pipelines.AbstractPipelinePacket;
  */
 public class ProtoPacket<M extends GeneratedMessage> extends AbstractPipelinePacket<M> {
 
+    /**
+     * Builder which is kept around for changing the packet in place, see {@link #getBuilder()}.
+     */
+    private Builder builder;
+
+    /**
+     * Whether the builder holds the same message as the packet.
+     */
+    private boolean builderInSync = false;
+
+    /**
+     * Whether the message held by the packet reflects all changes made to the builder.
+     */
+    private boolean messageInSync = true;
+
     /**
      * Instantiates a protopacket based on a message.
      *
@@ -40,4 +57,69 @@ public class ProtoPacket<M extends GeneratedMessage> extends AbstractPipelinePac
     public ProtoPacket<M> save(Builder data) {
         return (ProtoPacket<M>) this.save(data.build());
     }
+
+    /**
+     * Save new data for this packet, any changes made through {@link #getBuilder()} which haven't been
+     * read yet are discarded.
+     *
+     * @param data new data
+     * @return the packet
+     */
+    @Override
+    public synchronized <I> AbstractPipelinePacket<M> save(I data) {
+        super.save(data);
+        this.builderInSync = false;
+        this.messageInSync = true;
+        return this;
+    }
+
+    /**
+     * @return the message in this packet, including any changes made through {@link #getBuilder()}.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized M read() {
+        if (!this.messageInSync) {
+            super.save(this.builder.build());
+            this.messageInSync = true;
+        }
+        return super.read();
+    }
+
+    /**
+     * Gets a builder which changes this packet in place. Unlike {@link #asBuilder()} the builder is kept
+     * with the packet, so a chain of couplers changes the same builder instead of copying the message for
+     * every coupler, and a pooled packet keeps its builder when it is reused. Only use this on
+     * {@link #isMutable() mutable} packets, anyone else holding the packet sees the changes.
+     *
+     * @return the builder of this packet.
+     * @see PacketPool
+     */
+    public synchronized Builder getBuilder() {
+        if (!this.builderInSync) {
+            final M message = super.read();
+            if (this.builder == null)
+                this.builder = message == null ? null : message.toBuilder();
+            else {
+                this.builder.clear();
+                if (message != null)
+                    this.builder.mergeFrom(message);
+            }
+            this.builderInSync = this.builder != null;
+        }
+
+        // the caller is about to change the builder
+        this.messageInSync = this.builder == null;
+        return this.builder;
+    }
+
+    /**
+     * Clears the packet before it is returned to its pool. The builder is kept so it can be reused.
+     */
+    @Override
+    protected synchronized void reset() {
+        super.reset();
+        this.builderInSync = false;
+        this.messageInSync = true;
+    }
 }
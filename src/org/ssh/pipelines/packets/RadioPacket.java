@@ -2,11 +2,18 @@ package org.ssh.pipelines.packets;
 
 import org.ssh.models.enums.SendMethod;
 import org.ssh.pipelines.AbstractPipelinePacket;
+import org.ssh.pipelines.DeadlinePacket;
+import org.ssh.util.Clock;
 import protobuf.Radio.RadioProtocolWrapper;
 import protobuf.Radio.RadioProtocolWrapper.Builder;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * The RadioPacket class.
+ * <p>
+ * A RadioPacket remembers when it was created and may carry a deadline after which the commands it holds
+ * are outdated, see {@link DeadlinePacket}.
  *
  * @author Rimon Oz
  * @author Jeroen de Jong
@@ -14,13 +21,23 @@ import protobuf.Radio.RadioProtocolWrapper.Builder;
  * @see {@link AbstractPipelinePacket PipelinePackets}
  * @see {@link org.ssh.pipelines.packets.ProtoPacket ProtoPacket}
  */
-public class RadioPacket extends ProtoPacket<RadioProtocolWrapper> {
+public class RadioPacket extends ProtoPacket<RadioProtocolWrapper> implements DeadlinePacket {
 
     /**
      * Overridden sendMethods, leave empty for default sendmethods.
      */
     private final SendMethod[] sendMethods;
 
+    /**
+     * The moment at which the packet was created, as returned by {@link Clock#nanoTime()}.
+     */
+    private final long creationTime;
+
+    /**
+     * The moment after which the packet is outdated, as returned by {@link Clock#nanoTime()}.
+     */
+    private volatile long deadline = DeadlinePacket.NO_DEADLINE;
+
     /**
      * Instantiates a new radio packet.
      *
@@ -29,6 +46,7 @@ public class RadioPacket extends ProtoPacket<RadioProtocolWrapper> {
     public RadioPacket(Builder packetBuilder) {
         super(packetBuilder.build());
         this.sendMethods = new SendMethod[0];
+        this.creationTime = Clock.nanoTime();
     }
 
     /**
@@ -40,6 +58,67 @@ public class RadioPacket extends ProtoPacket<RadioProtocolWrapper> {
     public RadioPacket(final RadioProtocolWrapper message, final SendMethod... methods) {
         super(message);
         this.sendMethods = methods;
+        this.creationTime = Clock.nanoTime();
+    }
+
+    /**
+     * Instantiates a copy of a radio packet, keeping its creation time and deadline.
+     *
+     * @param original the packet to copy.
+     */
+    private RadioPacket(final RadioPacket original) {
+        super(original.read());
+        this.sendMethods = original.sendMethods;
+        this.creationTime = original.creationTime;
+        this.deadline = original.deadline;
+    }
+
+    /**
+     * Creates a copy of this packet which can be changed without affecting this packet. The copy has the
+     * same creation time and deadline as this packet.
+     *
+     * @return the copy.
+     */
+    public RadioPacket copy() {
+        return new RadioPacket(this);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getCreationTime() {
+        return this.creationTime;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getDeadline() {
+        return this.deadline;
+    }
+
+    /**
+     * Sets the deadline of this packet relative to the moment it was created.
+     *
+     * @param timeout the time after creation after which the packet is outdated.
+     * @param unit    the unit of the timeout.
+     * @return the packet itself, to support method chaining.
+     */
+    public RadioPacket setDeadline(final long timeout, final TimeUnit unit) {
+        this.deadline = this.creationTime + unit.toNanos(timeout);
+        return this;
+    }
+
+    /**
+     * Removes the deadline of this packet.
+     *
+     * @return the packet itself, to support method chaining.
+     */
+    public RadioPacket clearDeadline() {
+        this.deadline = DeadlinePacket.NO_DEADLINE;
+        return this;
     }
 
     /**
@@ -50,4 +129,12 @@ public class RadioPacket extends ProtoPacket<RadioProtocolWrapper> {
         return sendMethods.clone();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Builder getBuilder() {
+        return (Builder) super.getBuilder();
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,99 @@
+package org.ssh.pipelines.queues;
+
+import org.ssh.pipelines.AbstractPipelinePacket;
+import org.ssh.pipelines.KeyedPacket;
+
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The Class ConflatingPacketQueue.
+ * <p>
+ * A {@link PacketQueue} which only keeps the latest unprocessed packet per key. Packets implementing
+ * {@link KeyedPacket} are conflated by their key, all other packets are conflated by their class. When a packet
+ * arrives while an older packet with the same key is still waiting, the older packet is superseded and the
+ * newer packet takes its place in line.
+ *
+ * @param <P> The type of PipelinePacket held by the queue.
+ * @author agent
+ */
+public class ConflatingPacketQueue<P extends AbstractPipelinePacket<?>> implements PacketQueue<P> {
+
+    /**
+     * The latest unprocessed packet per key.
+     */
+    private final Map<Object, QueuedPacket<P>> latestPackets = new ConcurrentHashMap<>();
+
+    /**
+     * The keys with an unprocessed packet, in the order in which they arrived.
+     */
+    private final BlockingQueue<Object> pendingKeys = new LinkedBlockingQueue<>();
+
+    /**
+     * The number of packets which were replaced by a newer packet before being processed.
+     */
+    private final AtomicLong supersededPackets = new AtomicLong();
+
+    @Override
+    public boolean offer(final P pipelinePacket, final long enqueueTime) {
+        final Object key = ConflatingPacketQueue.getKey(pipelinePacket);
+
+        final QueuedPacket<P> supersededPacket = this.latestPackets.put(key, new QueuedPacket<>(pipelinePacket, enqueueTime));
+        if (supersededPacket == null)
+            this.pendingKeys.offer(key);
+        else {
+            this.supersededPackets.incrementAndGet();
+            supersededPacket.getPacket().release();
+        }
+
+        return true;
+    }
+
+    @Override
+    public QueuedPacket<P> poll() {
+        final Object key = this.pendingKeys.poll();
+        return key == null ? null : this.latestPackets.remove(key);
+    }
+
+    @Override
+    public QueuedPacket<P> poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+        final Object key = this.pendingKeys.poll(timeout, unit);
+        return key == null ? null : this.latestPackets.remove(key);
+    }
+
+    @Override
+    public int size() {
+        return this.pendingKeys.size();
+    }
+
+    /**
+     * Returns the number of packets that were superseded by a newer packet with the same key. Superseded
+     * packets are never processed, so this equals the number of dropped packets.
+     *
+     * @return The number of superseded packets.
+     */
+    public long getSupersededPackets() {
+        return this.supersededPackets.get();
+    }
+
+    @Override
+    public long getDroppedPackets() {
+        return this.getSupersededPackets();
+    }
+
+    /**
+     * Gets the key by which the supplied packet is conflated.
+     *
+     * @param pipelinePacket The packet.
+     * @return The key of the packet.
+     */
+    private static Object getKey(final AbstractPipelinePacket<?> pipelinePacket) {
+        return pipelinePacket instanceof KeyedPacket
+                ? ((KeyedPacket) pipelinePacket).getKey()
+                : pipelinePacket.getClass();
+    }
+}
@@ -0,0 +1,151 @@
+package org.ssh.pipelines.queues;
+
+import org.ssh.pipelines.AbstractPipelinePacket;
+import org.ssh.pipelines.DeadlinePacket;
+import org.ssh.util.Clock;
+
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The Class DeadlinePacketQueue.
+ * <p>
+ * A {@link PacketQueue} which hands out packets earliest-deadline-first. Packets implementing
+ * {@link DeadlinePacket} are ordered by their deadline, packets without a deadline come after all packets
+ * with one, and packets with the same deadline keep the order in which they were offered. Packets whose
+ * deadline has passed by the time they reach the head of the queue are dropped and released.
+ *
+ * @param <P> The type of PipelinePacket held by the queue.
+ * @author agent
+ */
+public class DeadlinePacketQueue<P extends AbstractPipelinePacket<?>> implements PacketQueue<P> {
+
+    /**
+     * The queued packets, ordered by deadline.
+     */
+    private final PriorityBlockingQueue<Entry<P>> entries = new PriorityBlockingQueue<>();
+
+    /**
+     * The number of packets offered so far, used to keep packets with equal deadlines in order.
+     */
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * The number of packets that were dropped because their deadline passed.
+     */
+    private final AtomicLong expiredPackets = new AtomicLong();
+
+    @Override
+    public boolean offer(final P pipelinePacket, final long enqueueTime) {
+        final long deadline = pipelinePacket instanceof DeadlinePacket
+                ? ((DeadlinePacket) pipelinePacket).getDeadline()
+                : DeadlinePacket.NO_DEADLINE;
+        return this.entries.offer(new Entry<>(pipelinePacket, enqueueTime, deadline, this.sequence.getAndIncrement()));
+    }
+
+    @Override
+    public QueuedPacket<P> poll() {
+        Entry<P> entry;
+        while ((entry = this.entries.poll()) != null) {
+            if (!this.expire(entry))
+                return entry;
+        }
+        return null;
+    }
+
+    @Override
+    public QueuedPacket<P> poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+        final long end = System.nanoTime() + unit.toNanos(timeout);
+        long remaining = unit.toNanos(timeout);
+        while (remaining >= 0) {
+            final Entry<P> entry = this.entries.poll(remaining, TimeUnit.NANOSECONDS);
+            if (entry == null)
+                return null;
+            if (!this.expire(entry))
+                return entry;
+            remaining = end - System.nanoTime();
+        }
+        return null;
+    }
+
+    @Override
+    public int size() {
+        return this.entries.size();
+    }
+
+    @Override
+    public long getDroppedPackets() {
+        return this.expiredPackets.get();
+    }
+
+    /**
+     * Gets the number of packets that were dropped because their deadline passed.
+     *
+     * @return The number of expired packets.
+     */
+    public long getExpiredPackets() {
+        return this.expiredPackets.get();
+    }
+
+    /**
+     * Drops the packet held by the supplied entry if its deadline has passed.
+     *
+     * @param entry The entry taken from the head of the queue.
+     * @return true, if the packet was dropped.
+     */
+    private boolean expire(final Entry<P> entry) {
+        if (entry.deadline == DeadlinePacket.NO_DEADLINE || Clock.nanoTime() - entry.deadline <= 0)
+            return false;
+
+        this.expiredPackets.incrementAndGet();
+        entry.getPacket().release();
+        return true;
+    }
+
+    /**
+     * A queued packet together with its deadline and position.
+     *
+     * @param <P> The type of PipelinePacket.
+     */
+    private static class Entry<P extends AbstractPipelinePacket<?>> extends QueuedPacket<P> implements Comparable<Entry<P>> {
+
+        /**
+         * The deadline of the packet, as returned by {@link Clock#nanoTime()}.
+         */
+        private final long deadline;
+
+        /**
+         * The order in which the packet was offered.
+         */
+        private final long sequence;
+
+        /**
+         * Instantiates a new Entry.
+         *
+         * @param pipelinePacket The packet.
+         * @param enqueueTime    The moment at which the packet was offered.
+         * @param deadline       The deadline of the packet.
+         * @param sequence       The order in which the packet was offered.
+         */
+        private Entry(final P pipelinePacket, final long enqueueTime, final long deadline, final long sequence) {
+            super(pipelinePacket, enqueueTime);
+            this.deadline = deadline;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(final Entry<P> other) {
+            if (this.deadline != other.deadline) {
+                // packets without a deadline go last
+                if (this.deadline == DeadlinePacket.NO_DEADLINE)
+                    return 1;
+                if (other.deadline == DeadlinePacket.NO_DEADLINE)
+                    return -1;
+                // nanoTime may overflow, so compare the difference
+                return this.deadline - other.deadline < 0 ? -1 : 1;
+            }
+            return Long.compare(this.sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.ssh.pipelines.queues;
+
+import org.ssh.pipelines.AbstractPipeline;
+import org.ssh.pipelines.AbstractPipelinePacket;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Interface PacketQueue.
+ * <p>
+ * A PacketQueue holds the {@link AbstractPipelinePacket PipelinePackets} that are waiting to be processed by a
+ * {@link AbstractPipeline}. Implementations decide what happens when packets arrive faster than they are processed.
+ * Every packet is kept in a {@link QueuedPacket} together with the moment it was offered, so the time the packet
+ * spent waiting can be measured without storing anything in the packet itself.
+ *
+ * @param <P> The type of PipelinePacket held by the queue.
+ * @author agent
+ */
+public interface PacketQueue<P extends AbstractPipelinePacket<?>> {
+
+    /**
+     * Offers a packet to the queue. A packet which the queue evicts to make room for another packet
+     * is {@link AbstractPipelinePacket#release() released} by the queue.
+     *
+     * @param pipelinePacket The packet to be queued.
+     * @param enqueueTime    The moment at which the packet is offered, as returned by {@link System#nanoTime()}.
+     * @return true if the packet was queued, false if it was dropped.
+     */
+    boolean offer(P pipelinePacket, long enqueueTime);
+
+    /**
+     * Retrieves and removes the packet at the head of the queue.
+     *
+     * @return The packet at the head of the queue with the moment it was offered, or null if the queue is empty.
+     */
+    QueuedPacket<P> poll();
+
+    /**
+     * Retrieves and removes the packet at the head of the queue, waiting up to the specified time for one
+     * to become available.
+     *
+     * @param timeout How long to wait before giving up.
+     * @param unit    The unit of the timeout.
+     * @return The packet at the head of the queue with the moment it was offered, or null if the timeout elapsed.
+     * @throws InterruptedException If the thread was interrupted while waiting.
+     */
+    QueuedPacket<P> poll(long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Returns the number of packets currently in the queue.
+     *
+     * @return The number of queued packets.
+     */
+    int size();
+
+    /**
+     * Returns the number of packets that were dropped by the queue since it was created.
+     *
+     * @return The number of dropped packets.
+     */
+    long getDroppedPackets();
+}
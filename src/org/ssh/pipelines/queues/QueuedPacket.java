@@ -0,0 +1,55 @@
+package org.ssh.pipelines.queues;
+
+import org.ssh.pipelines.AbstractPipelinePacket;
+
+/**
+ * The Class QueuedPacket.
+ * <p>
+ * A QueuedPacket is the entry in which a {@link PacketQueue} keeps a packet, together with the moment the packet
+ * was offered to the queue. The moment belongs to the queue and not to the packet, since the same packet can
+ * wait in the queues of several Pipelines at once.
+ *
+ * @param <P> The type of PipelinePacket held by the entry.
+ * @author agent
+ */
+public class QueuedPacket<P extends AbstractPipelinePacket<?>> {
+
+    /**
+     * The packet.
+     */
+    private final P pipelinePacket;
+
+    /**
+     * The moment at which the packet was offered to the queue, as returned by {@link System#nanoTime()}.
+     */
+    private final long enqueueTime;
+
+    /**
+     * Instantiates a new QueuedPacket.
+     *
+     * @param pipelinePacket The packet.
+     * @param enqueueTime    The moment at which the packet was offered, as returned by {@link System#nanoTime()}.
+     */
+    public QueuedPacket(final P pipelinePacket, final long enqueueTime) {
+        this.pipelinePacket = pipelinePacket;
+        this.enqueueTime = enqueueTime;
+    }
+
+    /**
+     * Gets the packet.
+     *
+     * @return The packet.
+     */
+    public P getPacket() {
+        return this.pipelinePacket;
+    }
+
+    /**
+     * Gets the moment at which the packet was offered to the queue.
+     *
+     * @return The moment as returned by {@link System#nanoTime()}.
+     */
+    public long getEnqueueTime() {
+        return this.enqueueTime;
+    }
+}
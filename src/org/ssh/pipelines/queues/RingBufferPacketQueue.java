@@ -0,0 +1,109 @@
+package org.ssh.pipelines.queues;
+
+import org.ssh.models.enums.OverflowPolicy;
+import org.ssh.pipelines.AbstractPipelinePacket;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The Class RingBufferPacketQueue.
+ * <p>
+ * A bounded {@link PacketQueue} backed by a preallocated array. When the buffer is full the configured
+ * {@link OverflowPolicy} decides whether the oldest packet, the newest packet, or the caller gives way.
+ *
+ * @param <P> The type of PipelinePacket held by the queue.
+ * @author agent
+ */
+public class RingBufferPacketQueue<P extends AbstractPipelinePacket<?>> implements PacketQueue<P> {
+
+    /**
+     * The preallocated buffer.
+     */
+    private final BlockingQueue<QueuedPacket<P>> buffer;
+
+    /**
+     * What to do when the buffer is full.
+     */
+    private final OverflowPolicy overflowPolicy;
+
+    /**
+     * The number of packets that were dropped because the buffer was full.
+     */
+    private final AtomicLong droppedPackets = new AtomicLong();
+
+    /**
+     * Instantiates a new ring buffer.
+     *
+     * @param capacity       The maximum number of packets in the buffer.
+     * @param overflowPolicy What to do when the buffer is full.
+     */
+    public RingBufferPacketQueue(final int capacity, final OverflowPolicy overflowPolicy) {
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    @Override
+    public boolean offer(final P pipelinePacket, final long enqueueTime) {
+        final QueuedPacket<P> queuedPacket = new QueuedPacket<>(pipelinePacket, enqueueTime);
+        switch (this.overflowPolicy) {
+            case DROP_OLDEST:
+                // make room by evicting the head until the new packet fits
+                while (!this.buffer.offer(queuedPacket)) {
+                    final QueuedPacket<P> evictedPacket = this.buffer.poll();
+                    if (evictedPacket != null) {
+                        this.droppedPackets.incrementAndGet();
+                        evictedPacket.getPacket().release();
+                    }
+                }
+                return true;
+            case BLOCK:
+                try {
+                    // wait for the worker to make room
+                    this.buffer.put(queuedPacket);
+                    return true;
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    this.droppedPackets.incrementAndGet();
+                    return false;
+                }
+            case DROP_NEWEST:
+            default:
+                if (this.buffer.offer(queuedPacket))
+                    return true;
+                this.droppedPackets.incrementAndGet();
+                return false;
+        }
+    }
+
+    @Override
+    public QueuedPacket<P> poll() {
+        return this.buffer.poll();
+    }
+
+    @Override
+    public QueuedPacket<P> poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return this.buffer.poll(timeout, unit);
+    }
+
+    @Override
+    public int size() {
+        return this.buffer.size();
+    }
+
+    @Override
+    public long getDroppedPackets() {
+        return this.droppedPackets.get();
+    }
+
+    /**
+     * Gets the policy used when the buffer is full.
+     *
+     * @return The overflow policy.
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return this.overflowPolicy;
+    }
+}
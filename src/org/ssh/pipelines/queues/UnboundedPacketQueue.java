@@ -0,0 +1,48 @@
+package org.ssh.pipelines.queues;
+
+import org.ssh.pipelines.AbstractPipelinePacket;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Class UnboundedPacketQueue.
+ * <p>
+ * The default {@link PacketQueue}. It accepts every packet and never drops anything.
+ *
+ * @param <P> The type of PipelinePacket held by the queue.
+ * @author agent
+ */
+public class UnboundedPacketQueue<P extends AbstractPipelinePacket<?>> implements PacketQueue<P> {
+
+    /**
+     * The queued packets.
+     */
+    private final BlockingQueue<QueuedPacket<P>> packets = new LinkedBlockingQueue<>();
+
+    @Override
+    public boolean offer(final P pipelinePacket, final long enqueueTime) {
+        return this.packets.offer(new QueuedPacket<>(pipelinePacket, enqueueTime));
+    }
+
+    @Override
+    public QueuedPacket<P> poll() {
+        return this.packets.poll();
+    }
+
+    @Override
+    public QueuedPacket<P> poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return this.packets.poll(timeout, unit);
+    }
+
+    @Override
+    public int size() {
+        return this.packets.size();
+    }
+
+    @Override
+    public long getDroppedPackets() {
+        return 0;
+    }
+}
@@ -1,9 +1,12 @@
 package org.ssh.services;
 
 import org.ssh.managers.manager.Pipelines;
+import org.ssh.models.enums.ExecutionMode;
 import org.ssh.pipelines.AbstractPipeline;
 import org.ssh.pipelines.AbstractPipelinePacket;
 
+import java.util.List;
+
 /**
  * The Class AbstractConsumer.
  * <p>
@@ -30,15 +33,75 @@ public abstract class AbstractConsumer<P extends AbstractPipelinePacket<? extend
      * @return The AbstractConsumer itself.
      */
     public <C extends AbstractConsumer<P>> C attachToCompatiblePipelines() {
-        long noPipes = Pipelines.getOfDataType(this.getType()).stream()
-                // register with the pipeline
-                .map(pipeline -> ((AbstractPipeline<P>) pipeline).registerConsumer(this))
-                .count();
-        AbstractConsumer.LOG.info("Attached %s to %d pipes.", getClass().getSimpleName(), noPipes);
+        return this.attachToCompatiblePipelines(ExecutionMode.INLINE);
+    }
+
+    /**
+     * Attaches to all compatible Pipelines, consuming packets according to the supplied execution mode.
+     *
+     * @param <C>           The generic type of AbstractConsumer requested by the user.
+     * @param executionMode The thread on which the packets are consumed.
+     * @return The AbstractConsumer itself.
+     */
+    @SuppressWarnings("unchecked")
+    public <C extends AbstractConsumer<P>> C attachToCompatiblePipelines(final ExecutionMode executionMode) {
+        final List<AbstractPipeline<AbstractPipelinePacket<?>>> pipelines = Pipelines.getOfDataType(this.getType());
+        // register with the pipelines
+        pipelines.forEach(pipeline -> ((AbstractPipeline<P>) (AbstractPipeline<?>) pipeline)
+                .registerConsumer(this, executionMode));
+        AbstractConsumer.LOG.info("Attached %s to %d pipes.", getClass().getSimpleName(), pipelines.size());
 
         return this.<C>getAsService();
     }
 
+    /**
+     * Consumes a PipelinePacket and records the time it took.
+     *
+     * @param pipelinePacket The PipelinePacket to be consumed.
+     * @return true, if successful
+     */
+    public boolean consumePacket(final P pipelinePacket) {
+        final long start = System.nanoTime();
+        boolean success = false;
+        try {
+            success = this.consume(pipelinePacket);
+            return success;
+        } finally {
+            this.getMetrics().record(start);
+            if (!success)
+                this.getMetrics().recordFailure();
+        }
+    }
+
+    /**
+     * Consumes a list of PipelinePackets and records the time it took. A {@link BatchConsumer} receives the
+     * whole list at once, other Consumers receive the packets one by one.
+     *
+     * @param pipelinePackets The PipelinePackets to be consumed.
+     * @return true, if all packets were consumed successfully
+     */
+    @SuppressWarnings("unchecked")
+    public boolean consumePackets(final List<P> pipelinePackets) {
+        if (!(this instanceof BatchConsumer)) {
+            boolean success = true;
+            for (final P pipelinePacket : pipelinePackets) {
+                success &= this.consumePacket(pipelinePacket);
+            }
+            return success;
+        }
+
+        final long start = System.nanoTime();
+        boolean success = false;
+        try {
+            success = ((BatchConsumer<P>) this).consumeBatch(pipelinePackets);
+            return success;
+        } finally {
+            this.getMetrics().record(start, pipelinePackets.size());
+            if (!success)
+                this.getMetrics().recordFailure();
+        }
+    }
+
     /**
      * Consumes a PipelinePacket.
      *
@@ -20,7 +20,8 @@ public abstract class AbstractCoupler<P extends AbstractPipelinePacket<?>> exten
     private Function<P, P> transferFunction;
 
     /**
-     * Instantiates a new Coupler.
+     * Instantiates a new Coupler. The transfer function may change {@link AbstractPipelinePacket#isMutable() mutable}
+     * packets in place, packets which aren't mutable are shared and have to be copied before they're changed.
      *
      * @param name The name of the new Coupler.
      */
@@ -40,6 +41,24 @@ public abstract class AbstractCoupler<P extends AbstractPipelinePacket<?>> exten
         return this;
     }
 
+    /**
+     * Applies the transfer function to the supplied packet and records the time it took.
+     *
+     * @param pipelinePacket The packet to be transferred.
+     * @return The resulting packet.
+     */
+    public P apply(final P pipelinePacket) {
+        final long start = System.nanoTime();
+        try {
+            return this.transferFunction.apply(pipelinePacket);
+        } catch (RuntimeException exception) {
+            this.getMetrics().recordFailure();
+            throw exception;
+        } finally {
+            this.getMetrics().record(start);
+        }
+    }
+
     /**
      * Returns the transfer function.
      *
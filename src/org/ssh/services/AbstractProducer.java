@@ -3,17 +3,21 @@ package org.ssh.services;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
-import com.google.common.util.concurrent.ListenableScheduledFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import org.ssh.managers.manager.Pipelines;
 import org.ssh.managers.manager.Services;
 import org.ssh.models.enums.ProducerType;
 import org.ssh.pipelines.AbstractPipeline;
 import org.ssh.pipelines.AbstractPipelinePacket;
 import org.ssh.pipelines.PacketProductionCallback;
+import org.ssh.util.Clock;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * The Class AbstractProducer.
@@ -41,6 +45,22 @@ public abstract class AbstractProducer<P extends AbstractPipelinePacket<?>> exte
      */
     private final List<AbstractPipeline<P>> registeredPipelines;
 
+    /**
+     * The token of the tick loop of the scheduled production, or null if there is none. A tick loop
+     * keeps running for as long as its own token is the current one.
+     */
+    private final AtomicReference<Object> tickLoop = new AtomicReference<>();
+
+    /**
+     * The number of ticks of the scheduled production.
+     */
+    private final AtomicLong ticks = new AtomicLong();
+
+    /**
+     * The number of ticks which took longer than the interval of the scheduled production.
+     */
+    private final AtomicLong tickOverruns = new AtomicLong();
+
     /**
      * Instantiates a new Producer.
      *
@@ -51,7 +71,7 @@ public abstract class AbstractProducer<P extends AbstractPipelinePacket<?>> exte
         super(name);
         // set attributes
         this.producerType = producerType;
-        this.registeredPipelines = new ArrayList<>();
+        this.registeredPipelines = new CopyOnWriteArrayList<>();
     }
 
     /**
@@ -110,25 +130,102 @@ public abstract class AbstractProducer<P extends AbstractPipelinePacket<?>> exte
     }
 
     /**
-     * Produces PipelinePackets on an interval with the supplied length using the work function.
+     * Produces PipelinePackets on an interval with the supplied length using the work function. The work
+     * function runs on a tick thread of its own, which pushes every produced packet straight into the
+     * registered Pipelines. If no Pipelines are registered the Producer attaches to all compatible Pipelines.
+     * A tick which takes longer than the interval counts as an overrun, after which the next tick starts
+     * immediately. Only one scheduled production runs at a time; it ends when the Producer is stopped or
+     * the returned future is cancelled.
      *
      * @param taskName     The name of the task.
-     * @param taskInterval The length of the interval between task completion and execution.
-     * @return A ListenableFuture representing the result of the work function.
+     * @param taskInterval The length of the interval (in us) between the start-times of the ticks.
+     * @return A ListenableFuture representing the tick thread, which completes once production is stopped.
      */
-    @SuppressWarnings("unchecked")
     public ListenableFuture<P> produceSchedule(final String taskName, final long taskInterval) {
-        // add the task to the scheduled worker pool
+        if (this.getCallable() == null) {
+            AbstractProducer.LOG.warning("Producer %s has no work function, aborting scheduled production ...",
+                    this.getName());
+            return Futures.immediateFuture(null);
+        }
+        final Object loop = new Object();
+        if (!this.tickLoop.compareAndSet(null, loop)) {
+            AbstractProducer.LOG.warning("Producer %s is already producing on a schedule, aborting scheduled production ...",
+                    this.getName());
+            return Futures.immediateFuture(null);
+        }
+        if (this.registeredPipelines.isEmpty())
+            this.attachToCompatiblePipelines();
 
-        Runnable runnable = () -> this.produceOnce(taskName + "-schedule-partial");
+        final long intervalNanos = TimeUnit.MICROSECONDS.toNanos(taskInterval);
+        final ListenableFuture<P> tickFuture = Services.submitTask(this.getName() + "-" + taskName + "-tick", () -> {
+            long nextTick = Clock.nanoTime();
+            while (this.tickLoop.get() == loop) {
+                this.tick();
 
-        final ListenableScheduledFuture<P> scheduleFuture = (ListenableScheduledFuture<P>) Services
-                .scheduleTask(this.getName() + "-" + taskName + "-schedule", runnable, taskInterval);
+                nextTick += intervalNanos;
+                long remaining = nextTick - Clock.nanoTime();
+                if (remaining < 0) {
+                    // the tick took too long, so start the next one right away
+                    this.tickOverruns.incrementAndGet();
+                    nextTick = Clock.nanoTime();
+                }
+                while (this.tickLoop.get() == loop && remaining > 0) {
+                    Clock.parkNanos(remaining);
+                    remaining = nextTick - Clock.nanoTime();
+                }
+            }
+            AbstractProducer.LOG.fine("Producer %s stopped its scheduled production.", this.getName());
+        });
+        // parking ignores interrupts, so a cancelled tick loop has to be told to stop
+        tickFuture.addListener(() -> this.tickLoop.compareAndSet(loop, null), MoreExecutors.directExecutor());
+        return tickFuture;
+    }
 
-        FutureCallback<P> scheduleCallback = new PacketProductionCallback<>(this.getName());
-        Futures.addCallback(scheduleFuture, scheduleCallback);
-        // return the future so the user can use it
-        return scheduleFuture;
+    /**
+     * Runs the work function once and pushes the result into every registered Pipeline.
+     */
+    @SuppressWarnings("unchecked")
+    private void tick() {
+        this.ticks.incrementAndGet();
+        final P pipelinePacket;
+        try {
+            pipelinePacket = this.getCallable().call();
+        } catch (final Exception exception) {
+            AbstractProducer.LOG.exception(exception);
+            return;
+        }
+        if (pipelinePacket == null)
+            return;
+
+        // a single snapshot, so the references match the Pipelines the packet is added to
+        final AbstractPipeline<P>[] pipelines = this.registeredPipelines.toArray(new AbstractPipeline[0]);
+        if (pipelines.length == 0) {
+            pipelinePacket.release();
+            return;
+        }
+        // every Pipeline takes over a reference to the packet
+        for (int index = 1; index < pipelines.length; index++)
+            pipelinePacket.retain();
+        for (final AbstractPipeline<P> pipeline : pipelines)
+            pipeline.addPacket(pipelinePacket).processPacket();
+    }
+
+    /**
+     * Gets the number of ticks of the scheduled production.
+     *
+     * @return The number of ticks.
+     */
+    public long getTicks() {
+        return this.ticks.get();
+    }
+
+    /**
+     * Gets the number of ticks which took longer than the interval of the scheduled production.
+     *
+     * @return The number of tick overruns.
+     */
+    public long getTickOverruns() {
+        return this.tickOverruns.get();
     }
 
     /**
@@ -190,6 +287,17 @@ public abstract class AbstractProducer<P extends AbstractPipelinePacket<?>> exte
         return this.<S>getAsService();
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.ssh.services.AbstractService#stop()
+     */
+    @Override
+    public <S extends AbstractService<?>> S stop() {
+        this.tickLoop.set(null);
+        return super.stop();
+    }
+
     /**
      * Starts production with the supplied execution interval (in us).
      *
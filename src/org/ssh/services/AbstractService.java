@@ -1,19 +1,21 @@
 package org.ssh.services;
 
-import com.google.common.reflect.TypeToken;
 import org.ssh.managers.AbstractManageable;
 import org.ssh.managers.manager.Services;
 import org.ssh.pipelines.AbstractPipelinePacket;
+import org.ssh.util.StageMetrics;
+import org.ssh.util.TypeRegistry;
+import org.ssh.util.TypeRegistry.TypeMetadata;
+import org.ssh.util.TypeRegistry.TypeParameter;
 
 import java.lang.reflect.Type;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * The Class Service.
  * <p>
  * AbstractService<P extends AbstractPipelinePacket> is an abstract class representing a component of the framework
- * that handles Pipeline data. It remembers its parameterized genericType through reflection.
+ * that handles Pipeline data. Its parameterized type is resolved once per class through the {@link TypeRegistry}.
  *
  * @param <P> A PipelinePacket this Service can work with.
  * @author Rimon Oz
@@ -26,11 +28,14 @@ public abstract class AbstractService<P extends AbstractPipelinePacket<? extends
     private boolean enabled = false;
 
     /**
-     * The reflected TypeToken (o¬‿¬o ).
+     * The metrics of the packets handled by this Service.
      */
-    @SuppressWarnings("serial")
-    public TypeToken<P> genericType = new TypeToken<P>(this.getClass()) {
-    };
+    private final StageMetrics metrics;
+
+    /**
+     * The type of packets handled by Services, resolved once per class of Service.
+     */
+    private static final TypeParameter PACKET_TYPE = TypeRegistry.parameter(AbstractService.class, 0);
 
     /**
      * Instantiates a new Service.
@@ -40,6 +45,7 @@ public abstract class AbstractService<P extends AbstractPipelinePacket<? extends
     public AbstractService(final String name) {
         super(name);
         this.enabled = false;
+        this.metrics = new StageMetrics(name);
         AbstractService.LOG.info("New Service instantiated named %s", name);
         Services.add(this);
     }
@@ -61,7 +67,7 @@ public abstract class AbstractService<P extends AbstractPipelinePacket<? extends
      * @return The type of AbstractPipelinePacket on which this Service operates.
      */
     public Type getType() {
-        return this.genericType.getType();
+        return this.getTypeMetadata().getType();
     }
 
     /**
@@ -70,7 +76,25 @@ public abstract class AbstractService<P extends AbstractPipelinePacket<? extends
      * @return The types of AbstractPipelinePacket on which this Service operates.
      */
     public List<Type> getTypes() {
-        return this.genericType.getTypes().stream().map(TypeToken::getType).collect(Collectors.toList());
+        return this.getTypeMetadata().getTypes();
+    }
+
+    /**
+     * Gets the metadata of the type of {@link AbstractPipelinePacket} on which this Service operates.
+     *
+     * @return The metadata of the type of AbstractPipelinePacket on which this Service operates.
+     */
+    public TypeMetadata getTypeMetadata() {
+        return AbstractService.PACKET_TYPE.of(this.getClass());
+    }
+
+    /**
+     * Gets the metrics of the packets handled by this Service.
+     *
+     * @return The metrics of this Service.
+     */
+    public StageMetrics getMetrics() {
+        return this.metrics;
     }
 
     /**
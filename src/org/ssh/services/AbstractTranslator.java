@@ -1,7 +1,8 @@
 package org.ssh.services;
 
-import com.google.common.reflect.TypeToken;
 import org.ssh.pipelines.AbstractPipelinePacket;
+import org.ssh.util.TypeRegistry;
+import org.ssh.util.TypeRegistry.TypeParameter;
 
 import java.lang.reflect.Type;
 import java.util.function.Function;
@@ -23,11 +24,9 @@ public abstract class AbstractTranslator<P extends AbstractPipelinePacket<?>, Q
     private Function<P, Q> translationFunction;
 
     /**
-     * The reflected TypeToken (o¬‿¬o ).
+     * The type of output packets of Translators, resolved once per class of Translator.
      */
-    @SuppressWarnings("serial")
-    private TypeToken<Q> outputType = new TypeToken<Q>(this.getClass()) {
-    };
+    private static final TypeParameter OUTPUT_TYPE = TypeRegistry.parameter(AbstractTranslator.class, 1);
 
     /**
      * Instantiates a new Translator.
@@ -66,7 +65,15 @@ public abstract class AbstractTranslator<P extends AbstractPipelinePacket<?>, Q
      * @return The packet of type Q.
      */
     public Q translate(final P inputPacket) {
-        return this.getTranslationFunction().apply(inputPacket);
+        final long start = System.nanoTime();
+        try {
+            return this.getTranslationFunction().apply(inputPacket);
+        } catch (RuntimeException exception) {
+            this.getMetrics().recordFailure();
+            throw exception;
+        } finally {
+            this.getMetrics().record(start);
+        }
     }
 
     /**
@@ -75,6 +82,16 @@ public abstract class AbstractTranslator<P extends AbstractPipelinePacket<?>, Q
      * @return The type of output packet produced by this translator.
      */
     public Type getOutputType() {
-        return outputType.getType();
+        return AbstractTranslator.OUTPUT_TYPE.of(this.getClass()).getType();
+    }
+
+    /**
+     * Returns the raw Class of the output type (Q) of this translator. Since this is resolved through the Class
+     * of the translator it can be called before the fields of the translator are initialized.
+     *
+     * @return The Class of output packet produced by this translator.
+     */
+    public Class<?> getOutputClass() {
+        return AbstractTranslator.OUTPUT_TYPE.of(this.getClass()).getRawType();
     }
 }
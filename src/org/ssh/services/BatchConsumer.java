@@ -0,0 +1,26 @@
+package org.ssh.services;
+
+import org.ssh.pipelines.AbstractPipelinePacket;
+
+import java.util.List;
+
+/**
+ * The Interface BatchConsumer.
+ * <p>
+ * A BatchConsumer is a {@link AbstractConsumer} which can consume multiple PipelinePackets at once. When a Pipeline
+ * has a batch of packets available it hands the whole batch to a BatchConsumer, while regular Consumers
+ * registered with the same Pipeline still receive the packets one by one.
+ *
+ * @param <P> A PipelinePacket this BatchConsumer can work with.
+ * @author agent
+ */
+public interface BatchConsumer<P extends AbstractPipelinePacket<? extends Object>> {
+
+    /**
+     * Consumes a batch of PipelinePackets, in the order in which they were processed by the Pipeline.
+     *
+     * @param pipelinePackets The PipelinePackets to be consumed.
+     * @return true, if successful
+     */
+    boolean consumeBatch(List<P> pipelinePackets);
+}
@@ -0,0 +1,13 @@
+package org.ssh.services;
+
+/**
+ * The Interface ThreadSafeConsumer.
+ * <p>
+ * A ThreadSafeConsumer is a {@link AbstractConsumer} which may consume packets on multiple threads at the same
+ * time. A {@link org.ssh.pipelines.ShardedPipeline} hands packets to a ThreadSafeConsumer from all of its shards
+ * at once, while other Consumers are called by one shard at a time.
+ *
+ * @author agent
+ */
+public interface ThreadSafeConsumer {
+}
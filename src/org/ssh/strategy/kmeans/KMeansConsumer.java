@@ -5,11 +5,13 @@ import org.ssh.managers.manager.Models;
 import org.ssh.models.Game;
 import org.ssh.models.Robot;
 import org.ssh.models.Team;
+import org.ssh.models.WorldColumns;
 import org.ssh.models.enums.Allegiance;
 import org.ssh.models.enums.Direction;
 import org.ssh.pipelines.packets.DetectionPacket;
 import org.ssh.services.AbstractConsumer;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -51,9 +53,17 @@ public class KMeansConsumer extends AbstractConsumer<DetectionPacket> {
     @Override
     public boolean consume(DetectionPacket pipelinePacket) {
         try {
-            // Cluster the robots and also update them
-            fuzzler.clusterRobots(getRecentRobots());
-            // use RobotFuzzyKMeans#getClusteredRobots() to cluster the robots, without instantly updating them
+            // Cluster the robots from the last published world state
+            WorldColumns columns = Models.getWorldState().getColumns();
+            int[] slots = getRecentSlots(columns);
+            double[][] memberships = fuzzler.getClusteredRobots(columns, slots);
+            // Map the clusters back to the robot models
+            for (int i = 0; i < slots.length; ++i) {
+                final double[] membership = memberships[i];
+                Models.getRobots().get(columns.getAllegiance(slots[i]), columns.getRobotId(slots[i]))
+                        .ifPresent(robot -> robot.setClusterGroup(membership));
+            }
+            // use RobotFuzzyKMeans#clusterRobots() to cluster a list of robot models instead
         }
         catch(Exception e){
             e.printStackTrace();
@@ -66,33 +76,82 @@ public class KMeansConsumer extends AbstractConsumer<DetectionPacket> {
      * @return A list of the 6 last updated {@link Robot robots}, with the keeper being the first in the list
      */
     public List<Robot> getRecentRobots(){
-        // Retrieve all robots
-        List<Robot> allRobots = Models.<Robot>getAll("robot");
-        // Get the team we're clustering for
-        Optional<Team> allyTeam = Models.<Team>getAll("team").stream().filter(team -> team.getAllegiance() == allegiance)
-                .findAny();
-
-        int goalieId = allyTeam.isPresent() ? allyTeam.get().getGoalieId() : 0;
+        // Retrieve all robots of the team we're clustering for
+        List<Robot> allRobots = Models.getRobots().getAll(allegiance);
+        int goalieId = getGoalieId();
 
-        return allRobots.stream().filter(robot ->
-                // Get the robots that belong to the given allegiance
-                robot.getAllegiance() == allegiance)
-                // Sort the list by last updated
-                .sorted((robot1, robot2) -> Long.compare(robot1.lastUpdated(), robot2.lastUpdated()))
+        return allRobots.stream()
+                // Sort the list by last updated, most recent first
+                .sorted((robot1, robot2) -> Long.compare(lastUpdated(robot2), lastUpdated(robot1)))
                 // Make sure it's only 6 robots
                 .limit(6)
-                // Sort by ID
-                .sorted((robot1, robot2) -> Integer.compare(robot1.getRobotId(), robot2.getRobotId()))
-                // Sort the ids in such a way that the keeper is always the first in the list
+                // Sort by ID, in such a way that the keeper is always the first in the list
                 .sorted((robot1, robot2) -> {
-                    if(robot1.getRobotId() == goalieId){
-                        return -1;
-                    }
-                    else{
-                        return 1;
+                    if(robot1.getRobotId() == goalieId || robot2.getRobotId() == goalieId){
+                        return Boolean.compare(robot2.getRobotId() == goalieId, robot1.getRobotId() == goalieId);
                     }
+                    return Integer.compare(robot1.getRobotId(), robot2.getRobotId());
                 })
                 .collect(Collectors.toList());
     }
+
+    /**
+     * @param robot A robot
+     * @return The time the robot was last updated, or 0 if it never was
+     */
+    private static long lastUpdated(Robot robot){
+        Long lastUpdated = robot.lastUpdated();
+        return lastUpdated == null ? 0L : lastUpdated;
+    }
+
+    /**
+     * Same as {@link #getRecentRobots()}, but works on the slots of the {@link WorldColumns}, so no models
+     * or boxed values are involved.
+     * @param columns The positions of the robots
+     * @return The slots of the 6 last seen robots, ordered by id with the keeper being the first
+     */
+    public int[] getRecentSlots(WorldColumns columns){
+        int first = columns.getFirstSlot(allegiance);
+        int last = first + columns.getCapacity();
+
+        // Collect the slots of the team, most recently seen first
+        int[] slots = new int[columns.getCapacity()];
+        int count = 0;
+        for (int slot = columns.nextPresentSlot(first); slot >= 0 && slot < last;
+             slot = columns.nextPresentSlot(slot + 1)) {
+            int index = count++;
+            while (index > 0 && columns.getLastSeen(slots[index - 1]) < columns.getLastSeen(slot)) {
+                slots[index] = slots[index - 1];
+                --index;
+            }
+            slots[index] = slot;
+        }
+
+        // Make sure it's only 6 robots, sorted by id (which is the order of the slots)
+        int[] recent = Arrays.copyOf(slots, Math.min(count, 6));
+        Arrays.sort(recent);
+
+        // Move the keeper to the front
+        int goalieSlot = columns.getSlot(allegiance, getGoalieId());
+        for (int index = 0; index < recent.length; ++index) {
+            if (recent[index] == goalieSlot) {
+                System.arraycopy(recent, 0, recent, 1, index);
+                recent[0] = goalieSlot;
+                break;
+            }
+        }
+        return recent;
+    }
+
+    /**
+     * @return The id of the keeper of the team we're clustering for, or 0 if the team is unknown
+     */
+    private int getGoalieId(){
+        // Get the team we're clustering for
+        Optional<Team> allyTeam = Models.<Team>getAll("team").stream().filter(team -> team.getAllegiance() == allegiance)
+                .findAny();
+
+        return allyTeam.isPresent() ? allyTeam.get().getGoalieId() : 0;
+    }
 }
 
@@ -19,6 +19,7 @@ import org.apache.commons.math3.util.FastMath;
 import org.apache.commons.math3.util.MathArrays;
 import org.apache.commons.math3.util.MathUtils;
 import org.ssh.models.Robot;
+import org.ssh.models.WorldColumns;
 
 
 
@@ -150,6 +151,84 @@ public class RobotFuzzyKMeans extends Clusterer<DoublePoint> {
         return membershipMatrix;
     }
 
+    /**
+     * Uses the robots in the given slots of the {@link WorldColumns} to cluster them, and return a list of clusters
+     * in the form of double[][]. Runs the same algorithm as {@link #cluster(Collection)}, but loops over the
+     * positions as primitive arrays, without creating {@link DoublePoint points} or {@link CentroidCluster clusters}.
+     * {@link #getClusters()} is therefore left as it was.
+     * @param columns The positions of the robots
+     * @param slots The slots of the robots to be clustered, the keeper first
+     * @throws NumberIsTooSmallException if there are fewer robots than clusters
+     */
+    public double[][] getClusteredRobots(WorldColumns columns, int[] slots) {
+        int size = slots.length;
+        if(size < this.k)
+            throw new NumberIsTooSmallException(size, this.k, false);
+
+        // Read the positions from the columns
+        double[][] positions = new double[size][2];
+        for (int i = 0; i < size; ++i) {
+            positions[i][0] = columns.getX(slots[i]);
+            positions[i][1] = columns.getY(slots[i]);
+        }
+
+        // Give the keeper and the other robots their initial memberships
+        double[][] memberships = new double[size][];
+        memberships[0] = Role.KEEPER.getInitialMatrix().clone();
+        for (int i = 1; i < size; ++i) {
+            Role role = (eastSide && positions[i][0] > 0 || !eastSide && positions[i][0] < 0) ? Role.DEFENDER : Role.ATTACKER;
+            memberships[i] = MathArrays.normalizeArray(role.getInitialMatrix(), 1.0D);
+        }
+
+        double[][] centers = new double[this.k][2];
+        double[] distances = new double[this.k];
+        double exponent = 2.0D / (this.fuzziness - 1.0D);
+        int max = this.maxIterations < 0 ? Integer.MAX_VALUE : this.maxIterations;
+        for (int iteration = 0; iteration < max; ++iteration) {
+            // Move every center to the weighted middle of the points
+            for (int j = 0; j < this.k; ++j) {
+                double sumX = 0.0D;
+                double sumY = 0.0D;
+                double sum = 0.0D;
+                for (int i = 0; i < size; ++i) {
+                    double weight = FastMath.pow(memberships[i][j], this.fuzziness);
+                    sumX += weight * positions[i][0];
+                    sumY += weight * positions[i][1];
+                    sum += weight;
+                }
+                centers[j][0] = sumX / sum;
+                centers[j][1] = sumY / sum;
+            }
+
+            // Update the memberships of every point, and remember the largest change
+            double difference = 0.0D;
+            for (int i = 0; i < size; ++i) {
+                for (int j = 0; j < this.k; ++j)
+                    distances[j] = FastMath.abs(this.getDistanceMeasure().compute(positions[i], centers[j]));
+                for (int j = 0; j < this.k; ++j) {
+                    double sum = 0.0D;
+                    if (distances[j] != 0.0D) {
+                        for (int l = 0; l < this.k; ++l) {
+                            if (distances[l] == 0.0D) {
+                                sum = Double.POSITIVE_INFINITY;
+                                break;
+                            }
+                            sum += FastMath.pow(distances[j] / distances[l], exponent);
+                        }
+                    }
+                    double membership = sum == 0.0D ? 1.0D : sum == Double.POSITIVE_INFINITY ? 0.0D : 1.0D / sum;
+                    difference = FastMath.max(difference, FastMath.abs(membership - memberships[i][j]));
+                    memberships[i][j] = membership;
+                }
+            }
+            if (difference <= this.epsilon)
+                break;
+        }
+
+        this.membershipMatrix = memberships;
+        return memberships;
+    }
+
     /**
      * Clusters the given list of {@link Robot robots} and updates their clusters
      * @param robots The list of robots to cluster
@@ -0,0 +1,349 @@
+package org.ssh.util;
+
+import org.ssh.models.enums.ClockMode;
+
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The Class Clock.
+ * <p>
+ * The Clock is the source of time for everything that is driven by time instead of by packets: scheduled tasks,
+ * the timestamps of models and the timestamps of logs. It runs in one of three {@link ClockMode modes}:
+ * <ul>
+ * <li>{@link ClockMode#REAL}, in which it follows the system clock,</li>
+ * <li>{@link ClockMode#SCALED}, in which it runs a fixed factor faster (or slower) than the system clock,</li>
+ * <li>{@link ClockMode#VIRTUAL}, in which it only advances when the task driving it, like the replay of a log,
+ * moves it with {@link #driveTo(long)}. Tasks waiting for a moment on the Clock are parked until the Clock has
+ * reached that moment, so for example an hour-long log can be replayed in as much time as it takes to process
+ * it, while scheduled tasks still run once for every interval of the log.</li>
+ * </ul>
+ * The Clock never runs backwards, also not when switching modes. Measurements of how long something took
+ * (like the latency in the metrics) should keep using {@link System#nanoTime()}, since they measure the machine
+ * and not the game.
+ *
+ * @author agent
+ */
+public final class Clock {
+
+    /**
+     * The system time in ms at the moment the Clock was loaded.
+     */
+    private static final long EPOCH_MILLIS = System.currentTimeMillis();
+
+    /**
+     * The value of {@link System#nanoTime()} at the moment the Clock was loaded.
+     */
+    private static final long EPOCH_NANOS = System.nanoTime();
+
+    /**
+     * The current time of the Clock in virtual mode (in ns).
+     */
+    private static final AtomicLong virtualTime = new AtomicLong(EPOCH_NANOS);
+
+    /**
+     * The longest time (in ns on the system clock) a task waits in virtual mode before it checks the Clock
+     * again, so waiting tasks notice when they are stopped or when the mode changes.
+     */
+    private static final long VIRTUAL_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * The tasks waiting in virtual mode, earliest moment first.
+     */
+    private static final PriorityBlockingQueue<Waiter> waiters = new PriorityBlockingQueue<>();
+
+    /**
+     * The current mode of the Clock.
+     */
+    private static volatile TimeBase timeBase = new TimeBase(ClockMode.REAL, 1.0, EPOCH_NANOS, EPOCH_NANOS);
+
+    // a logger for good measure
+    private static final Logger LOG = Logger.getLogger();
+
+    /**
+     * Private constructor to hide the implicit public one.
+     */
+    private Clock() {
+    }
+
+    /**
+     * Gets the current time of the Clock. Like {@link System#nanoTime()}, the value is only meaningful when
+     * compared to other values returned by this method.
+     *
+     * @return The current time (in ns).
+     */
+    public static long nanoTime() {
+        return Clock.timeBase.nanoTime();
+    }
+
+    /**
+     * Gets the current time of the Clock as a timestamp, like {@link System#currentTimeMillis()}.
+     *
+     * @return The current time in ms since the epoch.
+     */
+    public static long currentTimeMillis() {
+        return Clock.EPOCH_MILLIS + TimeUnit.NANOSECONDS.toMillis(Clock.nanoTime() - Clock.EPOCH_NANOS);
+    }
+
+    /**
+     * Waits until the Clock has advanced by (at most) the supplied amount of time. Like
+     * {@link LockSupport#parkNanos(long)}, this method may return early, so callers should check the Clock
+     * and wait again if needed. In virtual mode the task is parked until the Clock is driven past the moment,
+     * see {@link #driveTo(long)}.
+     *
+     * @param nanos The amount of time to wait (in ns).
+     */
+    public static void parkNanos(final long nanos) {
+        if (nanos <= 0)
+            return;
+
+        final TimeBase current = Clock.timeBase;
+        if (current.mode != ClockMode.VIRTUAL) {
+            LockSupport.parkNanos(current.toRealNanos(nanos));
+            return;
+        }
+
+        final Waiter waiter = new Waiter(Clock.virtualTime.get() + nanos, Thread.currentThread());
+        Clock.waiters.add(waiter);
+        try {
+            // the Clock may have been driven past the moment before the waiter was added
+            if (waiter.deadline - Clock.virtualTime.get() > 0)
+                LockSupport.parkNanos(Clock.VIRTUAL_PARK_NANOS);
+        } finally {
+            Clock.waiters.remove(waiter);
+        }
+    }
+
+    /**
+     * Waits until the Clock has reached the supplied moment.
+     *
+     * @param deadline The moment (as returned by {@link #nanoTime()}) to wait for.
+     */
+    public static void parkUntil(final long deadline) {
+        long remaining;
+        while ((remaining = deadline - Clock.nanoTime()) > 0 && !Thread.currentThread().isInterrupted())
+            Clock.parkNanos(remaining);
+    }
+
+    /**
+     * Brings the Clock to the supplied moment. In virtual mode the Clock is moved forward to the moment, and
+     * every task waiting for a moment up to it continues. In the other modes this waits like
+     * {@link #parkUntil(long)}. This is meant for the task which drives the game, like the replay of a log;
+     * other tasks should wait on the Clock instead.
+     *
+     * @param moment The moment (as returned by {@link #nanoTime()}) to move to.
+     */
+    public static void driveTo(final long moment) {
+        if (Clock.timeBase.mode != ClockMode.VIRTUAL) {
+            Clock.parkUntil(moment);
+            return;
+        }
+        Clock.advanceTo(moment);
+        // give the tasks which were woken a chance to run
+        Thread.yield();
+    }
+
+    /**
+     * Moves the Clock forward to the supplied moment and wakes the tasks waiting for a moment up to it. This
+     * only has an effect in virtual mode, and the Clock is never moved backwards.
+     *
+     * @param moment The moment (as returned by {@link #nanoTime()}) to move to.
+     */
+    public static void advanceTo(final long moment) {
+        if (Clock.timeBase.mode != ClockMode.VIRTUAL)
+            return;
+        final long now = Clock.virtualTime.accumulateAndGet(moment, (current, next) -> next - current > 0 ? next : current);
+
+        Waiter waiter;
+        while ((waiter = Clock.waiters.peek()) != null && waiter.deadline - now <= 0) {
+            if (Clock.waiters.remove(waiter))
+                LockSupport.unpark(waiter.thread);
+        }
+    }
+
+    /**
+     * Converts an amount of time on the Clock to the amount of time that passes on the system clock. In
+     * virtual mode the Clock doesn't advance by itself, so the amount is returned unchanged and tasks should
+     * wait on the Clock with {@link #parkNanos(long)} instead.
+     *
+     * @param nanos The amount of time on the Clock (in ns).
+     * @return The amount of time on the system clock (in ns).
+     */
+    public static long toRealNanos(final long nanos) {
+        return Clock.timeBase.toRealNanos(nanos);
+    }
+
+    /**
+     * Lets the Clock follow the system clock.
+     */
+    public static void useRealTime() {
+        Clock.setMode(ClockMode.REAL, 1.0);
+    }
+
+    /**
+     * Lets the Clock run the supplied factor faster than the system clock.
+     *
+     * @param scale The factor, for example 2.0 to run twice as fast or 0.5 to run half as fast.
+     */
+    public static void useScaledTime(final double scale) {
+        Clock.setMode(ClockMode.SCALED, scale);
+    }
+
+    /**
+     * Lets the Clock only advance when it is driven, see {@link #driveTo(long)}.
+     */
+    public static void useVirtualTime() {
+        Clock.setMode(ClockMode.VIRTUAL, 1.0);
+    }
+
+    /**
+     * Sets the mode of the Clock. The Clock continues from its current time in the new mode.
+     *
+     * @param mode  The mode.
+     * @param scale The factor by which the Clock runs faster than the system clock, only used in scaled mode.
+     */
+    public static synchronized void setMode(final ClockMode mode, final double scale) {
+        if (mode == ClockMode.SCALED && !(scale > 0)) {
+            Clock.LOG.warning("Clock can not run at a scale of %s, keeping mode %s.", scale, Clock.timeBase.mode);
+            return;
+        }
+
+        final long now = Clock.nanoTime();
+        if (mode == ClockMode.VIRTUAL)
+            Clock.virtualTime.set(now);
+        Clock.timeBase = new TimeBase(mode, mode == ClockMode.SCALED ? scale : 1.0, System.nanoTime(), now);
+        // the waiting tasks wait according to the new mode from now on
+        Clock.waiters.forEach(waiter -> LockSupport.unpark(waiter.thread));
+        Clock.LOG.info("Clock switched to %s time%s.", mode.name().toLowerCase(),
+                mode == ClockMode.SCALED ? String.format(" at %.2fx", scale) : "");
+    }
+
+    /**
+     * Gets the mode of the Clock.
+     *
+     * @return The mode of the Clock.
+     */
+    public static ClockMode getMode() {
+        return Clock.timeBase.mode;
+    }
+
+    /**
+     * Gets the factor by which the Clock runs faster than the system clock.
+     *
+     * @return The scale of the Clock, which is 1.0 unless the Clock is in scaled mode.
+     */
+    public static double getScale() {
+        return Clock.timeBase.scale;
+    }
+
+    /**
+     * The Class Waiter.
+     * <p>
+     * A Waiter is a task which waits in virtual mode until the Clock reaches a moment.
+     */
+    private static class Waiter implements Comparable<Waiter> {
+
+        /**
+         * The moment on the Clock the task waits for (in ns).
+         */
+        private final long deadline;
+
+        /**
+         * The thread of the waiting task.
+         */
+        private final Thread thread;
+
+        /**
+         * Instantiates a new Waiter.
+         *
+         * @param deadline The moment on the Clock the task waits for (in ns).
+         * @param thread   The thread of the waiting task.
+         */
+        private Waiter(final long deadline, final Thread thread) {
+            this.deadline = deadline;
+            this.thread = thread;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.Comparable#compareTo(java.lang.Object)
+         */
+        @Override
+        public int compareTo(final Waiter other) {
+            return Long.signum(this.deadline - other.deadline);
+        }
+    }
+
+    /**
+     * The Class TimeBase.
+     * <p>
+     * A TimeBase couples a moment on the system clock to a moment on the Clock, from which the Clock
+     * advances according to its mode. A new TimeBase is created whenever the mode changes.
+     */
+    private static class TimeBase {
+
+        /**
+         * The mode of the Clock.
+         */
+        private final ClockMode mode;
+
+        /**
+         * The factor by which the Clock runs faster than the system clock.
+         */
+        private final double scale;
+
+        /**
+         * The moment on the system clock at which this TimeBase started (in ns).
+         */
+        private final long realOrigin;
+
+        /**
+         * The moment on the Clock at which this TimeBase started (in ns).
+         */
+        private final long clockOrigin;
+
+        /**
+         * Instantiates a new TimeBase.
+         *
+         * @param mode        The mode of the Clock.
+         * @param scale       The factor by which the Clock runs faster than the system clock.
+         * @param realOrigin  The moment on the system clock at which this TimeBase starts (in ns).
+         * @param clockOrigin The moment on the Clock at which this TimeBase starts (in ns).
+         */
+        private TimeBase(final ClockMode mode, final double scale, final long realOrigin, final long clockOrigin) {
+            this.mode = mode;
+            this.scale = scale;
+            this.realOrigin = realOrigin;
+            this.clockOrigin = clockOrigin;
+        }
+
+        /**
+         * Gets the current time of the Clock.
+         *
+         * @return The current time (in ns).
+         */
+        private long nanoTime() {
+            switch (this.mode) {
+                case VIRTUAL:
+                    return Clock.virtualTime.get();
+                case SCALED:
+                    return this.clockOrigin + (long) ((System.nanoTime() - this.realOrigin) * this.scale);
+                default:
+                    return this.clockOrigin + (System.nanoTime() - this.realOrigin);
+            }
+        }
+
+        /**
+         * Converts an amount of time on the Clock to the amount of time that passes on the system clock.
+         *
+         * @param nanos The amount of time on the Clock (in ns).
+         * @return The amount of time on the system clock (in ns).
+         */
+        private long toRealNanos(final long nanos) {
+            return this.mode == ClockMode.SCALED ? (long) (nanos / this.scale) : nanos;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package org.ssh.util;
+
+import org.ssh.managers.manager.Services;
+import org.ssh.models.enums.OverrunPolicy;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The Class FixedRateTask.
+ * <p>
+ * A FixedRateTask runs a task on a thread of its own at a fixed rate. Every tick has a deadline (its scheduled
+ * start) which is derived from the start of the task, so the task doesn't drift by its own execution time.
+ * The FixedRateTask measures the jitter between the scheduled and actual start of every tick, and counts the
+ * ticks which overran their interval. What happens after an overrun is decided by the {@link OverrunPolicy}.
+ * The ticks follow the {@link Clock}, so in virtual time they run back-to-back.
+ *
+ * @author agent
+ */
+public class FixedRateTask {
+
+    /**
+     * The name of the task.
+     */
+    private final String name;
+
+    /**
+     * The task.
+     */
+    private final Runnable task;
+
+    /**
+     * The interval between the scheduled starts of the ticks (in ns).
+     */
+    private final long interval;
+
+    /**
+     * What to do when a tick overruns.
+     */
+    private final OverrunPolicy overrunPolicy;
+
+    /**
+     * The delay between the scheduled and actual start of the ticks.
+     */
+    private final LatencyHistogram jitter = new LatencyHistogram();
+
+    /**
+     * The number of ticks which have run.
+     */
+    private final AtomicLong ticks = new AtomicLong();
+
+    /**
+     * The number of ticks which took longer than the interval.
+     */
+    private final AtomicLong overruns = new AtomicLong();
+
+    /**
+     * The number of ticks which were skipped because of an overrun.
+     */
+    private final AtomicLong missedTicks = new AtomicLong();
+
+    /**
+     * Whether the task is running.
+     */
+    private volatile boolean running = false;
+
+    // a logger for good measure
+    private static final Logger LOG = Logger.getLogger();
+
+    /**
+     * Instantiates a new FixedRateTask.
+     *
+     * @param name          The name of the task.
+     * @param task          The task.
+     * @param interval      The interval between the scheduled starts of the ticks (in us).
+     * @param overrunPolicy What to do when a tick takes longer than the interval.
+     */
+    public FixedRateTask(final String name, final Runnable task, final long interval, final OverrunPolicy overrunPolicy) {
+        this.name = name;
+        this.task = task;
+        this.interval = TimeUnit.MICROSECONDS.toNanos(Math.max(1, interval));
+        this.overrunPolicy = overrunPolicy;
+    }
+
+    /**
+     * Starts the task on a thread of its own. The first tick starts immediately.
+     *
+     * @return The FixedRateTask itself, to support method chaining.
+     */
+    public FixedRateTask start() {
+        if (this.running)
+            return this;
+
+        this.running = true;
+        Services.submitTask(this.name + "-tick", this::run);
+        return this;
+    }
+
+    /**
+     * Stops the task after the current tick.
+     */
+    public void cancel() {
+        this.running = false;
+    }
+
+    /**
+     * Runs the ticks until the task is cancelled.
+     */
+    private void run() {
+        FixedRateTask.LOG.info("Fixed-rate task %s started with an interval of %d us.",
+                this.name, TimeUnit.NANOSECONDS.toMicros(this.interval));
+        // every tick shows up in the task registry
+        final TaskMetrics metrics = Services.getTaskMetrics(this.name);
+        long deadline = Clock.nanoTime();
+        while (this.running) {
+            // wait for the scheduled start of the tick
+            long remaining;
+            while ((remaining = deadline - Clock.nanoTime()) > 0 && this.running)
+                Clock.parkNanos(remaining);
+            if (!this.running)
+                break;
+
+            final long late = Clock.nanoTime() - deadline;
+            this.jitter.record(late);
+            final long start = metrics.startedScheduled(System.nanoTime() - Clock.toRealNanos(late));
+            boolean failed = false;
+            try {
+                this.task.run();
+            } catch (Exception exception) {
+                // a failing tick should not stop the task
+                failed = true;
+                FixedRateTask.LOG.exception(exception);
+            } finally {
+                metrics.finished(start, failed);
+            }
+            this.ticks.incrementAndGet();
+
+            deadline += this.interval;
+            final long behind = Clock.nanoTime() - deadline;
+            if (behind > 0) {
+                this.overruns.incrementAndGet();
+                if (this.overrunPolicy == OverrunPolicy.SKIP) {
+                    // continue at the first tick that hasn't started yet
+                    final long skipped = behind / this.interval + 1;
+                    this.missedTicks.addAndGet(skipped);
+                    deadline += skipped * this.interval;
+                }
+            }
+        }
+        FixedRateTask.LOG.info("Fixed-rate task %s stopped.", this.name);
+    }
+
+    /**
+     * Gets the name of the task.
+     *
+     * @return The name of the task.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets the interval between the scheduled starts of the ticks.
+     *
+     * @param unit The unit in which the interval is returned.
+     * @return The interval.
+     */
+    public long getInterval(final TimeUnit unit) {
+        return unit.convert(this.interval, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the policy used when a tick overruns.
+     *
+     * @return The overrun policy.
+     */
+    public OverrunPolicy getOverrunPolicy() {
+        return this.overrunPolicy;
+    }
+
+    /**
+     * Checks whether the task is running.
+     *
+     * @return true, if the task is running.
+     */
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    /**
+     * Gets the delay between the scheduled and actual start of the ticks.
+     *
+     * @return The jitter of the task.
+     */
+    public LatencyHistogram getJitter() {
+        return this.jitter;
+    }
+
+    /**
+     * Gets the number of ticks which have run.
+     *
+     * @return The number of ticks.
+     */
+    public long getTicks() {
+        return this.ticks.get();
+    }
+
+    /**
+     * Gets the number of ticks which took longer than the interval.
+     *
+     * @return The number of overruns.
+     */
+    public long getOverruns() {
+        return this.overruns.get();
+    }
+
+    /**
+     * Gets the number of ticks which were skipped because of an overrun.
+     *
+     * @return The number of missed ticks.
+     */
+    public long getMissedTicks() {
+        return this.missedTicks.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d ticks, jitter mean %.1f us / p99 %d us / max %d us, %d overruns, %d missed",
+                this.name,
+                this.getTicks(),
+                this.jitter.getMean(TimeUnit.MICROSECONDS),
+                this.jitter.getPercentile(0.99, TimeUnit.MICROSECONDS),
+                this.jitter.getMax(TimeUnit.MICROSECONDS),
+                this.getOverruns(),
+                this.getMissedTicks());
+    }
+}
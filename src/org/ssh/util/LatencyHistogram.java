@@ -0,0 +1,156 @@
+package org.ssh.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The Class LatencyHistogram.
+ * <p>
+ * A LatencyHistogram counts durations in buckets whose bounds grow by powers of two (1ns, 2ns, 4ns, ..).
+ * Recording a duration doesn't allocate and doesn't lock, so it's cheap enough to do for every packet in every
+ * stage of a pipeline. Percentiles are reported as the upper bound of the bucket they fall into, which means
+ * they are accurate to within a factor of two.
+ *
+ * @author agent
+ */
+public class LatencyHistogram {
+
+    /**
+     * The number of buckets, one for every bit in a long plus one for durations of 0ns.
+     */
+    private static final int BUCKETS = Long.SIZE + 1;
+
+    /**
+     * The number of recorded durations per bucket.
+     */
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    /**
+     * The number of recorded durations.
+     */
+    private final AtomicLong count = new AtomicLong();
+
+    /**
+     * The sum of all recorded durations in ns.
+     */
+    private final AtomicLong total = new AtomicLong();
+
+    /**
+     * The longest recorded duration in ns.
+     */
+    private final AtomicLong maximum = new AtomicLong();
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos The duration in ns.
+     */
+    public void record(final long nanos) {
+        this.record(nanos, 1);
+    }
+
+    /**
+     * Records the same duration a number of times, for example the time per packet of a batch.
+     *
+     * @param nanos The duration in ns.
+     * @param times The number of times the duration is recorded.
+     */
+    public void record(final long nanos, final long times) {
+        final long duration = Math.max(0, nanos);
+        this.buckets.addAndGet(Long.SIZE - Long.numberOfLeadingZeros(duration), times);
+        this.count.addAndGet(times);
+        this.total.addAndGet(duration * times);
+
+        long currentMaximum;
+        while (duration > (currentMaximum = this.maximum.get())
+                && !this.maximum.compareAndSet(currentMaximum, duration)) {
+            // retry until the maximum is at least this duration
+        }
+    }
+
+    /**
+     * Records the time passed since the supplied moment.
+     *
+     * @param startNanos The moment as returned by {@link System#nanoTime()}.
+     */
+    public void recordSince(final long startNanos) {
+        this.record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Gets the number of recorded durations.
+     *
+     * @return The number of recorded durations.
+     */
+    public long getCount() {
+        return this.count.get();
+    }
+
+    /**
+     * Gets the mean of the recorded durations.
+     *
+     * @param unit The unit in which the mean is returned.
+     * @return The mean duration.
+     */
+    public double getMean(final TimeUnit unit) {
+        final long recorded = this.count.get();
+        return recorded == 0 ? 0 : (double) this.total.get() / recorded / unit.toNanos(1);
+    }
+
+    /**
+     * Gets the longest recorded duration.
+     *
+     * @param unit The unit in which the duration is returned.
+     * @return The longest duration.
+     */
+    public long getMax(final TimeUnit unit) {
+        return unit.convert(this.maximum.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the duration below which the supplied fraction of the recorded durations fall.
+     *
+     * @param percentile The percentile as a fraction (eg. 0.99).
+     * @param unit       The unit in which the duration is returned.
+     * @return The upper bound of the bucket containing the percentile.
+     */
+    public long getPercentile(final double percentile, final TimeUnit unit) {
+        final long recorded = this.count.get();
+        if (recorded == 0) {
+            return 0;
+        }
+
+        final long threshold = (long) Math.ceil(percentile * recorded);
+        long cumulative = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            cumulative += this.buckets.get(bucket);
+            if (cumulative >= threshold) {
+                return unit.convert(LatencyHistogram.upperBound(bucket), TimeUnit.NANOSECONDS);
+            }
+        }
+        return this.getMax(unit);
+    }
+
+    /**
+     * Clears all recorded durations.
+     */
+    public void reset() {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            this.buckets.set(bucket, 0);
+        }
+        this.count.set(0);
+        this.total.set(0);
+        this.maximum.set(0);
+    }
+
+    /**
+     * Gets the largest duration (in ns) that falls into the supplied bucket.
+     *
+     * @param bucket The index of the bucket.
+     * @return The upper bound of the bucket.
+     */
+    private static long upperBound(final int bucket) {
+        return bucket >= Long.SIZE - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+}
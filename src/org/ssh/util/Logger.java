@@ -137,7 +137,8 @@ public class Logger extends java.util.logging.Logger {
      * @see java.util.Formatter
      */
     public void config(final String format, final Object... args) {
-        super.config(String.format(format, args));
+        if (this.isLoggable(Level.CONFIG))
+            super.config(String.format(format, args));
     }
 
     /**
@@ -156,7 +157,8 @@ public class Logger extends java.util.logging.Logger {
      * @see java.util.Formatter
      */
     public void fine(final String format, final Object... args) {
-        super.fine(String.format(format, args));
+        if (this.isLoggable(Level.FINE))
+            super.fine(String.format(format, args));
     }
 
     /**
@@ -175,7 +177,8 @@ public class Logger extends java.util.logging.Logger {
      * @see java.util.Formatter
      */
     public void finer(final String format, final Object... args) {
-        super.finer(String.format(format, args));
+        if (this.isLoggable(Level.FINER))
+            super.finer(String.format(format, args));
     }
 
     /**
@@ -194,7 +197,8 @@ public class Logger extends java.util.logging.Logger {
      * @see java.util.Formatter
      */
     public void finest(final String format, final Object... args) {
-        super.finest(String.format(format, args));
+        if (this.isLoggable(Level.FINEST))
+            super.finest(String.format(format, args));
     }
 
     /**
@@ -213,7 +217,8 @@ public class Logger extends java.util.logging.Logger {
      * @see java.util.Formatter
      */
     public void info(final String format, final Object... args) {
-        super.info(String.format(format, args));
+        if (this.isLoggable(Level.INFO))
+            super.info(String.format(format, args));
     }
 
     /**
@@ -232,7 +237,8 @@ public class Logger extends java.util.logging.Logger {
      * @see java.util.Formatter
      */
     public void severe(final String format, final Object... args) {
-        super.severe(String.format(format, args));
+        if (this.isLoggable(Level.SEVERE))
+            super.severe(String.format(format, args));
     }
 
     /**
@@ -251,7 +257,8 @@ public class Logger extends java.util.logging.Logger {
      * @see java.util.Formatter
      */
     public void warning(final String format, final Object... args) {
-        super.warning(String.format(format, args));
+        if (this.isLoggable(Level.WARNING))
+            super.warning(String.format(format, args));
     }
 
     /**
@@ -264,6 +271,8 @@ public class Logger extends java.util.logging.Logger {
      * @see java.util.Formatter
      */
     public void exception(final Exception exception) {
+        if (!this.isLoggable(Level.WARNING))
+            return;
         super.warning(Stream.of(exception.getStackTrace())
                 .reduce("",
                         (result, curRule) -> String.format("%s%s%n", result, curRule.toString()),
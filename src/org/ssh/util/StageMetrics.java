@@ -0,0 +1,159 @@
+package org.ssh.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The Class StageMetrics.
+ * <p>
+ * StageMetrics keeps track of how long a single stage (a pipeline queue, a coupler, a translator, a consumer)
+ * takes per packet, how many packets pass through it and how many of them failed.
+ *
+ * @author agent
+ */
+public class StageMetrics {
+
+    /**
+     * The name of the stage.
+     */
+    private final String name;
+
+    /**
+     * The time spent per packet.
+     */
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    /**
+     * The number of packets which failed in this stage.
+     */
+    private final AtomicLong failures = new AtomicLong();
+
+    /**
+     * The moment from which the rate is measured, as returned by {@link System#nanoTime()}.
+     */
+    private volatile long since = System.nanoTime();
+
+    /**
+     * Instantiates new StageMetrics.
+     *
+     * @param name The name of the stage.
+     */
+    public StageMetrics(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the name of the stage.
+     *
+     * @return The name of the stage.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Records a packet which passed through the stage.
+     *
+     * @param startNanos The moment the packet entered the stage, as returned by {@link System#nanoTime()}.
+     */
+    public void record(final long startNanos) {
+        this.latency.recordSince(startNanos);
+    }
+
+    /**
+     * Records a batch of packets which passed through the stage together.
+     *
+     * @param startNanos The moment the batch entered the stage, as returned by {@link System#nanoTime()}.
+     * @param packets    The number of packets in the batch.
+     */
+    public void record(final long startNanos, final int packets) {
+        if (packets > 0)
+            this.latency.record((System.nanoTime() - startNanos) / packets, packets);
+    }
+
+    /**
+     * Records a packet which failed in the stage.
+     */
+    public void recordFailure() {
+        this.failures.incrementAndGet();
+    }
+
+    /**
+     * Gets the time spent per packet.
+     *
+     * @return The latency histogram.
+     */
+    public LatencyHistogram getLatency() {
+        return this.latency;
+    }
+
+    /**
+     * Gets the number of packets which passed through the stage.
+     *
+     * @return The number of packets.
+     */
+    public long getCount() {
+        return this.latency.getCount();
+    }
+
+    /**
+     * Gets the number of packets which failed in the stage.
+     *
+     * @return The number of failures.
+     */
+    public long getFailures() {
+        return this.failures.get();
+    }
+
+    /**
+     * Gets the average number of packets per second since the metrics were created or last reset.
+     *
+     * @return The packet rate in packets per second.
+     */
+    public double getRate() {
+        final long elapsed = System.nanoTime() - this.since;
+        return elapsed <= 0 ? 0 : this.getCount() * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+    }
+
+    /**
+     * Clears the metrics.
+     */
+    public void reset() {
+        this.latency.reset();
+        this.failures.set(0);
+        this.since = System.nanoTime();
+    }
+
+    /**
+     * Returns the metrics as a map, latencies are in us.
+     *
+     * @return The metrics.
+     */
+    public Map<String, Object> toMap() {
+        final Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("name", this.name);
+        metrics.put("count", this.getCount());
+        metrics.put("rate", this.getRate());
+        metrics.put("failures", this.getFailures());
+        metrics.put("mean", this.latency.getMean(TimeUnit.MICROSECONDS));
+        metrics.put("p50", this.latency.getPercentile(0.50, TimeUnit.MICROSECONDS));
+        metrics.put("p99", this.latency.getPercentile(0.99, TimeUnit.MICROSECONDS));
+        metrics.put("max", this.latency.getMax(TimeUnit.MICROSECONDS));
+        return metrics;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-40s %10d %9.1f/s %10.1fus %8dus %8dus %8dus %6d failures",
+                this.name,
+                this.getCount(),
+                this.getRate(),
+                this.latency.getMean(TimeUnit.MICROSECONDS),
+                this.latency.getPercentile(0.50, TimeUnit.MICROSECONDS),
+                this.latency.getPercentile(0.99, TimeUnit.MICROSECONDS),
+                this.latency.getMax(TimeUnit.MICROSECONDS),
+                this.getFailures());
+    }
+}
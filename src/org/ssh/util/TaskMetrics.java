@@ -0,0 +1,262 @@
+package org.ssh.util;
+
+import org.ssh.models.enums.TaskState;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The Class TaskMetrics.
+ * <p>
+ * TaskMetrics keeps track of every execution of a named task: how often it was submitted, how long it waited
+ * for a thread, how long it ran, how often it failed and whether it is currently waiting or running.
+ *
+ * @author agent
+ */
+public class TaskMetrics {
+
+    /**
+     * The name of the task.
+     */
+    private final String name;
+
+    /**
+     * The time executions of the task waited for a thread.
+     */
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+
+    /**
+     * The time executions of the task ran.
+     */
+    private final LatencyHistogram runDuration = new LatencyHistogram();
+
+    /**
+     * The number of times the task was submitted.
+     */
+    private final AtomicLong submissions = new AtomicLong();
+
+    /**
+     * The number of executions which threw an exception.
+     */
+    private final AtomicLong failures = new AtomicLong();
+
+    /**
+     * The number of executions waiting for a thread.
+     */
+    private final AtomicInteger queued = new AtomicInteger();
+
+    /**
+     * The number of executions currently running.
+     */
+    private final AtomicInteger running = new AtomicInteger();
+
+    /**
+     * Instantiates new TaskMetrics.
+     *
+     * @param name The name of the task.
+     */
+    public TaskMetrics(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records the submission of an execution of the task.
+     *
+     * @return The moment of submission, as returned by {@link System#nanoTime()}.
+     */
+    public long submitted() {
+        this.submissions.incrementAndGet();
+        this.queued.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the start of an execution of the task which was submitted through {@link #submitted()}.
+     *
+     * @param submitTime The moment of submission, as returned by {@link System#nanoTime()}.
+     * @return The moment the execution started, as returned by {@link System#nanoTime()}.
+     */
+    public long started(final long submitTime) {
+        this.queued.decrementAndGet();
+        return this.start(submitTime);
+    }
+
+    /**
+     * Records the start of a scheduled execution of the task, which wasn't submitted through {@link #submitted()}.
+     * The time between the scheduled and actual start counts as queue wait.
+     *
+     * @param scheduledTime The moment the execution should have started, as returned by {@link System#nanoTime()}.
+     * @return The moment the execution started, as returned by {@link System#nanoTime()}.
+     */
+    public long startedScheduled(final long scheduledTime) {
+        this.submissions.incrementAndGet();
+        return this.start(scheduledTime);
+    }
+
+    /**
+     * Marks an execution as running and records how long it waited.
+     *
+     * @param readyTime The moment from which the execution could have started.
+     * @return The moment the execution started, as returned by {@link System#nanoTime()}.
+     */
+    private long start(final long readyTime) {
+        this.running.incrementAndGet();
+        final long start = System.nanoTime();
+        this.queueWait.record(Math.max(0, start - readyTime));
+        return start;
+    }
+
+    /**
+     * Records that an execution which was submitted through {@link #submitted()} was rejected, and will never run.
+     */
+    public void rejected() {
+        this.queued.decrementAndGet();
+        this.failures.incrementAndGet();
+    }
+
+    /**
+     * Records the end of an execution of the task.
+     *
+     * @param startTime The moment the execution started, as returned by {@link #started(long)}.
+     * @param failed    Whether the execution threw an exception.
+     */
+    public void finished(final long startTime, final boolean failed) {
+        this.runDuration.recordSince(startTime);
+        this.running.decrementAndGet();
+        if (failed)
+            this.failures.incrementAndGet();
+    }
+
+    /**
+     * Gets the name of the task.
+     *
+     * @return The name of the task.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets what the task is currently doing.
+     *
+     * @return The state of the task.
+     */
+    public TaskState getState() {
+        if (this.running.get() > 0)
+            return TaskState.RUNNING;
+        if (this.queued.get() > 0)
+            return TaskState.QUEUED;
+        return TaskState.IDLE;
+    }
+
+    /**
+     * Gets the number of times the task was submitted.
+     *
+     * @return The number of submissions.
+     */
+    public long getSubmissions() {
+        return this.submissions.get();
+    }
+
+    /**
+     * Gets the number of executions which threw an exception.
+     *
+     * @return The number of failures.
+     */
+    public long getFailures() {
+        return this.failures.get();
+    }
+
+    /**
+     * Gets the number of executions currently running.
+     *
+     * @return The number of running executions.
+     */
+    public int getRunning() {
+        return this.running.get();
+    }
+
+    /**
+     * Gets the number of executions waiting for a thread.
+     *
+     * @return The number of queued executions.
+     */
+    public int getQueued() {
+        return this.queued.get();
+    }
+
+    /**
+     * Gets the time executions of the task waited for a thread.
+     *
+     * @return The queue wait histogram.
+     */
+    public LatencyHistogram getQueueWait() {
+        return this.queueWait;
+    }
+
+    /**
+     * Gets the time executions of the task ran.
+     *
+     * @return The run duration histogram.
+     */
+    public LatencyHistogram getRunDuration() {
+        return this.runDuration;
+    }
+
+    /**
+     * Gets the total time (in us) executions of the task ran.
+     *
+     * @return The total run time.
+     */
+    public long getTotalRunTime() {
+        return (long) (this.runDuration.getMean(TimeUnit.MICROSECONDS) * this.runDuration.getCount());
+    }
+
+    /**
+     * Clears the metrics. Executions which are waiting or running are still counted as such.
+     */
+    public void reset() {
+        this.queueWait.reset();
+        this.runDuration.reset();
+        this.submissions.set(0);
+        this.failures.set(0);
+    }
+
+    /**
+     * Gets the metrics as a map, which is easier to work with from Lua.
+     *
+     * @return The metrics by name.
+     */
+    public Map<String, Object> toMap() {
+        final Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("name", this.name);
+        metrics.put("state", this.getState());
+        metrics.put("submissions", this.getSubmissions());
+        metrics.put("failures", this.getFailures());
+        metrics.put("running", this.getRunning());
+        metrics.put("queued", this.getQueued());
+        metrics.put("wait.mean", this.queueWait.getMean(TimeUnit.MICROSECONDS));
+        metrics.put("wait.p99", this.queueWait.getPercentile(0.99, TimeUnit.MICROSECONDS));
+        metrics.put("run.mean", this.runDuration.getMean(TimeUnit.MICROSECONDS));
+        metrics.put("run.p99", this.runDuration.getPercentile(0.99, TimeUnit.MICROSECONDS));
+        metrics.put("run.max", this.runDuration.getMax(TimeUnit.MICROSECONDS));
+        metrics.put("run.total", this.getTotalRunTime());
+        return metrics;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-40s %-8s %10d %10.1fus %10.1fus %8dus %12dus %6d failures",
+                this.name,
+                this.getState(),
+                this.getSubmissions(),
+                this.queueWait.getMean(TimeUnit.MICROSECONDS),
+                this.runDuration.getMean(TimeUnit.MICROSECONDS),
+                this.runDuration.getPercentile(0.99, TimeUnit.MICROSECONDS),
+                this.getTotalRunTime(),
+                this.getFailures());
+    }
+}
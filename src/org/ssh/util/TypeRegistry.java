@@ -0,0 +1,173 @@
+package org.ssh.util;
+
+import com.google.common.reflect.TypeToken;
+
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The Class TypeRegistry.
+ * <p>
+ * The TypeRegistry resolves the generic type parameters of classes such as Pipelines, PipelinePackets and
+ * Services. Every type parameter is resolved only once per concrete class, after which the resulting
+ * {@link TypeMetadata} is shared by all instances of that class. This way creating an instance (for example
+ * a PipelinePacket) involves no reflection at all.
+ *
+ * @author agent
+ */
+public class TypeRegistry {
+
+    /**
+     * This class should merely act as a toolkit, so it shouldn't be be instantiated.
+     */
+    private TypeRegistry() {
+    }
+
+    /**
+     * Gets the type parameter with the supplied index declared by the supplied class.
+     *
+     * @param declaringClass The class declaring the type parameter.
+     * @param index          The index of the type parameter.
+     * @return The TypeParameter, which resolves the parameter for subclasses of the declaring class.
+     */
+    public static TypeParameter parameter(final Class<?> declaringClass, final int index) {
+        return new TypeParameter(declaringClass.getTypeParameters()[index]);
+    }
+
+    /**
+     * The Class TypeParameter.
+     * <p>
+     * A TypeParameter resolves a single type variable for any subclass of the class declaring it, and
+     * remembers the result for every class it has seen.
+     */
+    public static class TypeParameter {
+
+        /**
+         * The type variable to be resolved.
+         */
+        private final TypeVariable<?> variable;
+
+        /**
+         * The resolved type variable by class.
+         */
+        private final ClassValue<TypeMetadata> resolved = new ClassValue<TypeMetadata>() {
+            @Override
+            protected TypeMetadata computeValue(final Class<?> type) {
+                return TypeMetadata.of(TypeToken.of(type).resolveType(TypeParameter.this.variable).getType());
+            }
+        };
+
+        /**
+         * Instantiates a new TypeParameter.
+         *
+         * @param variable The type variable to be resolved.
+         */
+        private TypeParameter(final TypeVariable<?> variable) {
+            this.variable = variable;
+        }
+
+        /**
+         * Gets the metadata of the type this parameter resolves to in the supplied class.
+         *
+         * @param type The class for which the parameter is resolved.
+         * @return The metadata of the resolved type.
+         */
+        public TypeMetadata of(final Class<?> type) {
+            return this.resolved.get(type);
+        }
+    }
+
+    /**
+     * The Class TypeMetadata.
+     * <p>
+     * TypeMetadata holds the handles of a resolved type parameter.
+     */
+    public static class TypeMetadata {
+
+        /**
+         * The resolved type.
+         */
+        private final Type type;
+
+        /**
+         * The raw class of the resolved type.
+         */
+        private final Class<?> rawType;
+
+        /**
+         * The resolved type and all its supertypes.
+         */
+        private final List<Type> types;
+
+        /**
+         * The raw classes of the resolved type and all its supertypes.
+         */
+        private final Set<Class<?>> rawTypes;
+
+        /**
+         * Instantiates new TypeMetadata.
+         *
+         * @param token The TypeToken of the resolved type.
+         */
+        private TypeMetadata(final TypeToken<?> token) {
+            this.type = token.getType();
+            this.rawType = token.getRawType();
+            this.types = Collections.unmodifiableList(token.getTypes().stream()
+                    .map(TypeToken::getType)
+                    .collect(Collectors.toList()));
+            this.rawTypes = Collections.unmodifiableSet(new LinkedHashSet<Class<?>>(token.getTypes().rawTypes()));
+        }
+
+        /**
+         * Creates the metadata of the supplied type. Metadata of type parameters should be obtained through
+         * {@link TypeParameter#of(Class)}, which caches the result.
+         *
+         * @param type The type.
+         * @return The metadata of the type.
+         */
+        public static TypeMetadata of(final Type type) {
+            return new TypeMetadata(TypeToken.of(type));
+        }
+
+        /**
+         * Gets the resolved type.
+         *
+         * @return The resolved type.
+         */
+        public Type getType() {
+            return this.type;
+        }
+
+        /**
+         * Gets the raw class of the resolved type.
+         *
+         * @return The raw class of the resolved type.
+         */
+        public Class<?> getRawType() {
+            return this.rawType;
+        }
+
+        /**
+         * Gets the resolved type and all its supertypes.
+         *
+         * @return The resolved type and all its supertypes.
+         */
+        public List<Type> getTypes() {
+            return this.types;
+        }
+
+        /**
+         * Gets the raw classes of the resolved type and all its supertypes.
+         *
+         * @return The raw classes of the resolved type and all its supertypes.
+         */
+        public Set<Class<?>> getRawTypes() {
+            return this.rawTypes;
+        }
+    }
+}